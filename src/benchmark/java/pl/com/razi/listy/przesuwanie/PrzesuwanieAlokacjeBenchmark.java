@@ -0,0 +1,89 @@
+package pl.com.razi.listy.przesuwanie;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+
+import pl.com.razi.listy.przesuwanie.PrzesuwanieObsluga.TrybPrzesuwania;
+
+/**
+ * Benchmark ilości pamięci alokowanej na jedną operację przesunięcia (np.
+ * przytrzymany klawisz strzałki na liście z milionem wierszy).
+ *
+ * Pomiar korzysta z {@code com.sun.management.ThreadMXBean#getThreadAllocatedBytes}
+ * dla bieżącego wątku. Dla porównania wypisywany jest rozmiar samej listy
+ * wynikowej – przy pełnej operacji alokacje powinny być do niego zbliżone, a
+ * przy przesunięciu w miejscu bliskie zeru.
+ */
+public class PrzesuwanieAlokacjeBenchmark {
+
+	// ================================================================
+	// ================== KONFIGURACJA BENCHMARKU =====================
+	// ================================================================
+
+	private static final int ROZMIAR_LISTY = 1_000_000;
+
+	private static final int[] INDEKSY_WYBRANYCH = { 499_998, 499_999, 500_000, 700_000 };
+
+	private static final int WARMUP = 20;
+	private static final int POWTORZENIA_POMIARU = 200;
+
+	// ================================================================
+	// ======================= START BENCHMARKU =======================
+	// ================================================================
+
+	public static void main(String[] args) throws Exception {
+		new PrzesuwanieAlokacjeBenchmark().uruchomBenchmark();
+	}
+
+	private void uruchomBenchmark() throws Exception {
+
+		System.out.println("=== BENCHMARK alokacji na operację ===");
+
+		com.sun.management.ThreadMXBean watki = (com.sun.management.ThreadMXBean) ManagementFactory
+				.getThreadMXBean();
+
+		List<Integer> wszystkie = new ArrayList<>(ROZMIAR_LISTY);
+		for (int i = 1; i <= ROZMIAR_LISTY; i++) {
+			wszystkie.add(i);
+		}
+
+		// tablica referencji listy wynikowej (ArrayList kopiuje tablicę źródłową)
+		long rozmiarWyniku = 16L + 4L * ROZMIAR_LISTY;
+		System.out.println("Orientacyjny rozmiar tablicy listy wynikowej: " + rozmiarWyniku + " B");
+
+		for (TrybPrzesuwania tryb : TrybPrzesuwania.values()) {
+
+			PrzesuwanieObsluga<Integer> obsluga = new PrzesuwanieObsluga.Builder<Integer>().trybPrzesuwania(tryb)
+					.build();
+
+			System.out.println("\nTRYB: " + tryb);
+
+			for (int i = 0; i < WARMUP; i++) {
+				obsluga.przesunPelny(wszystkie, INDEKSY_WYBRANYCH, -1);
+				obsluga.przesunWMiejscu(wszystkie, INDEKSY_WYBRANYCH, -1);
+				obsluga.przesunWMiejscu(wszystkie, INDEKSY_WYBRANYCH, 1);
+			}
+
+			long watek = Thread.currentThread().getId();
+
+			long przed = watki.getThreadAllocatedBytes(watek);
+			for (int i = 0; i < POWTORZENIA_POMIARU; i++) {
+				obsluga.przesunPelny(wszystkie, INDEKSY_WYBRANYCH, -1);
+			}
+			long pelny = (watki.getThreadAllocatedBytes(watek) - przed) / POWTORZENIA_POMIARU;
+
+			przed = watki.getThreadAllocatedBytes(watek);
+			for (int i = 0; i < POWTORZENIA_POMIARU; i++) {
+				// tam i z powrotem – lista wraca do stanu początkowego
+				obsluga.przesunWMiejscu(wszystkie, INDEKSY_WYBRANYCH, -1);
+				obsluga.przesunWMiejscu(wszystkie, INDEKSY_WYBRANYCH, 1);
+			}
+			long wMiejscu = (watki.getThreadAllocatedBytes(watek) - przed) / (2 * POWTORZENIA_POMIARU);
+
+			System.out.println("przesunPelny:    " + pelny + " B/operację");
+			System.out.println("przesunWMiejscu: " + wMiejscu + " B/operację");
+		}
+	}
+
+}
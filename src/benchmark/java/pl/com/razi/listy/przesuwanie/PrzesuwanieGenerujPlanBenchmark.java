@@ -1,5 +1,7 @@
 package pl.com.razi.listy.przesuwanie;
 
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
 import java.util.Random;
 
 import pl.com.razi.listy.przesuwanie.wynik.PrzesuwaniePlan;
@@ -131,7 +133,7 @@ public class PrzesuwanieGenerujPlanBenchmark {
 			long tEnd = System.nanoTime();
 			sumaCzasowNanos += (tEnd - tStart);
 
-			if (plan.getOperacje().isEmpty()) {
+			if (plan.czyPusty()) {
 				throw new IllegalStateException("Wygenerowano pusty plan — nie powinno się zdarzyć.");
 			}
 		}
@@ -139,6 +141,26 @@ public class PrzesuwanieGenerujPlanBenchmark {
 		double sredniMs = (sumaCzasowNanos / (double) POWTORZENIA_POMIARU) / 1_000_000.0;
 
 		System.out.println("Średni czas wykonania: " + sredniMs + " ms");
+
+		wypiszRozmiarPlanu(PrzesuwanieObliczenia.generujPlan(finalLp, LICZBA_ELEMENTOW));
+	}
+
+	/**
+	 * Porównuje pamięć kolumn planu z pamięcią listy obiektów skopiowanej z
+	 * widoku {@link PrzesuwaniePlan#getOperacje()}.
+	 */
+	private void wypiszRozmiarPlanu(PrzesuwaniePlan plan) {
+
+		com.sun.management.ThreadMXBean watki = (com.sun.management.ThreadMXBean) ManagementFactory
+				.getThreadMXBean();
+		long watek = Thread.currentThread().getId();
+
+		long przed = watki.getThreadAllocatedBytes(watek);
+		new ArrayList<>(plan.getOperacje());
+		long listaObiektow = watki.getThreadAllocatedBytes(watek) - przed;
+
+		System.out.println("Operacji w planie: " + plan.getLiczbaOperacji() + ", kolumny ≈ "
+				+ 3L * Integer.BYTES * plan.getLiczbaOperacji() + " B, lista obiektów: " + listaObiektow + " B");
 	}
 
 }
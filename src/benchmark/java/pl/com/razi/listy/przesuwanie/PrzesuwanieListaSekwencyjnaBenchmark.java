@@ -0,0 +1,101 @@
+package pl.com.razi.listy.przesuwanie;
+
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+
+import pl.com.razi.listy.przesuwanie.PrzesuwanieObsluga.TrybPrzesuwania;
+
+/**
+ * Benchmark pełnej operacji oraz przesunięcia w miejscu dla list z dostępem
+ * swobodnym ({@link ArrayList}) i bez niego ({@link LinkedList}).
+ *
+ * Rozmiar listy jest kolejno podwajany – przy liniowym koszcie czas na 1000
+ * wierszy powinien pozostawać w przybliżeniu stały dla obu rodzajów list.
+ */
+public class PrzesuwanieListaSekwencyjnaBenchmark {
+
+	// ================================================================
+	// ================== KONFIGURACJA BENCHMARKU =====================
+	// ================================================================
+
+	private static final int[] ROZMIARY_LISTY = { 50_000, 100_000, 200_000, 400_000 };
+
+	private static final int CO_KTORY_WYBRANY = 20;
+
+	private static final int WARMUP = 3;
+	private static final int POWTORZENIA_POMIARU = 8;
+
+	private static final int PRZESUNIECIE = 5;
+
+	// ================================================================
+	// ======================= START BENCHMARKU =======================
+	// ================================================================
+
+	public static void main(String[] args) throws Exception {
+		new PrzesuwanieListaSekwencyjnaBenchmark().uruchomBenchmark();
+	}
+
+	private void uruchomBenchmark() throws Exception {
+		System.out.println("=== BENCHMARK ArrayList vs LinkedList ===");
+
+		for (TrybPrzesuwania tryb : TrybPrzesuwania.values()) {
+
+			System.out.println("\nTRYB: " + tryb);
+
+			PrzesuwanieObsluga<Integer> obsluga = new PrzesuwanieObsluga.Builder<Integer>().trybPrzesuwania(tryb)
+					.build();
+
+			for (int rozmiar : ROZMIARY_LISTY) {
+
+				List<Integer> elementy = new ArrayList<>(rozmiar);
+				List<Integer> wybrane = new ArrayList<>();
+				for (int i = 1; i <= rozmiar; i++) {
+					elementy.add(i);
+					if (i % CO_KTORY_WYBRANY == 0) {
+						wybrane.add(i);
+					}
+				}
+
+				benchmarkListy("ArrayList ", obsluga, new ArrayList<>(elementy), wybrane);
+				benchmarkListy("LinkedList", obsluga, new LinkedList<>(elementy), wybrane);
+			}
+		}
+	}
+
+	// ================================================================
+	// ===================== BENCHMARK LISTY ==========================
+	// ================================================================
+
+	private void benchmarkListy(String nazwa, PrzesuwanieObsluga<Integer> obsluga, List<Integer> wszystkie,
+			List<Integer> wybrane) throws Exception {
+
+		for (int i = 0; i < WARMUP; i++) {
+			obsluga.przesunPelny(wszystkie, wybrane, PRZESUNIECIE);
+			obsluga.przesunWMiejscu(wszystkie, wybrane, PRZESUNIECIE);
+		}
+
+		long sumaPelny = 0;
+		long sumaWMiejscu = 0;
+
+		for (int i = 0; i < POWTORZENIA_POMIARU; i++) {
+
+			long start = System.nanoTime();
+			obsluga.przesunPelny(wszystkie, wybrane, PRZESUNIECIE);
+			long srodek = System.nanoTime();
+			obsluga.przesunWMiejscu(wszystkie, wybrane, PRZESUNIECIE);
+			long koniec = System.nanoTime();
+
+			sumaPelny += srodek - start;
+			sumaWMiejscu += koniec - srodek;
+		}
+
+		double pelnyMs = sumaPelny / (double) POWTORZENIA_POMIARU / 1_000_000.0;
+		double wMiejscuMs = sumaWMiejscu / (double) POWTORZENIA_POMIARU / 1_000_000.0;
+		double tysiace = wszystkie.size() / 1_000.0;
+
+		System.out.printf("%s n=%,9d  przesunPelny: %8.2f ms (%.4f ms/1000)  przesunWMiejscu: %8.2f ms (%.4f ms/1000)%n",
+				nazwa, wszystkie.size(), pelnyMs, pelnyMs / tysiace, wMiejscuMs, wMiejscuMs / tysiace);
+	}
+
+}
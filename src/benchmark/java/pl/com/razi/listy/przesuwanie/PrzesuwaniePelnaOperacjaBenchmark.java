@@ -8,6 +8,11 @@ import pl.com.razi.listy.przesuwanie.wynik.PrzesuwanieWynik;
 
 /**
  * Benchmark wydajnościowy pełnej operacji przesunięcia na danych typu Integer.
+ *
+ * Każdy tryb mierzony jest jednowątkowo oraz wielowątkowo (wspólna pula
+ * {@code ForkJoinPool.commonPool()}), wraz z uzyskanym przyspieszeniem.
+ * Przyspieszenie zależy od liczby dostępnych procesorów – na maszynie
+ * jednordzeniowej oba warianty mają zbliżony czas.
  */
 public class PrzesuwaniePelnaOperacjaBenchmark {
 
@@ -33,6 +38,7 @@ public class PrzesuwaniePelnaOperacjaBenchmark {
 
 	private void uruchomBenchmark() throws Exception {
 		System.out.println("=== BENCHMARK przesunPelny() — Integer ===");
+		System.out.println("Dostępne procesory: " + Runtime.getRuntime().availableProcessors());
 
 		// ---------------------------
 		// lista "wszystkie": 1..N
@@ -53,20 +59,27 @@ public class PrzesuwaniePelnaOperacjaBenchmark {
 		// ---------------------------
 		// benchmark dla trybów
 		// ---------------------------
-		benchmarkTryb(TrybPrzesuwania.LINIOWE, wszystkie, wybrane);
-		benchmarkTryb(TrybPrzesuwania.CYKLICZNE, wszystkie, wybrane);
-		benchmarkTryb(TrybPrzesuwania.DOCISKAJACE, wszystkie, wybrane);
+		for (TrybPrzesuwania tryb : TrybPrzesuwania.values()) {
+			double jednowatkowo = benchmarkTryb(tryb, wszystkie, wybrane, false);
+			double wielowatkowo = benchmarkTryb(tryb, wszystkie, wybrane, true);
+			System.out.println("Przyspieszenie: " + (jednowatkowo / wielowatkowo) + "x");
+		}
 	}
 
 	// ================================================================
 	// ===================== BENCHMARK TRYBU =========================
 	// ================================================================
 
-	private void benchmarkTryb(TrybPrzesuwania tryb, List<Integer> wszystkie, List<Integer> wybrane) throws Exception {
+	private double benchmarkTryb(TrybPrzesuwania tryb, List<Integer> wszystkie, List<Integer> wybrane,
+			boolean rownolegle) throws Exception {
 
-		System.out.println("\nTRYB: " + tryb);
+		System.out.println("\nTRYB: " + tryb + (rownolegle ? " (wielowątkowo)" : " (jednowątkowo)"));
 
-		PrzesuwanieObsluga<Integer> obsluga = new PrzesuwanieObsluga.Builder<Integer>().trybPrzesuwania(tryb).build();
+		PrzesuwanieObsluga.Builder<Integer> builder = new PrzesuwanieObsluga.Builder<Integer>().trybPrzesuwania(tryb);
+		if (rownolegle) {
+			builder.rownolegle().progRownoleglosci(0);
+		}
+		PrzesuwanieObsluga<Integer> obsluga = builder.build();
 
 		// ---------------------------
 		// 1. WARM-UP
@@ -97,6 +110,8 @@ public class PrzesuwaniePelnaOperacjaBenchmark {
 		double avgMs = (sumaNanos / (double) POWTORZENIA_POMIARU) / 1_000_000.0;
 
 		System.out.println("Średni czas pełnej operacji: " + avgMs + " ms");
+
+		return avgMs;
 	}
 
 }
@@ -2,6 +2,7 @@ package pl.com.razi.listy.przesuwanie;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
 
 import pl.com.razi.listy.przesuwanie.PrzesuwanieObsluga.TrybPrzesuwania;
 import pl.com.razi.listy.przesuwanie.model.PrzesuwanieIndeksyBlok;
@@ -12,6 +13,9 @@ import pl.com.razi.listy.przesuwanie.model.PrzesuwanieIndeksyBlok;
  * Zakres testu: - lista 1 000 000 pozycji LP, - 50 000 elementów wybranych w
  * blokach po 10, - trzy tryby przesuwania, - pełny warm-up + wielokrotne
  * powtórzenia pomiaru.
+ *
+ * Wersja wielowątkowa mierzona jest dodatkowo na listach 10 000 000 pozycji
+ * (z tą samą gęstością wybranych), w puli o rozmiarze równym liczbie rdzeni.
  */
 public class PrzesuwaniePermutacjaBenchmark {
 
@@ -21,6 +25,9 @@ public class PrzesuwaniePermutacjaBenchmark {
 
 	private static final int ROZMIAR_LISTY = 1_000_000;
 	private static final int ILOSC_WYBRANE = 50_000;
+
+	private static final int ROZMIAR_LISTY_DUZEJ = 10_000_000;
+	private static final int ILOSC_WYBRANE_DUZEJ = 500_000;
 	private static final int POWTORZENIA_POMIARU = 30;
 	private static final int POWTORZENIA_WARMUP = 10;
 
@@ -41,14 +48,23 @@ public class PrzesuwaniePermutacjaBenchmark {
 		// --------------------------------------------------------
 		// Przygotowanie bloków elementów wybranych
 		// --------------------------------------------------------
-		List<PrzesuwanieIndeksyBlok> bloki = przygotujBlokiWybranych();
+		List<PrzesuwanieIndeksyBlok> bloki = przygotujBlokiWybranych(ROZMIAR_LISTY, ILOSC_WYBRANE);
+		List<PrzesuwanieIndeksyBlok> blokiDuzej = przygotujBlokiWybranych(ROZMIAR_LISTY_DUZEJ, ILOSC_WYBRANE_DUZEJ);
+
+		ForkJoinPool pula = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+		System.out.println("Liczba wątków puli: " + pula.getParallelism());
 
 		// --------------------------------------------------------
 		// Benchmark dla trzech trybów przesuwania
 		// --------------------------------------------------------
-		benchmarkTryb(TrybPrzesuwania.LINIOWE, bloki);
-		benchmarkTryb(TrybPrzesuwania.CYKLICZNE, bloki);
-		benchmarkTryb(TrybPrzesuwania.DOCISKAJACE, bloki);
+		for (TrybPrzesuwania tryb : TrybPrzesuwania.values()) {
+			benchmarkTryb(tryb, bloki, ROZMIAR_LISTY, null);
+			benchmarkTryb(tryb, bloki, ROZMIAR_LISTY, pula);
+			benchmarkTryb(tryb, blokiDuzej, ROZMIAR_LISTY_DUZEJ, null);
+			benchmarkTryb(tryb, blokiDuzej, ROZMIAR_LISTY_DUZEJ, pula);
+		}
+
+		pula.shutdown();
 	}
 
 	// =====================================================================
@@ -56,22 +72,22 @@ public class PrzesuwaniePermutacjaBenchmark {
 	// =====================================================================
 
 	/**
-	 * Buduje listę 50 000 wybranych elementów w blokach po 10, równomiernie
-	 * rozmieszczonych na milionowej liście.
+	 * Buduje listę wybranych elementów w blokach po 10, równomiernie
+	 * rozmieszczonych na liście (np. 50 000 na milionowej liście).
 	 */
-	private List<PrzesuwanieIndeksyBlok> przygotujBlokiWybranych() {
+	private List<PrzesuwanieIndeksyBlok> przygotujBlokiWybranych(int rozmiarListy, int iloscWybrane) {
 
 		List<PrzesuwanieIndeksyBlok> bloki = new ArrayList<>();
 
-		int krok = ROZMIAR_LISTY / ILOSC_WYBRANE;
+		int krok = rozmiarListy / iloscWybrane;
 		int start = 1;
 
-		for (int i = 0; i < ILOSC_WYBRANE; i += 10) {
+		for (int i = 0; i < iloscWybrane; i += 10) {
 
 			int blockStart = start;
 			int blockEnd = blockStart + 9;
 
-			if (blockEnd > ROZMIAR_LISTY)
+			if (blockEnd > rozmiarListy)
 				break;
 
 			bloki.add(new PrzesuwanieIndeksyBlok(blockStart, blockEnd));
@@ -86,15 +102,17 @@ public class PrzesuwaniePermutacjaBenchmark {
 	// ========================== BENCHMARK TRYBU ===========================
 	// =====================================================================
 
-	private void benchmarkTryb(TrybPrzesuwania tryb, List<PrzesuwanieIndeksyBlok> bloki) {
+	private void benchmarkTryb(TrybPrzesuwania tryb, List<PrzesuwanieIndeksyBlok> bloki, int rozmiarListy,
+			ForkJoinPool pula) {
 
-		System.out.println("\nTRYB: " + tryb);
+		System.out.println("\nTRYB: " + tryb + ", rozmiar listy: " + rozmiarListy + ", "
+				+ (pula == null ? "jednowątkowo" : "wielowątkowo"));
 
 		// -------------------------
 		// Warm-up (JIT optymalizuje)
 		// -------------------------
 		for (int i = 0; i < POWTORZENIA_WARMUP; i++) {
-			PrzesuwanieObliczenia.obliczDocelowaPermutacje(tryb, bloki, ROZMIAR_LISTY, WARTOSC_PRZESUNIECIA);
+			oblicz(tryb, bloki, rozmiarListy, pula);
 		}
 
 		long sumaNanos = 0;
@@ -106,13 +124,13 @@ public class PrzesuwaniePermutacjaBenchmark {
 
 			long tStart = System.nanoTime();
 
-			int[] wynik = PrzesuwanieObliczenia.obliczDocelowaPermutacje(tryb, bloki, ROZMIAR_LISTY, WARTOSC_PRZESUNIECIA);
+			int[] wynik = oblicz(tryb, bloki, rozmiarListy, pula);
 
 			long tEnd = System.nanoTime();
 			sumaNanos += (tEnd - tStart);
 
 			// check przeciwko optymalizacji JIT
-			if (wynik.length != ROZMIAR_LISTY) {
+			if (wynik.length != rozmiarListy) {
 				throw new IllegalStateException("Niepoprawna długość tablicy wynikowej!");
 			}
 		}
@@ -122,4 +140,15 @@ public class PrzesuwaniePermutacjaBenchmark {
 		System.out.println("Średni czas: " + avgMs + " ms");
 	}
 
+	private int[] oblicz(TrybPrzesuwania tryb, List<PrzesuwanieIndeksyBlok> bloki, int rozmiarListy,
+			ForkJoinPool pula) {
+
+		if (pula == null) {
+			return PrzesuwanieObliczenia.obliczDocelowaPermutacje(tryb, bloki, rozmiarListy, WARTOSC_PRZESUNIECIA);
+		}
+
+		return PrzesuwanieObliczeniaRownolegle.obliczDocelowaPermutacje(tryb, bloki, rozmiarListy,
+				WARTOSC_PRZESUNIECIA, pula);
+	}
+
 }
@@ -0,0 +1,114 @@
+package pl.com.razi.listy.przesuwanie;
+
+import pl.com.razi.listy.przesuwanie.sql.PrzesuwanieDialektSql;
+import pl.com.razi.listy.przesuwanie.sql.PrzesuwanieSqlRenderer;
+import pl.com.razi.listy.przesuwanie.wynik.PrzesuwaniePlan;
+
+/**
+ * Benchmark generowania SQL w poszczególnych dialektach
+ * ({@link PrzesuwanieDialektSql}) w porównaniu z
+ * {@link PrzesuwaniePlan#toSqlCaseWhenBloki(String, String, String)}.
+ *
+ * Dla rosnącej liczby operacji planu wypisuje łączny rozmiar instrukcji (w
+ * znakach), liczbę instrukcji oraz czas generowania. Mierzony jest wyłącznie
+ * koszt po stronie Javy – czas wykonania instrukcji przez bazę zależy od jej
+ * planu zapytania (dla {@code CASE WHEN} zwykle liniowy względem liczby gałęzi
+ * dla każdego wiersza).
+ */
+public class PrzesuwanieSqlDialektyBenchmark {
+
+	// ================================================================
+	// ================== KONFIGURACJA BENCHMARKU =====================
+	// ================================================================
+
+	private static final int[] LICZBY_OPERACJI = { 100, 1_000, 10_000, 100_000 };
+
+	private static final int WARMUP = 5;
+	private static final int POWTORZENIA_POMIARU = 10;
+
+	private static final String TABELA = "Dokumenty";
+	private static final String WARUNEK = "id_kategorii = 3";
+
+	// ================================================================
+	// ======================= START BENCHMARKU =======================
+	// ================================================================
+
+	public static void main(String[] args) throws Exception {
+		new PrzesuwanieSqlDialektyBenchmark().uruchomBenchmark();
+	}
+
+	private void uruchomBenchmark() throws Exception {
+		System.out.println("=== BENCHMARK DIALEKTÓW SQL ===");
+
+		for (int liczbaOperacji : LICZBY_OPERACJI) {
+
+			PrzesuwaniePlan plan = new PrzesuwaniePlan();
+			for (int i = 0; i < liczbaOperacji; i++) {
+				plan.dodaj(10 * i + 1, 10 * i + 5, i % 2 == 0 ? 5 : -5);
+			}
+
+			System.out.printf("%nOperacji w planie: %,d%n", liczbaOperacji);
+
+			benchmarkToSqlCaseWhenBloki(plan);
+
+			for (PrzesuwanieDialektSql dialekt : PrzesuwanieDialektSql.values()) {
+				benchmarkDialektu(plan, dialekt);
+			}
+		}
+	}
+
+	// ================================================================
+	// ===================== BENCHMARK DIALEKTU =======================
+	// ================================================================
+
+	private void benchmarkToSqlCaseWhenBloki(PrzesuwaniePlan plan) {
+
+		int rozmiar = 0;
+
+		for (int i = 0; i < WARMUP; i++) {
+			rozmiar = plan.toSqlCaseWhenBloki(TABELA, "lp", WARUNEK).length();
+		}
+
+		long suma = 0;
+
+		for (int i = 0; i < POWTORZENIA_POMIARU; i++) {
+			long start = System.nanoTime();
+			rozmiar = plan.toSqlCaseWhenBloki(TABELA, "lp", WARUNEK).length();
+			suma += System.nanoTime() - start;
+		}
+
+		wypisz("toSqlCaseWhenBloki", rozmiar, 1, suma);
+	}
+
+	private void benchmarkDialektu(PrzesuwaniePlan plan, PrzesuwanieDialektSql dialekt) throws Exception {
+
+		PrzesuwanieSqlRenderer renderer = new PrzesuwanieSqlRenderer.Builder().tabela(TABELA).warunek(WARUNEK)
+				.dialekt(dialekt).build();
+
+		StringBuilder sb = new StringBuilder();
+		int liczbaInstrukcji = 0;
+
+		for (int i = 0; i < WARMUP; i++) {
+			sb.setLength(0);
+			liczbaInstrukcji = renderer.renderuj(plan, sb);
+		}
+
+		long suma = 0;
+
+		for (int i = 0; i < POWTORZENIA_POMIARU; i++) {
+			sb.setLength(0);
+			long start = System.nanoTime();
+			liczbaInstrukcji = renderer.renderuj(plan, sb);
+			suma += System.nanoTime() - start;
+		}
+
+		wypisz(dialekt.name(), sb.length(), liczbaInstrukcji, suma);
+	}
+
+	private static void wypisz(String nazwa, int rozmiar, int liczbaInstrukcji, long sumaNs) {
+		double ms = sumaNs / (double) POWTORZENIA_POMIARU / 1_000_000.0;
+		System.out.printf("  %-20s rozmiar: %,12d zn.  instrukcji: %d  czas: %9.3f ms%n", nazwa, rozmiar,
+				liczbaInstrukcji, ms);
+	}
+
+}
@@ -0,0 +1,218 @@
+package pl.com.razi.listy.przesuwanie;
+
+import java.util.ArrayDeque;
+import java.util.List;
+
+import pl.com.razi.listy.przesuwanie.wynik.PrzesuwaniePlan;
+
+/**
+ * Ograniczona historia przesunięć (cofnij / ponów) przechowująca każdy krok
+ * jako plan – zakresy LP z przesunięciem – zamiast kopii listy.
+ * <p>
+ * Cofnięcie przesunięcia wymaga wyłącznie planu odwrotnego
+ * ({@link PrzesuwaniePlan#odwroc(PrzesuwaniePlan)}), którego rozmiar zależy od
+ * liczby przesuniętych bloków, a nie od rozmiaru listy. Historia przesunięć
+ * listy miliona elementów zajmuje więc kilkanaście bajtów na operację planu,
+ * a nie milion referencji na krok.
+ * <p>
+ * Łączna liczba przechowywanych operacji (kroków do cofnięcia i do ponowienia)
+ * jest ograniczona limitem. Po jego przekroczeniu usuwane są najstarsze kroki.
+ * Krok większy niż cały limit nie jest zapamiętywany, a historia jest
+ * czyszczona – wcześniejszych kroków nie dałoby się już poprawnie cofnąć.
+ *
+ * <pre>
+ * PrzesuwanieHistoria historia = new PrzesuwanieHistoria();
+ *
+ * historia.zapisz(obsluga.przesunWMiejscu(dokumenty, wybrane, -1));
+ * ...
+ * PrzesuwaniePlan doZapisu = historia.cofnij(dokumenty);
+ * </pre>
+ *
+ * Plany zwracane przez historię oraz przekazane do {@link #zapisz} nie powinny
+ * być modyfikowane. Historia nie jest bezpieczna wielowątkowo.
+ */
+public class PrzesuwanieHistoria {
+
+	/**
+	 * Domyślny limit operacji – ok. 12 MB planów.
+	 */
+	public static final int DOMYSLNY_LIMIT_OPERACJI = 1_000_000;
+
+	private final int limitOperacji;
+
+	/**
+	 * Plany odwrotne kroków wykonanych – najstarszy na początku. Plan
+	 * znormalizowany i jego odwrotność mają tyle samo operacji, więc cofanie i
+	 * ponawianie nie zmienia łącznej liczby operacji.
+	 */
+	private final ArrayDeque<PrzesuwaniePlan> doCofniecia = new ArrayDeque<>();
+
+	/** Plany kroków cofniętych – ostatnio cofnięty na końcu. */
+	private final ArrayDeque<PrzesuwaniePlan> doPonowienia = new ArrayDeque<>();
+
+	private long liczbaOperacji;
+
+	/**
+	 * Tworzy historię z limitem {@link #DOMYSLNY_LIMIT_OPERACJI}.
+	 */
+	public PrzesuwanieHistoria() {
+		this(DOMYSLNY_LIMIT_OPERACJI);
+	}
+
+	/**
+	 * Tworzy historię przechowującą łącznie co najwyżej {@code limitOperacji}
+	 * operacji planów.
+	 */
+	public PrzesuwanieHistoria(int limitOperacji) {
+		if (limitOperacji < 1) {
+			throw new IllegalArgumentException("Limit operacji musi być dodatni: " + limitOperacji);
+		}
+		this.limitOperacji = limitOperacji;
+	}
+
+	// ====================================================================
+	// ========================= ZAPIS ====================================
+	// ====================================================================
+
+	/**
+	 * Zapamiętuje wykonany krok. Kroki cofnięte przestają być dostępne do
+	 * ponowienia. Pusty plan jest pomijany.
+	 *
+	 * @param plan Plan wykonanego przesunięcia.
+	 */
+	public void zapisz(PrzesuwaniePlan plan) {
+
+		if (plan == null || plan.czyPusty()) {
+			return;
+		}
+
+		for (PrzesuwaniePlan cofniety : doPonowienia) {
+			liczbaOperacji -= cofniety.getLiczbaOperacji();
+		}
+		doPonowienia.clear();
+
+		final PrzesuwaniePlan odwrotny = PrzesuwaniePlan.odwroc(plan);
+
+		if (odwrotny.getLiczbaOperacji() > limitOperacji) {
+			wyczysc();
+			return;
+		}
+
+		doCofniecia.addLast(odwrotny);
+		liczbaOperacji += odwrotny.getLiczbaOperacji();
+
+		while (liczbaOperacji > limitOperacji) {
+			liczbaOperacji -= doCofniecia.removeFirst().getLiczbaOperacji();
+		}
+	}
+
+	/**
+	 * Usuwa wszystkie kroki.
+	 */
+	public void wyczysc() {
+		doCofniecia.clear();
+		doPonowienia.clear();
+		liczbaOperacji = 0;
+	}
+
+	// ====================================================================
+	// ========================= COFNIJ / PONÓW ===========================
+	// ====================================================================
+
+	public boolean czyMoznaCofnac() {
+		return !doCofniecia.isEmpty();
+	}
+
+	public boolean czyMoznaPonowic() {
+		return !doPonowienia.isEmpty();
+	}
+
+	/**
+	 * Cofa ostatni krok bez zmiany żadnej listy – np. gdy kolejność przechowywana
+	 * jest wyłącznie w bazie danych.
+	 *
+	 * @return Plan przywracający kolejność sprzed kroku (pusty, jeśli nie ma
+	 *         czego cofać).
+	 */
+	public PrzesuwaniePlan cofnij() {
+
+		if (doCofniecia.isEmpty()) {
+			return new PrzesuwaniePlan();
+		}
+
+		final PrzesuwaniePlan odwrotny = doCofniecia.removeLast();
+		doPonowienia.addLast(PrzesuwaniePlan.odwroc(odwrotny));
+
+		return odwrotny;
+	}
+
+	/**
+	 * Cofa ostatni krok na przekazanej liście, w miejscu. Lista musi mieć
+	 * kolejność z chwili po wykonaniu kroku.
+	 *
+	 * @return Plan przywracający kolejność sprzed kroku (pusty, jeśli nie ma
+	 *         czego cofać).
+	 */
+	public <T> PrzesuwaniePlan cofnij(List<T> wszystkie) {
+		return zastosuj(wszystkie, cofnij());
+	}
+
+	/**
+	 * Ponawia ostatnio cofnięty krok bez zmiany żadnej listy.
+	 *
+	 * @return Plan kroku (pusty, jeśli nie ma czego ponawiać).
+	 */
+	public PrzesuwaniePlan ponow() {
+
+		if (doPonowienia.isEmpty()) {
+			return new PrzesuwaniePlan();
+		}
+
+		final PrzesuwaniePlan plan = doPonowienia.removeLast();
+		doCofniecia.addLast(PrzesuwaniePlan.odwroc(plan));
+
+		return plan;
+	}
+
+	/**
+	 * Ponawia ostatnio cofnięty krok na przekazanej liście, w miejscu.
+	 *
+	 * @return Plan kroku (pusty, jeśli nie ma czego ponawiać).
+	 */
+	public <T> PrzesuwaniePlan ponow(List<T> wszystkie) {
+		return zastosuj(wszystkie, ponow());
+	}
+
+	// ====================================================================
+	// ========================= GETTERY ==================================
+	// ====================================================================
+
+	public int getLiczbaKrokowDoCofniecia() {
+		return doCofniecia.size();
+	}
+
+	public int getLiczbaKrokowDoPonowienia() {
+		return doPonowienia.size();
+	}
+
+	/**
+	 * Zwraca łączną liczbę przechowywanych operacji planów.
+	 */
+	public long getLiczbaOperacji() {
+		return liczbaOperacji;
+	}
+
+	public int getLimitOperacji() {
+		return limitOperacji;
+	}
+
+	// ====================================================================
+	// ========================= POMOCNICZE ===============================
+	// ====================================================================
+
+	private static <T> PrzesuwaniePlan zastosuj(List<T> wszystkie, PrzesuwaniePlan plan) {
+		PrzesuwanieObliczenia.zastosujPlanWOknie(wszystkie, plan, PrzesuwanieObszarRoboczy.dlaBiezacegoWatku());
+		return plan;
+	}
+
+}
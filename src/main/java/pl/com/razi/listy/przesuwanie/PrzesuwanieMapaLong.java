@@ -0,0 +1,130 @@
+package pl.com.razi.listy.przesuwanie;
+
+import java.util.function.IntToLongFunction;
+
+/**
+ * Mapa z klucza typu {@code long} na pozycję elementu na liście, oparta o
+ * adresowanie otwarte z sondowaniem liniowym.
+ * <p>
+ * Klucze i pozycje przechowywane są w tablicach prostych, dzięki czemu budowa
+ * mapy i wyszukiwanie nie wymagają opakowywania wartości ani wywołań
+ * {@code equals()}/{@code hashCode()}. Pozycje zapisywane są jako
+ * {@code pozycja + 1}, aby wartość 0 mogła oznaczać pusty slot bez
+ * rezerwowania żadnego klucza.
+ * <p>
+ * Mapa ma stałą pojemność wyznaczoną przy tworzeniu i nie obsługuje usuwania –
+ * jest budowana jednorazowo dla całej listy.
+ */
+final class PrzesuwanieMapaLong {
+
+	private static final int BRAK = -1;
+
+	/**
+	 * Największa pojemność tablic mapy (potęga dwójki).
+	 */
+	private static final int MAKS_POJEMNOSC = 1 << 30;
+
+	private final long[] klucze;
+	private final int[] pozycje;
+	private final int maska;
+
+	/**
+	 * Tworzy mapę zdolną pomieścić podaną liczbę kluczy przy współczynniku
+	 * wypełnienia nieprzekraczającym 0,5.
+	 *
+	 * @throws IllegalArgumentException Jeżeli liczba kluczy przekracza 2^29.
+	 */
+	PrzesuwanieMapaLong(int oczekiwanaLiczbaKluczy) {
+		long pojemnosc = Long.highestOneBit(Math.max(2L, oczekiwanaLiczbaKluczy) * 2 - 1) << 1;
+		if (pojemnosc > MAKS_POJEMNOSC) {
+			throw new IllegalArgumentException("Zbyt wiele kluczy dla mapy: " + oczekiwanaLiczbaKluczy);
+		}
+		this.klucze = new long[(int) pojemnosc];
+		this.pozycje = new int[(int) pojemnosc];
+		this.maska = (int) pojemnosc - 1;
+	}
+
+	/**
+	 * Wyznacza pozycje (liczone od 0) kluczy wybranych wśród kluczy wszystkich
+	 * elementów; brakującym kluczom odpowiada -1. Klucze odczytywane są przez
+	 * akcesory indeksowe, bez kopiowania tablic.
+	 * <p>
+	 * Klucze wszystkich indeksowane są od końca, więc w mapie zostaje pierwsze
+	 * wystąpienie klucza, a kolejne wystąpienia łączone są w łańcuch. Odnaleziony
+	 * klucz przesuwa swój wpis w mapie na następne wystąpienie – powtórzony klucz
+	 * wybrany wskazuje więc kolejne wystąpienie, a po wyczerpaniu łańcucha –
+	 * ostatnie (tak samo jak wyszukiwanie wg {@code equals()} w
+	 * {@link PrzesuwanieWejscie}). Łańcuch alokowany jest dopiero przy pierwszym
+	 * powtórzeniu.
+	 */
+	static int[] pozycjeWybranych(int liczbaWszystkich, IntToLongFunction wszystkie, int liczbaWybranych,
+			IntToLongFunction wybrane) {
+
+		PrzesuwanieMapaLong mapa = new PrzesuwanieMapaLong(liczbaWszystkich);
+
+		// następne wystąpienie tego samego klucza (pozycja + 1, 0 – brak)
+		int[] nastepne = null;
+
+		for (int i = liczbaWszystkich - 1; i >= 0; i--) {
+			int poprzednia = mapa.wstaw(wszystkie.applyAsLong(i), i);
+			if (poprzednia != BRAK) {
+				if (nastepne == null) {
+					nastepne = new int[liczbaWszystkich];
+				}
+				nastepne[i] = poprzednia + 1;
+			}
+		}
+
+		int[] pozycje = new int[liczbaWybranych];
+		for (int j = 0; j < liczbaWybranych; j++) {
+			long klucz = wybrane.applyAsLong(j);
+			int pozycja = mapa.pobierz(klucz);
+			pozycje[j] = pozycja;
+			if (pozycja != BRAK && nastepne != null && nastepne[pozycja] != 0) {
+				mapa.wstaw(klucz, nastepne[pozycja] - 1);
+			}
+		}
+
+		return pozycje;
+	}
+
+	/**
+	 * Zapisuje pozycję klucza, zastępując zapisaną wcześniej.
+	 *
+	 * @return Poprzednia pozycja klucza lub -1, jeśli klucza nie było w mapie.
+	 */
+	int wstaw(long klucz, int pozycja) {
+		int slot = slot(klucz);
+		while (pozycje[slot] != 0) {
+			if (klucze[slot] == klucz) {
+				int poprzednia = pozycje[slot] - 1;
+				pozycje[slot] = pozycja + 1;
+				return poprzednia;
+			}
+			slot = (slot + 1) & maska;
+		}
+		klucze[slot] = klucz;
+		pozycje[slot] = pozycja + 1;
+		return BRAK;
+	}
+
+	/**
+	 * Zwraca pozycję klucza lub -1, jeśli klucza nie ma w mapie.
+	 */
+	int pobierz(long klucz) {
+		int slot = slot(klucz);
+		while (pozycje[slot] != 0) {
+			if (klucze[slot] == klucz) {
+				return pozycje[slot] - 1;
+			}
+			slot = (slot + 1) & maska;
+		}
+		return BRAK;
+	}
+
+	private int slot(long klucz) {
+		long h = klucz * 0x9E3779B97F4A7C15L;
+		return (int) (h ^ (h >>> 32)) & maska;
+	}
+
+}
@@ -4,6 +4,9 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.List;
+import java.util.ListIterator;
+import java.util.RandomAccess;
+import java.util.concurrent.ForkJoinPool;
 
 import pl.com.razi.listy.przesuwanie.PrzesuwanieObsluga.TrybPrzesuwania;
 import pl.com.razi.listy.przesuwanie.model.PrzesuwanieIndeksyBlok;
@@ -47,7 +50,26 @@ class PrzesuwanieObliczenia {
 	public static <T> boolean czyDoPrzesunieciaDojdzie(final TrybPrzesuwania trybPrzesuwania,
 			final List<PrzesuwanieIndeksyBlok> blokiWybranych, final int rozmiarListy, final int przesuniecie) {
 
-		if (blokiWybranych.isEmpty() || przesuniecie == 0) {
+		if (blokiWybranych.isEmpty()) {
+			return false;
+		}
+
+		return czyDoPrzesunieciaDojdzie(trybPrzesuwania, blokiWybranych.size(), blokiWybranych.get(0).start,
+				blokiWybranych.get(blokiWybranych.size() - 1).end, rozmiarListy, przesuniecie);
+	}
+
+	/**
+	 * Wariant {@link #czyDoPrzesunieciaDojdzie(TrybPrzesuwania, List, int, int)}
+	 * wymagający jedynie liczby bloków oraz granic zaznaczenia – początku
+	 * pierwszego i końca ostatniego bloku (LP liczone od 1). Wynik zależy wyłącznie
+	 * od bloku granicznego w kierunku ruchu, więc koszt jest stały.
+	 * <p>
+	 * Zakłada pełną poprawność danych wejściowych.
+	 */
+	static boolean czyDoPrzesunieciaDojdzie(final TrybPrzesuwania trybPrzesuwania, final int liczbaBlokow,
+			final int startPierwszego, final int koniecOstatniego, final int rozmiarListy, final int przesuniecie) {
+
+		if (liczbaBlokow == 0 || przesuniecie == 0) {
 			return false;
 		}
 
@@ -56,24 +78,20 @@ class PrzesuwanieObliczenia {
 		final int startListy = 1;
 		final int koniecListy = rozmiarListy;
 
-		final PrzesuwanieIndeksyBlok blokGraniczny = (kierunek == Kierunek.GORA) ? blokiWybranych.get(0)
-				: blokiWybranych.get(blokiWybranych.size() - 1);
-
 		switch (trybPrzesuwania) {
 
 		case CYKLICZNE:
 			return true;
 
 		case LINIOWE:
-			return kierunek == Kierunek.GORA ? blokGraniczny.start + przesuniecie >= startListy
-					: blokGraniczny.end + przesuniecie <= koniecListy;
+			return kierunek == Kierunek.GORA ? startPierwszego + przesuniecie >= startListy
+					: koniecOstatniego + przesuniecie <= koniecListy;
 
 		case DOCISKAJACE:
-			if (blokiWybranych.size() > 1) {
+			if (liczbaBlokow > 1) {
 				return true;
 			} else {
-				return kierunek == Kierunek.GORA ? blokGraniczny.start > startListy
-						: blokGraniczny.end < koniecListy;
+				return kierunek == Kierunek.GORA ? startPierwszego > startListy : koniecOstatniego < koniecListy;
 			}
 
 		default:
@@ -89,6 +107,36 @@ class PrzesuwanieObliczenia {
 	 */
 	public static <T> PrzesuwanieWynik<T> wykonaj(final TrybPrzesuwania trybPrzesuwania, final List<T> wszystkie,
 			final List<PrzesuwanieIndeksyBlok> blokiWybranych, final int przesuniecie) {
+		return wykonaj(trybPrzesuwania, wszystkie, blokiWybranych, przesuniecie, null);
+	}
+
+	/**
+	 * Wariant {@link #wykonaj(TrybPrzesuwania, List, List, int)}, w którym
+	 * zakresy planu przepisywane są do listy wynikowej wielowątkowo w przekazanej
+	 * puli (dla list z dostępem swobodnym). Jeśli pula jest null, obliczenia
+	 * wykonywane są w bieżącym wątku.
+	 * <p>
+	 * Zakłada pełną poprawność danych wejściowych.
+	 */
+	public static <T> PrzesuwanieWynik<T> wykonaj(final TrybPrzesuwania trybPrzesuwania, final List<T> wszystkie,
+			final List<PrzesuwanieIndeksyBlok> blokiWybranych, final int przesuniecie, final ForkJoinPool pula) {
+		return wykonaj(trybPrzesuwania, wszystkie, blokiWybranych, przesuniecie, pula, new PrzesuwanieObszarRoboczy());
+	}
+
+	/**
+	 * Wariant {@link #wykonaj(TrybPrzesuwania, List, List, int, ForkJoinPool)}
+	 * korzystający z przekazanego obszaru roboczego.
+	 * <p>
+	 * Lista wynikowa powstaje jako kopia listy źródłowej, na której wykonywane
+	 * są wyłącznie operacje planu – bez permutacji całej listy.
+	 * Poza wynikiem (listą i planem) nie jest alokowana żadna pamięć
+	 * proporcjonalna do rozmiaru listy.
+	 * <p>
+	 * Zakłada pełną poprawność danych wejściowych.
+	 */
+	static <T> PrzesuwanieWynik<T> wykonaj(final TrybPrzesuwania trybPrzesuwania, final List<T> wszystkie,
+			final List<PrzesuwanieIndeksyBlok> blokiWybranych, final int przesuniecie, final ForkJoinPool pula,
+			final PrzesuwanieObszarRoboczy obszar) {
 
 		final int rozmiarListy = wszystkie.size();
 
@@ -96,39 +144,240 @@ class PrzesuwanieObliczenia {
 			return PrzesuwanieWynik.getInstancePusty(wszystkie);
 		}
 
-		final int[] docelowaPermutacja = obliczDocelowaPermutacje(trybPrzesuwania, blokiWybranych, rozmiarListy,
-				przesuniecie);
+		final PrzesuwaniePlan plan = generujPlanZBlokow(trybPrzesuwania, blokiWybranych, rozmiarListy, przesuniecie,
+				obszar.odcinki);
+
+		final List<T> wynikowaLista = new ArrayList<>(wszystkie);
 
-		final PrzesuwaniePlan plan = generujPlan(docelowaPermutacja, rozmiarListy);
-		final List<T> wynikowaLista = przebudujListe(docelowaPermutacja, wszystkie);
+		if (pula != null && wszystkie instanceof RandomAccess) {
+			PrzesuwanieObliczeniaRownolegle.przepiszWgPlanu(wszystkie, wynikowaLista, plan, pula);
+		} else {
+			przepiszWgPlanu(wszystkie, wynikowaLista, plan, obszar);
+		}
 
 		return new PrzesuwanieWynik<>(wynikowaLista, plan);
 	}
 
 	/**
-	 * Oblicza docelową permutację indeksów po dokonaniu przesunięcia bloków
-	 * elementów.
+	 * Przepisuje zakresy planu z listy źródłowej do listy docelowej (kopii
+	 * źródłowej z dostępem swobodnym). Lista źródłowa bez dostępu swobodnego
+	 * odczytywana jest jednokrotnie do bufora obszaru roboczego.
+	 */
+	@SuppressWarnings("unchecked")
+	private static <T> void przepiszWgPlanu(final List<T> zrodlo, final List<T> cel, final PrzesuwaniePlan plan,
+			final PrzesuwanieObszarRoboczy obszar) {
+
+		if (zrodlo instanceof RandomAccess) {
+			final PrzesuwaniePlan.Kursor op = plan.kursor();
+			while (op.nastepna()) {
+				for (int lp = op.lpOd(); lp <= op.lpDo(); lp++) {
+					cel.set(lp + op.offset() - 1, zrodlo.get(lp - 1));
+				}
+			}
+			return;
+		}
+
+		final Object[] bufor = obszar.bufor(zrodlo.size());
+		try {
+			int i = 0;
+			for (T element : zrodlo) {
+				bufor[i++] = element;
+			}
+			final PrzesuwaniePlan.Kursor op = plan.kursor();
+			while (op.nastepna()) {
+				for (int lp = op.lpOd(); lp <= op.lpDo(); lp++) {
+					cel.set(lp + op.offset() - 1, (T) bufor[lp - 1]);
+				}
+			}
+		} finally {
+			obszar.zwolnijBufor(zrodlo.size());
+		}
+	}
+
+	/**
+	 * Wykonuje przesunięcie bezpośrednio na przekazanej liście (bez tworzenia
+	 * nowej) i zwraca plan przesunięć.
 	 * <p>
-	 * Wynikowa tablica zawiera dla każdego starego indeksu nowy indeks, który dany
-	 * element powinien przyjąć po przesunięciu.
+	 * W trybach <b>LINIOWYM</b> i <b>DOCISKAJĄCYM</b> każdy blok trafia na swoje
+	 * miejsce przez rotację zakresu obejmującego jedynie blok oraz elementy, nad
+	 * którymi przeskakuje ({@link Collections#rotate(List, int)} na widoku
+	 * {@link List#subList(int, int)}) – bez dodatkowej pamięci. Bloki
+	 * przetwarzane są od strony, w którą następuje ruch, dzięki czemu rotacja
+	 * nigdy nie obejmuje bloku już ustawionego.
+	 * <p>
+	 * W trybie <b>CYKLICZNYM</b> kopiowany jest wyłącznie zakres między pierwszą
+	 * a ostatnią zmienioną pozycją, po czym zakresy planu przenoszone są przez
+	 * {@link System#arraycopy(Object, int, Object, int, int)}. Tak samo
+	 * przesuwane są listy bez dostępu swobodnego ({@link RandomAccess}, np.
+	 * {@link java.util.LinkedList}) – każdy widok {@code subList} wymagałby tam
+	 * przejścia od początku listy, a zakres jest odczytywany i zapisywany
+	 * jednokrotnie iteratorem.
 	 * <p>
 	 * Zakłada pełną poprawność danych wejściowych.
 	 */
-	static int[] obliczDocelowaPermutacje(final TrybPrzesuwania trybPrzesuwania,
+	public static <T> PrzesuwaniePlan przesunWMiejscu(final TrybPrzesuwania trybPrzesuwania, final List<T> wszystkie,
+			final List<PrzesuwanieIndeksyBlok> blokiWybranych, final int przesuniecie) {
+		return przesunWMiejscu(trybPrzesuwania, wszystkie, blokiWybranych, przesuniecie,
+				new PrzesuwanieObszarRoboczy());
+	}
+
+	/**
+	 * Wariant {@link #przesunWMiejscu(TrybPrzesuwania, List, List, int)}
+	 * korzystający z przekazanego obszaru roboczego.
+	 */
+	static <T> PrzesuwaniePlan przesunWMiejscu(final TrybPrzesuwania trybPrzesuwania, final List<T> wszystkie,
+			final List<PrzesuwanieIndeksyBlok> blokiWybranych, final int przesuniecie,
+			final PrzesuwanieObszarRoboczy obszar) {
+
+		final int rozmiarListy = wszystkie.size();
+
+		if (!czyDoPrzesunieciaDojdzie(trybPrzesuwania, blokiWybranych, rozmiarListy, przesuniecie)) {
+			return new PrzesuwaniePlan();
+		}
+
+		final PrzesuwaniePlan plan = generujPlanZBlokow(trybPrzesuwania, blokiWybranych, rozmiarListy, przesuniecie,
+				obszar.odcinki);
+
+		if (trybPrzesuwania == TrybPrzesuwania.CYKLICZNE || !(wszystkie instanceof RandomAccess)) {
+			zastosujPlanWOknie(wszystkie, plan, obszar);
+		} else {
+			rotujBloki(wszystkie, blokiWybranych, przesuniecie, obszar.odcinki);
+		}
+
+		return plan;
+	}
+
+	/**
+	 * Rotuje bloki na pozycje docelowe wyznaczone wcześniej w {@code odcinki}
+	 * (w trybach <b>LINIOWYM</b> i <b>DOCISKAJĄCYM</b> odcinki odpowiadają
+	 * blokom jeden do jednego).
+	 */
+	private static <T> void rotujBloki(final List<T> wszystkie, final List<PrzesuwanieIndeksyBlok> blokiWybranych,
+			final int przesuniecie, final PrzesuwanieOdcinki odcinki) {
+
+		final int[] startyDocelowe = odcinki.cel;
+
+		if (okreslKierunek(przesuniecie) == Kierunek.GORA) {
+
+			for (int i = 0; i < blokiWybranych.size(); i++) {
+				final PrzesuwanieIndeksyBlok blok = blokiWybranych.get(i);
+				final int cel = startyDocelowe[i];
+
+				if (cel < blok.start) {
+					Collections.rotate(wszystkie.subList(cel - 1, blok.end), blok.end - blok.start + 1);
+				}
+			}
+
+		} else {
+
+			for (int i = blokiWybranych.size() - 1; i >= 0; i--) {
+				final PrzesuwanieIndeksyBlok blok = blokiWybranych.get(i);
+				final int dlugosc = blok.end - blok.start + 1;
+				final int cel = startyDocelowe[i];
+
+				if (cel > blok.start) {
+					Collections.rotate(wszystkie.subList(blok.start - 1, cel + dlugosc - 1), -dlugosc);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Przenosi elementy zgodnie z planem w obrębie najmniejszego zakresu
+	 * obejmującego wszystkie operacje. Zakres przed i po przesunięciu składowany
+	 * jest w buforze obszaru roboczego.
+	 */
+	@SuppressWarnings("unchecked")
+	static <T> void zastosujPlanWOknie(final List<T> wszystkie, final PrzesuwaniePlan plan,
+			final PrzesuwanieObszarRoboczy obszar) {
+
+		if (plan.czyPusty()) {
+			return;
+		}
+
+		int lpMin = Integer.MAX_VALUE;
+		int lpMax = Integer.MIN_VALUE;
+
+		for (int k = 0; k < plan.getLiczbaOperacji(); k++) {
+			lpMin = Math.min(lpMin, plan.getLpOd(k));
+			lpMax = Math.max(lpMax, plan.getLpDo(k));
+		}
+
+		final int dlugoscOkna = lpMax - lpMin + 1;
+		final List<T> okno = wszystkie.subList(lpMin - 1, lpMax);
+
+		// [0, dlugoscOkna) – stan przed, [dlugoscOkna, 2 * dlugoscOkna) – stan po
+		final Object[] bufor = obszar.bufor(2 * dlugoscOkna);
+
+		try {
+			int i = 0;
+			for (T element : okno) {
+				bufor[i] = element;
+				bufor[dlugoscOkna + i] = element;
+				i++;
+			}
+
+			final PrzesuwaniePlan.Kursor op = plan.kursor();
+			while (op.nastepna()) {
+				System.arraycopy(bufor, op.lpOd() - lpMin, bufor, dlugoscOkna + op.lpOd() + op.offset() - lpMin,
+						op.lpDo() - op.lpOd() + 1);
+			}
+
+			final ListIterator<T> it = okno.listIterator();
+			for (i = dlugoscOkna; i < 2 * dlugoscOkna; i++) {
+				it.next();
+				it.set((T) bufor[i]);
+			}
+		} finally {
+			obszar.zwolnijBufor(2 * dlugoscOkna);
+		}
+	}
+
+	/**
+	 * Przepisuje zakresy planu z tablicy źródłowej do tablicy docelowej (dowolnego
+	 * typu tablicowego, np. {@code int[]} lub {@code long[]}) przez
+	 * {@link System#arraycopy(Object, int, Object, int, int)}.
+	 * <p>
+	 * Tablica docelowa powinna być kopią źródłowej – pozycje nieobjęte planem
+	 * pozostają bez zmian.
+	 */
+	static void przepiszWgPlanu(final Object zrodlo, final Object cel, final PrzesuwaniePlan plan) {
+		final PrzesuwaniePlan.Kursor op = plan.kursor();
+		while (op.nastepna()) {
+			System.arraycopy(zrodlo, op.lpOd() - 1, cel, op.lpOd() + op.offset() - 1, op.lpDo() - op.lpOd() + 1);
+		}
+	}
+
+	/**
+	 * Wyznacza docelowe LP początku każdego bloku po przesunięciu.
+	 * <p>
+	 * Element {@code i} wyniku odpowiada blokowi {@code blokiWybranych.get(i)}. W
+	 * trybie <b>CYKLICZNYM</b> wartość jest sprowadzana do zakresu listy, a sam
+	 * blok może przechodzić przez jej koniec.
+	 * <p>
+	 * Zakłada pełną poprawność danych wejściowych.
+	 */
+	static int[] obliczStartyDocelowe(final TrybPrzesuwania trybPrzesuwania,
 			final List<PrzesuwanieIndeksyBlok> blokiWybranych, final int rozmiarListy, final int przesuniecie) {
 
-		final int[] docelowaPermutacja = new int[rozmiarListy];
-		final boolean[] zajeteLp = new boolean[rozmiarListy + 1];
+		return obliczStartyDocelowe(trybPrzesuwania, blokiWybranych, rozmiarListy, przesuniecie,
+				new int[blokiWybranych.size()]);
+	}
+
+	/**
+	 * Wariant {@link #obliczStartyDocelowe(TrybPrzesuwania, List, int, int)}
+	 * zapisujący wynik do przekazanej tablicy (o długości co najmniej liczby
+	 * bloków).
+	 */
+	static int[] obliczStartyDocelowe(final TrybPrzesuwania trybPrzesuwania,
+			final List<PrzesuwanieIndeksyBlok> blokiWybranych, final int rozmiarListy, final int przesuniecie,
+			final int[] startyDocelowe) {
 
 		final Kierunek kierunek = okreslKierunek(przesuniecie);
 
 		int limitGora = 1;
 		int limitDol = rozmiarListy;
 
-		// -----------------------------------------------------
-		// 1. Przesuwanie bloków
-		// -----------------------------------------------------
-
 		boolean reverse = (trybPrzesuwania == TrybPrzesuwania.DOCISKAJACE && kierunek == Kierunek.DOL);
 		int startIndex  = reverse ? blokiWybranych.size() - 1 : 0;
 		int endIndex    = reverse ? -1 : blokiWybranych.size();
@@ -168,7 +417,65 @@ class PrzesuwanieObliczenia {
 				throw new AssertionError(NIEOBSŁUGIWANY_TRYB_PRZESUWANIA + trybPrzesuwania);
 			}
 
-			int newLp = start;
+			startyDocelowe[i] = start;
+		}
+
+		return startyDocelowe;
+	}
+
+	/**
+	 * Wyznacza wyłącznie plan przesunięć, bez przebudowy listy elementów. Jeżeli
+	 * przy danych parametrach nie dojdzie do przesunięcia, zwracany jest pusty
+	 * plan.
+	 * <p>
+	 * Zakłada pełną poprawność danych wejściowych.
+	 */
+	public static PrzesuwaniePlan wykonajPlan(final TrybPrzesuwania trybPrzesuwania,
+			final List<PrzesuwanieIndeksyBlok> blokiWybranych, final int rozmiarListy, final int przesuniecie) {
+		return wykonajPlan(trybPrzesuwania, blokiWybranych, rozmiarListy, przesuniecie, new PrzesuwanieObszarRoboczy());
+	}
+
+	/**
+	 * Wariant {@link #wykonajPlan(TrybPrzesuwania, List, int, int)} korzystający
+	 * z przekazanego obszaru roboczego.
+	 */
+	static PrzesuwaniePlan wykonajPlan(final TrybPrzesuwania trybPrzesuwania,
+			final List<PrzesuwanieIndeksyBlok> blokiWybranych, final int rozmiarListy, final int przesuniecie,
+			final PrzesuwanieObszarRoboczy obszar) {
+
+		if (!czyDoPrzesunieciaDojdzie(trybPrzesuwania, blokiWybranych, rozmiarListy, przesuniecie)) {
+			return new PrzesuwaniePlan();
+		}
+
+		return generujPlanZBlokow(trybPrzesuwania, blokiWybranych, rozmiarListy, przesuniecie, obszar.odcinki);
+	}
+
+	/**
+	 * Oblicza docelową permutację indeksów po dokonaniu przesunięcia bloków
+	 * elementów.
+	 * <p>
+	 * Wynikowa tablica zawiera dla każdego starego indeksu nowy indeks, który dany
+	 * element powinien przyjąć po przesunięciu.
+	 * <p>
+	 * Zakłada pełną poprawność danych wejściowych.
+	 */
+	static int[] obliczDocelowaPermutacje(final TrybPrzesuwania trybPrzesuwania,
+			final List<PrzesuwanieIndeksyBlok> blokiWybranych, final int rozmiarListy, final int przesuniecie) {
+
+		final int[] docelowaPermutacja = new int[rozmiarListy];
+		final boolean[] zajeteLp = new boolean[rozmiarListy + 1];
+
+		// -----------------------------------------------------
+		// 1. Przesuwanie bloków
+		// -----------------------------------------------------
+		final int[] startyDocelowe = obliczStartyDocelowe(trybPrzesuwania, blokiWybranych, rozmiarListy,
+				przesuniecie);
+
+		for (int i = 0; i < blokiWybranych.size(); i++) {
+
+			PrzesuwanieIndeksyBlok blok = blokiWybranych.get(i);
+
+			int newLp = startyDocelowe[i];
 
 			for (int lp = blok.start; lp <= blok.end; lp++) {
 
@@ -203,6 +510,134 @@ class PrzesuwanieObliczenia {
 		return docelowaPermutacja;
 	}
 
+	/**
+	 * Tworzy plan przesunięć bezpośrednio z bloków elementów wybranych, bez
+	 * wyliczania permutacji całej listy.
+	 * <p>
+	 * Każdy blok przesuwany jest na swoją pozycję docelową (w trybie
+	 * <b>CYKLICZNYM</b> blok przechodzący przez koniec listy dzielony jest na dwa
+	 * odcinki). Elementy niewybrane zachowują wzajemną kolejność, dlatego kolejne
+	 * luki między blokami źródłowymi wypełniają kolejne wolne zakresy między
+	 * blokami docelowymi – wystarczy więc scalić obie listy przedziałów.
+	 * <p>
+	 * Koszt jest proporcjonalny do liczby bloków, a nie do rozmiaru listy. Wynik
+	 * jest identyczny z {@link #generujPlan(int[], int)} dla permutacji z
+	 * {@link #obliczDocelowaPermutacje(TrybPrzesuwania, List, int, int)}.
+	 * <p>
+	 * Zakłada pełną poprawność danych wejściowych.
+	 */
+	static PrzesuwaniePlan generujPlanZBlokow(final TrybPrzesuwania trybPrzesuwania,
+			final List<PrzesuwanieIndeksyBlok> blokiWybranych, final int rozmiarListy, final int przesuniecie) {
+		return generujPlanZBlokow(trybPrzesuwania, blokiWybranych, rozmiarListy, przesuniecie,
+				new PrzesuwanieOdcinki());
+	}
+
+	/**
+	 * Wariant {@link #generujPlanZBlokow(TrybPrzesuwania, List, int, int)}
+	 * wyznaczający odcinki w przekazanej (wielokrotnego użytku) strukturze.
+	 */
+	static PrzesuwaniePlan generujPlanZBlokow(final TrybPrzesuwania trybPrzesuwania,
+			final List<PrzesuwanieIndeksyBlok> blokiWybranych, final int rozmiarListy, final int przesuniecie,
+			final PrzesuwanieOdcinki bufor) {
+
+		final PrzesuwaniePlan plan = new PrzesuwaniePlan();
+
+		if (blokiWybranych.isEmpty()) {
+			return plan;
+		}
+
+		final PrzesuwanieOdcinki odcinki = bufor.wyznacz(trybPrzesuwania, blokiWybranych, rozmiarListy,
+				przesuniecie);
+
+		// -----------------------------------------------------
+		// Scalanie luk źródłowych z wolnymi zakresami docelowymi
+		// -----------------------------------------------------
+		final ZbieraczPlanu zbieracz = new ZbieraczPlanu(plan);
+
+		int zrodlo = 1;
+		int nastepnyOdcinek = 0;
+
+		int wolne = 1;
+		int nastepnyCel = 0;
+
+		while (zrodlo <= rozmiarListy) {
+
+			if (nastepnyOdcinek < odcinki.liczba && odcinki.zrodlo[nastepnyOdcinek] == zrodlo) {
+				zbieracz.dodaj(zrodlo, odcinki.dlugosc[nastepnyOdcinek], odcinki.cel[nastepnyOdcinek] - zrodlo);
+				zrodlo += odcinki.dlugosc[nastepnyOdcinek];
+				nastepnyOdcinek++;
+				continue;
+			}
+
+			while (nastepnyCel < odcinki.liczba && odcinki.cel[odcinki.wgCelu(nastepnyCel)] == wolne) {
+				wolne += odcinki.dlugosc[odcinki.wgCelu(nastepnyCel)];
+				nastepnyCel++;
+			}
+
+			final int koniecLuki = nastepnyOdcinek < odcinki.liczba ? odcinki.zrodlo[nastepnyOdcinek] - 1
+					: rozmiarListy;
+			final int koniecWolnych = nastepnyCel < odcinki.liczba ? odcinki.cel[odcinki.wgCelu(nastepnyCel)] - 1
+					: rozmiarListy;
+
+			final int dlugosc = Math.min(koniecLuki - zrodlo, koniecWolnych - wolne) + 1;
+
+			zbieracz.dodaj(zrodlo, dlugosc, wolne - zrodlo);
+			zrodlo += dlugosc;
+			wolne += dlugosc;
+		}
+
+		zbieracz.zamknij();
+
+		return plan;
+	}
+
+	/**
+	 * Łączy kolejne przebiegi (w rosnącej kolejności starych LP) o tym samym
+	 * offsecie w jedną operację planu. Przebiegi o zerowym offsecie przerywają
+	 * łączenie i nie trafiają do planu.
+	 */
+	private static final class ZbieraczPlanu {
+
+		private final PrzesuwaniePlan plan;
+
+		private boolean otwarty;
+		private int lpOd;
+		private int lpDo;
+		private int offset;
+
+		private ZbieraczPlanu(PrzesuwaniePlan plan) {
+			this.plan = plan;
+		}
+
+		void dodaj(int lpStart, int dlugosc, int offsetPrzebiegu) {
+
+			if (offsetPrzebiegu == 0) {
+				zamknij();
+				return;
+			}
+
+			if (otwarty && lpStart == lpDo + 1 && offsetPrzebiegu == offset) {
+				lpDo = lpStart + dlugosc - 1;
+				return;
+			}
+
+			zamknij();
+
+			otwarty = true;
+			lpOd = lpStart;
+			lpDo = lpStart + dlugosc - 1;
+			offset = offsetPrzebiegu;
+		}
+
+		void zamknij() {
+			if (otwarty) {
+				plan.dodaj(lpOd, lpDo, offset);
+				otwarty = false;
+			}
+		}
+
+	}
+
 	/**
 	 * Na podstawie docelowej permutacji tworzy plan przesunięć w postaci ciągów
 	 * starych indeksów wraz z ich wspólnym offsetem.
@@ -267,16 +702,18 @@ class PrzesuwanieObliczenia {
 	 * Buduje nową listę elementów zgodnie z wyliczoną permutacją docelową.
 	 * <p>
 	 * Dla każdego elementu pobiera jego nową pozycję z tablicy permutacji i
-	 * umieszcza go we właściwym miejscu listy wynikowej.
+	 * umieszcza go we właściwym miejscu listy wynikowej. Lista źródłowa
+	 * odczytywana jest iteratorem, więc koszt jest liniowy również dla list bez
+	 * dostępu swobodnego.
 	 */
 	static <T> List<T> przebudujListe(final int[] docelowaPermutacja, final List<T> wszystkie) {
 
 		final int rozmiarListy = wszystkie.size();
 		final List<T> wynik = new ArrayList<>(Collections.nCopies(rozmiarListy, (T) null));
 
-		for (int i = 0; i < rozmiarListy; i++) {
-			int destIndex = docelowaPermutacja[i] - 1;
-			wynik.set(destIndex, wszystkie.get(i));
+		int i = 0;
+		for (T element : wszystkie) {
+			wynik.set(docelowaPermutacja[i++] - 1, element);
 		}
 
 		return wynik;
@@ -0,0 +1,319 @@
+package pl.com.razi.listy.przesuwanie;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import pl.com.razi.listy.przesuwanie.PrzesuwanieObsluga.TrybPrzesuwania;
+import pl.com.razi.listy.przesuwanie.model.PrzesuwanieIndeksyBlok;
+import pl.com.razi.listy.przesuwanie.wynik.PrzesuwaniePlan;
+
+/**
+ * Wielowątkowe odpowiedniki obliczeń z {@link PrzesuwanieObliczenia},
+ * przeznaczone dla bardzo dużych list.
+ * <p>
+ * Lista dzielona jest na segmenty przetwarzane niezależnie w
+ * {@link ForkJoinPool}. Każdy segment samodzielnie wyznacza swój stan
+ * początkowy z sum prefiksowych długości odcinków wybranych – nie zależy więc
+ * od wyników segmentów poprzedzających.
+ * <p>
+ * Wyniki są identyczne z wersjami jednowątkowymi. Klasa nie wykonuje żadnej
+ * walidacji – zakłada pełną poprawność i spójność danych wejściowych.
+ */
+class PrzesuwanieObliczeniaRownolegle {
+
+	/**
+	 * Liczba pozycji, poniżej której segment nie jest już dzielony.
+	 */
+	static final int PROG_PODZIALU = 1 << 16;
+
+	private PrzesuwanieObliczeniaRownolegle() {
+		throw new AssertionError();
+	}
+
+	/**
+	 * Wielowątkowy odpowiednik
+	 * {@link PrzesuwanieObliczenia#obliczDocelowaPermutacje(TrybPrzesuwania, List, int, int)}.
+	 * <p>
+	 * Dla segmentu zaczynającego się od LP {@code a} liczba wybranych przed nim
+	 * wynika z sumy prefiksowej długości odcinków, a stąd ranga pierwszego
+	 * niewybranego elementu segmentu. Wolny slot o tej randze wyszukiwany jest
+	 * binarnie w sumach prefiksowych odcinków docelowych, po czym segment
+	 * wypełniany jest sekwencyjnie.
+	 */
+	static int[] obliczDocelowaPermutacje(final TrybPrzesuwania trybPrzesuwania,
+			final List<PrzesuwanieIndeksyBlok> blokiWybranych, final int rozmiarListy, final int przesuniecie,
+			final ForkJoinPool pula) {
+
+		return obliczDocelowaPermutacje(trybPrzesuwania, blokiWybranych, rozmiarListy, przesuniecie, pula,
+				PROG_PODZIALU);
+	}
+
+	static int[] obliczDocelowaPermutacje(final TrybPrzesuwania trybPrzesuwania,
+			final List<PrzesuwanieIndeksyBlok> blokiWybranych, final int rozmiarListy, final int przesuniecie,
+			final ForkJoinPool pula, final int progPodzialu) {
+
+		final int[] docelowaPermutacja = new int[rozmiarListy];
+
+		final PrzesuwanieOdcinki odcinki = new PrzesuwanieOdcinki().wyznacz(trybPrzesuwania, blokiWybranych,
+				rozmiarListy, przesuniecie);
+
+		pula.invoke(new WypelnieniePermutacji(new Sumy(odcinki), docelowaPermutacja, 0, rozmiarListy,
+				Math.max(1, progPodzialu)));
+
+		return docelowaPermutacja;
+	}
+
+	/**
+	 * Wielowątkowy odpowiednik przepisania zakresów planu w
+	 * {@link PrzesuwanieObliczenia#wykonaj(TrybPrzesuwania, List, List, int, ForkJoinPool)}.
+	 * <p>
+	 * Zakres LP źródłowych objętych planem dzielony jest na segmenty; każdy
+	 * segment wyszukuje binarnie pierwszą operację planu, która go dotyczy, i
+	 * przepisuje do listy docelowej (kopii źródłowej) wyłącznie część wspólną
+	 * operacji z segmentem. Zapisy segmentów są rozłączne, bo plan jest
+	 * permutacją. Obie listy muszą zapewniać dostęp swobodny.
+	 */
+	static <T> void przepiszWgPlanu(final List<T> zrodlo, final List<T> cel, final PrzesuwaniePlan plan,
+			final ForkJoinPool pula) {
+
+		przepiszWgPlanu(zrodlo, cel, plan, pula, PROG_PODZIALU);
+	}
+
+	static <T> void przepiszWgPlanu(final List<T> zrodlo, final List<T> cel, final PrzesuwaniePlan plan,
+			final ForkJoinPool pula, final int progPodzialu) {
+
+		if (plan.czyPusty()) {
+			return;
+		}
+
+		pula.invoke(new PrzepisanieZakresow<>(zrodlo, cel, plan, plan.getLpOd(0),
+				plan.getLpDo(plan.getLiczbaOperacji() - 1), Math.max(1, progPodzialu)));
+	}
+
+	// ====================================================================
+	// ======================== SUMY PREFIKSOWE ===========================
+	// ====================================================================
+
+	/**
+	 * Odcinki wybranych wraz z sumami prefiksowymi ich długości – w kolejności
+	 * źródłowej oraz w kolejności LP docelowych.
+	 */
+	private static final class Sumy {
+
+		final PrzesuwanieOdcinki odcinki;
+
+		/** Liczba wybranych w odcinkach źródłowych {@code 0..k-1}. */
+		final long[] wybranePrzed;
+
+		/** Liczba zajętych LP w odcinkach docelowych {@code 0..k-1}. */
+		final long[] zajetePrzed;
+
+		Sumy(PrzesuwanieOdcinki odcinki) {
+			this.odcinki = odcinki;
+			this.wybranePrzed = new long[odcinki.liczba + 1];
+			this.zajetePrzed = new long[odcinki.liczba + 1];
+
+			for (int k = 0; k < odcinki.liczba; k++) {
+				wybranePrzed[k + 1] = wybranePrzed[k] + odcinki.dlugosc[k];
+				zajetePrzed[k + 1] = zajetePrzed[k] + odcinki.dlugosc[odcinki.wgCelu(k)];
+			}
+		}
+
+		/**
+		 * Pierwszy odcinek źródłowy, który kończy się na LP {@code lp} lub później.
+		 */
+		int odcinekZrodlowy(int lp) {
+			int lo = 0;
+			int hi = odcinki.liczba;
+			while (lo < hi) {
+				int mid = (lo + hi) >>> 1;
+				if (odcinki.zrodlo[mid] + odcinki.dlugosc[mid] - 1 < lp) {
+					lo = mid + 1;
+				} else {
+					hi = mid;
+				}
+			}
+			return lo;
+		}
+
+		/**
+		 * Liczba odcinków docelowych położonych w całości przed wolnym slotem o
+		 * randze {@code ranga} (liczonej od 0).
+		 */
+		int odcinkiPrzedWolnym(long ranga) {
+			int lo = 0;
+			int hi = odcinki.liczba;
+			while (lo < hi) {
+				int mid = (lo + hi) >>> 1;
+				long wolnePrzed = odcinki.cel[odcinki.wgCelu(mid)] - 1 - zajetePrzed[mid];
+				if (wolnePrzed <= ranga) {
+					lo = mid + 1;
+				} else {
+					hi = mid;
+				}
+			}
+			return lo;
+		}
+
+	}
+
+	// ====================================================================
+	// ========================= ZADANIE FORK/JOIN ========================
+	// ====================================================================
+
+	private static final class WypelnieniePermutacji extends RecursiveAction {
+
+		private static final long serialVersionUID = 1L;
+
+		private final Sumy sumy;
+		private final int[] docelowaPermutacja;
+		private final int od;
+		private final int doWyl;
+		private final int progPodzialu;
+
+		WypelnieniePermutacji(Sumy sumy, int[] docelowaPermutacja, int od, int doWyl, int progPodzialu) {
+			this.sumy = sumy;
+			this.docelowaPermutacja = docelowaPermutacja;
+			this.od = od;
+			this.doWyl = doWyl;
+			this.progPodzialu = progPodzialu;
+		}
+
+		@Override
+		protected void compute() {
+
+			if (doWyl - od <= progPodzialu) {
+				wypelnijSegment();
+				return;
+			}
+
+			final int srodek = (od + doWyl) >>> 1;
+
+			invokeAll(new WypelnieniePermutacji(sumy, docelowaPermutacja, od, srodek, progPodzialu),
+					new WypelnieniePermutacji(sumy, docelowaPermutacja, srodek, doWyl, progPodzialu));
+		}
+
+		private void wypelnijSegment() {
+
+			final PrzesuwanieOdcinki odcinki = sumy.odcinki;
+
+			final int lpPierwsze = od + 1;
+
+			// stan początkowy segmentu – wyłącznie z sum prefiksowych
+			int k = sumy.odcinekZrodlowy(lpPierwsze);
+
+			long wybranePrzed = sumy.wybranePrzed[k];
+			if (k < odcinki.liczba && odcinki.zrodlo[k] < lpPierwsze) {
+				wybranePrzed += lpPierwsze - odcinki.zrodlo[k];
+			}
+
+			final long ranga = (lpPierwsze - 1) - wybranePrzed;
+
+			int m = sumy.odcinkiPrzedWolnym(ranga);
+			int wolne = (int) (ranga + 1 + sumy.zajetePrzed[m]);
+
+			// sekwencyjne wypełnienie segmentu
+			int lp = lpPierwsze;
+
+			while (lp <= doWyl) {
+
+				if (k < odcinki.liczba && odcinki.zrodlo[k] <= lp) {
+
+					final int koniec = Math.min(doWyl, odcinki.zrodlo[k] + odcinki.dlugosc[k] - 1);
+					final int offset = odcinki.cel[k] - odcinki.zrodlo[k];
+
+					for (; lp <= koniec; lp++) {
+						docelowaPermutacja[lp - 1] = lp + offset;
+					}
+
+					k++;
+					continue;
+				}
+
+				final int koniecLuki = k < odcinki.liczba ? Math.min(doWyl, odcinki.zrodlo[k] - 1) : doWyl;
+
+				for (; lp <= koniecLuki; lp++) {
+
+					docelowaPermutacja[lp - 1] = wolne++;
+
+					while (m < odcinki.liczba && odcinki.cel[odcinki.wgCelu(m)] == wolne) {
+						wolne += odcinki.dlugosc[odcinki.wgCelu(m)];
+						m++;
+					}
+				}
+			}
+		}
+
+	}
+
+	private static final class PrzepisanieZakresow<T> extends RecursiveAction {
+
+		private static final long serialVersionUID = 1L;
+
+		private final List<T> zrodlo;
+		private final List<T> cel;
+		private final PrzesuwaniePlan plan;
+		private final int lpOd;
+		private final int lpDo;
+		private final int progPodzialu;
+
+		PrzepisanieZakresow(List<T> zrodlo, List<T> cel, PrzesuwaniePlan plan, int lpOd, int lpDo,
+				int progPodzialu) {
+			this.zrodlo = zrodlo;
+			this.cel = cel;
+			this.plan = plan;
+			this.lpOd = lpOd;
+			this.lpDo = lpDo;
+			this.progPodzialu = progPodzialu;
+		}
+
+		@Override
+		protected void compute() {
+
+			if (lpDo - lpOd < progPodzialu) {
+				przepiszSegment();
+				return;
+			}
+
+			final int srodek = (lpOd + lpDo) >>> 1;
+
+			invokeAll(new PrzepisanieZakresow<>(zrodlo, cel, plan, lpOd, srodek, progPodzialu),
+					new PrzepisanieZakresow<>(zrodlo, cel, plan, srodek + 1, lpDo, progPodzialu));
+		}
+
+		private void przepiszSegment() {
+
+			final int liczbaOperacji = plan.getLiczbaOperacji();
+
+			for (int k = pierwszaOperacja(); k < liczbaOperacji && plan.getLpOd(k) <= lpDo; k++) {
+
+				final int offset = plan.getOffset(k);
+				final int koniec = Math.min(lpDo, plan.getLpDo(k));
+
+				for (int lp = Math.max(lpOd, plan.getLpOd(k)); lp <= koniec; lp++) {
+					cel.set(lp + offset - 1, zrodlo.get(lp - 1));
+				}
+			}
+		}
+
+		/**
+		 * Pierwsza operacja planu, która kończy się na LP {@code lpOd} lub później.
+		 */
+		private int pierwszaOperacja() {
+			int lo = 0;
+			int hi = plan.getLiczbaOperacji();
+			while (lo < hi) {
+				int mid = (lo + hi) >>> 1;
+				if (plan.getLpDo(mid) < lpOd) {
+					lo = mid + 1;
+				} else {
+					hi = mid;
+				}
+			}
+			return lo;
+		}
+
+	}
+
+}
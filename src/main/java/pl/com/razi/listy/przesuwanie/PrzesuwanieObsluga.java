@@ -1,9 +1,14 @@
 package pl.com.razi.listy.przesuwanie;
 
+import java.util.Arrays;
+import java.util.BitSet;
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.ToLongFunction;
 
 import pl.com.razi.listy.przesuwanie.model.PrzesuwanieIndeksyBlok;
 import pl.com.razi.listy.przesuwanie.wyjatki.PrzesuwanieBrakElementuException;
+import pl.com.razi.listy.przesuwanie.wynik.PrzesuwaniePlan;
 import pl.com.razi.listy.przesuwanie.wynik.PrzesuwanieWynik;
 
 /**
@@ -26,10 +31,17 @@ import pl.com.razi.listy.przesuwanie.wynik.PrzesuwanieWynik;
  * ruszyć, sprawdzany jest kolejny (analogicznie przy przesuwaniu w dół).</li>
  * </ul>
  *
+ * <h3>Wyszukiwanie elementów wybranych</h3> Domyślnie elementy wybrane
+ * odnajdywane są na liście wg {@code equals()}/{@code hashCode()}. W
+ * {@link Builder} można wskazać porównywanie wg tożsamości obiektów lub wg
+ * klucza liczbowego (np. identyfikatora encji), co pozwala uniknąć kosztownych
+ * lub inicjujących leniwe ładowanie wywołań na encjach.
+ *
  * <h3>Wyjątki</h3> Wszystkie metody mogą rzucać:
  * <ul>
  * <li>{@link PrzesuwanieBrakElementuException} – gdy którykolwiek element z listy
- * wybranych nie istnieje w liście wszystkich.</li>
+ * wybranych nie istnieje w liście wszystkich (lub indeks wybranego wiersza
+ * wykracza poza listę).</li>
  * </ul>
  *
  * @param <T> typ elementów listy
@@ -40,10 +52,29 @@ public class PrzesuwanieObsluga<T> {
 		LINIOWE, CYKLICZNE, DOCISKAJACE;
 	}
 
+	/**
+	 * Domyślny minimalny rozmiar listy, od którego obliczenia wykonywane są
+	 * wielowątkowo (o ile włączono je w {@link Builder}).
+	 */
+	public static final int DOMYSLNY_PROG_ROWNOLEGLOSCI = 500_000;
+
 	private TrybPrzesuwania trybPrzesuwania;
 
-	private PrzesuwanieObsluga(TrybPrzesuwania trybPrzesuwania) {
-		this.trybPrzesuwania = trybPrzesuwania;
+	private final ForkJoinPool pulaWatkow;
+	private final int progRownoleglosci;
+
+	private final boolean wyszukiwanieWgTozsamosci;
+	private final ToLongFunction<? super T> kluczElementu;
+
+	private final boolean wynikJakoWidok;
+
+	private PrzesuwanieObsluga(Builder<T> builder) {
+		this.trybPrzesuwania = builder.trybPrzesuwania;
+		this.pulaWatkow = builder.pulaWatkow;
+		this.progRownoleglosci = builder.progRownoleglosci;
+		this.wyszukiwanieWgTozsamosci = builder.wyszukiwanieWgTozsamosci;
+		this.kluczElementu = builder.kluczElementu;
+		this.wynikJakoWidok = builder.wynikJakoWidok;
 	}
 
 	// ====================================================================
@@ -53,14 +84,98 @@ public class PrzesuwanieObsluga<T> {
 	public static class Builder<T> {
 
 		private TrybPrzesuwania trybPrzesuwania = TrybPrzesuwania.LINIOWE;
+		private ForkJoinPool pulaWatkow;
+		private int progRownoleglosci = DOMYSLNY_PROG_ROWNOLEGLOSCI;
+		private boolean wyszukiwanieWgTozsamosci;
+		private ToLongFunction<? super T> kluczElementu;
+		private boolean wynikJakoWidok;
 
 		public Builder<T> trybPrzesuwania(TrybPrzesuwania trybPrzesuwania) {
 			this.trybPrzesuwania = trybPrzesuwania;
 			return this;
 		}
 
+		/**
+		 * Włącza wielowątkowe obliczenia dla dużych list we wspólnej puli
+		 * {@link ForkJoinPool#commonPool()}.
+		 */
+		public Builder<T> rownolegle() {
+			return rownolegle(ForkJoinPool.commonPool());
+		}
+
+		/**
+		 * Włącza wielowątkowe obliczenia dla dużych list w przekazanej puli. Wartość
+		 * null wyłącza obliczenia wielowątkowe.
+		 */
+		public Builder<T> rownolegle(ForkJoinPool pulaWatkow) {
+			this.pulaWatkow = pulaWatkow;
+			return this;
+		}
+
+		/**
+		 * Minimalny rozmiar listy, od którego obliczenia wykonywane są wielowątkowo.
+		 * Domyślnie {@link PrzesuwanieObsluga#DOMYSLNY_PROG_ROWNOLEGLOSCI}. Wartość 0
+		 * oznacza obliczenia wielowątkowe zawsze, niezależnie od rozmiaru listy.
+		 * Wartość ujemna jest odrzucana przez {@link #build()}.
+		 */
+		public Builder<T> progRownoleglosci(int progRownoleglosci) {
+			this.progRownoleglosci = progRownoleglosci;
+			return this;
+		}
+
+		/**
+		 * Elementy wybrane wyszukiwane są na liście wg {@code equals()} i
+		 * {@code hashCode()}. Zachowanie domyślne.
+		 */
+		public Builder<T> wyszukiwanieWgEquals() {
+			this.wyszukiwanieWgTozsamosci = false;
+			this.kluczElementu = null;
+			return this;
+		}
+
+		/**
+		 * Elementy wybrane wyszukiwane są na liście wg tożsamości obiektów
+		 * ({@code ==}), bez wywołań {@code equals()} i {@code hashCode()}.
+		 */
+		public Builder<T> wyszukiwanieWgTozsamosci() {
+			this.wyszukiwanieWgTozsamosci = true;
+			this.kluczElementu = null;
+			return this;
+		}
+
+		/**
+		 * Elementy wybrane wyszukiwane są na liście wg klucza liczbowego
+		 * wyznaczanego przez przekazaną funkcję (np. identyfikatora encji). Klucze
+		 * powinny być unikalne w obrębie listy.
+		 *
+		 * @throws IllegalArgumentException Jeżeli funkcja klucza jest null.
+		 */
+		public Builder<T> wyszukiwanieWgKlucza(ToLongFunction<? super T> kluczElementu) {
+			if (kluczElementu == null) {
+				throw new IllegalArgumentException("Nie podano funkcji klucza elementu.");
+			}
+			this.wyszukiwanieWgTozsamosci = false;
+			this.kluczElementu = kluczElementu;
+			return this;
+		}
+
+		/**
+		 * Wyniki {@code przesunPelny} (i {@code przesunListe}) zwracają listę jako
+		 * widok tylko do odczytu na listę źródłową i plan
+		 * ({@link PrzesuwanieWynik#widok(List, PrzesuwaniePlan)}) zamiast nowej
+		 * kopii – także wtedy, gdy do przesunięcia nie dochodzi. Lista źródłowa nie
+		 * powinna być modyfikowana, dopóki wynik jest używany.
+		 */
+		public Builder<T> wynikJakoWidok() {
+			this.wynikJakoWidok = true;
+			return this;
+		}
+
 		public PrzesuwanieObsluga<T> build() {
-			return new PrzesuwanieObsluga<>(trybPrzesuwania);
+			if (progRownoleglosci < 0) {
+				throw new IllegalStateException("Próg równoległości nie może być ujemny.");
+			}
+			return new PrzesuwanieObsluga<>(this);
 		}
 
 	}
@@ -76,6 +191,10 @@ public class PrzesuwanieObsluga<T> {
 		this.trybPrzesuwania = trybPrzesuwania;
 	}
 
+	public TrybPrzesuwania getTrybPrzesuwania() {
+		return trybPrzesuwania;
+	}
+
 	// ====================================================================
 	// ========================= API ======================================
 	// ====================================================================
@@ -96,20 +215,69 @@ public class PrzesuwanieObsluga<T> {
 	public boolean czyDoPrzesunieciaDojdzie(List<T> wszystkie, List<T> wybrane, int przesuniecie)
 			throws PrzesuwanieBrakElementuException {
 
-		PrzesuwanieWejscie.walidacjaDanych(wszystkie, wybrane);
+		int[] indeksyWybranych = wyszukajWybrane(wszystkie, wybrane);
 
 		if (!PrzesuwanieWejscie.czyParametryPrzesuwaniaPoprawne(wszystkie, wybrane, przesuniecie)) {
 			return false;
 		}
 
-		List<PrzesuwanieIndeksyBlok> blokiWybranych = PrzesuwanieWejscie.zbudujBlokiWybranych(wszystkie, wybrane);
+		List<PrzesuwanieIndeksyBlok> blokiWybranych = PrzesuwanieWejscie.zbudujBlokiZIndeksow(indeksyWybranych);
 
-		int rozmiarListy = wszystkie.size();
-		int rzeczywistePrzesuniecie = PrzesuwanieWejscie.obliczRzeczywistePrzesuniecie(trybPrzesuwania, przesuniecie,
-				rozmiarListy);
+		return czyDoPrzesunieciaDojdzieDlaBlokow(wszystkie.size(), blokiWybranych, przesuniecie);
+	}
 
-		return PrzesuwanieObliczenia.czyDoPrzesunieciaDojdzie(trybPrzesuwania, blokiWybranych, rozmiarListy,
-				rzeczywistePrzesuniecie);
+	/**
+	 * Wariant {@link #czyDoPrzesunieciaDojdzie(List, List, int)}, w którym
+	 * elementy wybrane wskazywane są indeksami wierszy (liczonymi od 0), np. z
+	 * {@code JTable.getSelectedRows()}. Nie wymaga wyszukiwania elementów na
+	 * liście.
+	 *
+	 * @param wszystkie        Lista źródłowa, na której wykonywana jest operacja.
+	 * @param indeksyWybranych Indeksy wierszy podlegających przesunięciu.
+	 * @param przesuniecie     Wartość przesunięcia (ujemna - w górę, dodatnia - w
+	 *                         dół).
+	 * @return Zwraca <b>true</b> w przypadku, gdy aktualnym trybie działania
+	 *         możliwe będzie wykonanie przesunięcia.
+	 * @throws PrzesuwanieBrakElementuException Jeżeli którykolwiek indeks wykracza
+	 *                                          poza listę wszystkich.
+	 */
+	public boolean czyDoPrzesunieciaDojdzie(List<T> wszystkie, int[] indeksyWybranych, int przesuniecie)
+			throws PrzesuwanieBrakElementuException {
+
+		int rozmiarListy = wszystkie == null ? 0 : wszystkie.size();
+
+		PrzesuwanieWejscie.walidacjaIndeksow(rozmiarListy, indeksyWybranych);
+
+		if (!PrzesuwanieWejscie.czyParametryPrzesuwaniaPoprawne(rozmiarListy,
+				indeksyWybranych == null ? 0 : indeksyWybranych.length, przesuniecie)) {
+			return false;
+		}
+
+		return czyDoPrzesunieciaDojdzieDlaBlokow(rozmiarListy,
+				PrzesuwanieWejscie.zbudujBlokiZIndeksow(indeksyWybranych), przesuniecie);
+	}
+
+	/**
+	 * Wariant {@link #czyDoPrzesunieciaDojdzie(List, int[], int)}, w którym
+	 * wybrane wiersze oznaczone są ustawionymi bitami.
+	 *
+	 * @throws PrzesuwanieBrakElementuException Jeżeli którykolwiek indeks wykracza
+	 *                                          poza listę wszystkich.
+	 */
+	public boolean czyDoPrzesunieciaDojdzie(List<T> wszystkie, BitSet indeksyWybranych, int przesuniecie)
+			throws PrzesuwanieBrakElementuException {
+
+		int rozmiarListy = wszystkie == null ? 0 : wszystkie.size();
+
+		PrzesuwanieWejscie.walidacjaIndeksow(rozmiarListy, indeksyWybranych);
+
+		if (!PrzesuwanieWejscie.czyParametryPrzesuwaniaPoprawne(rozmiarListy,
+				indeksyWybranych == null ? 0 : indeksyWybranych.cardinality(), przesuniecie)) {
+			return false;
+		}
+
+		return czyDoPrzesunieciaDojdzieDlaBlokow(rozmiarListy,
+				PrzesuwanieWejscie.zbudujBlokiZIndeksow(indeksyWybranych), przesuniecie);
 	}
 
 	/**
@@ -197,19 +365,356 @@ public class PrzesuwanieObsluga<T> {
 	public PrzesuwanieWynik<T> przesunPelny(List<T> wszystkie, List<T> wybrane, int przesuniecie)
 			throws PrzesuwanieBrakElementuException {
 
-		PrzesuwanieWejscie.walidacjaDanych(wszystkie, wybrane);
+		int[] indeksyWybranych = wyszukajWybrane(wszystkie, wybrane);
+
+		if (!PrzesuwanieWejscie.czyParametryPrzesuwaniaPoprawne(wszystkie, wybrane, przesuniecie)) {
+			return wynikPusty(wszystkie);
+		}
+
+		List<PrzesuwanieIndeksyBlok> blokiWybranych = PrzesuwanieWejscie.zbudujBlokiZIndeksow(indeksyWybranych);
+
+		return wykonaj(wszystkie, blokiWybranych, przesuniecie);
+	}
+
+	/**
+	 * Wariant {@link #przesunPelny(List, List, int)}, w którym elementy wybrane
+	 * wskazywane są indeksami wierszy (liczonymi od 0), np. z
+	 * {@code JTable.getSelectedRows()}.
+	 * <p>
+	 * Bloki budowane są bezpośrednio z indeksów, bez haszowania listy źródłowej i
+	 * bez wywołań {@code equals()} na elementach.
+	 * </p>
+	 *
+	 * @param wszystkie        Lista źródłowa, na której wykonywana jest operacja.
+	 * @param indeksyWybranych Indeksy wierszy podlegających przesunięciu.
+	 * @param przesuniecie     Wartość przesunięcia. Znak oznacza kierunek.
+	 * @return Nowa lista po przesunięciu wraz z metadanymi przesunięcia.
+	 * @throws PrzesuwanieBrakElementuException Jeżeli którykolwiek indeks wykracza
+	 *                                          poza listę wszystkich.
+	 */
+	public PrzesuwanieWynik<T> przesunPelny(List<T> wszystkie, int[] indeksyWybranych, int przesuniecie)
+			throws PrzesuwanieBrakElementuException {
+
+		int rozmiarListy = wszystkie == null ? 0 : wszystkie.size();
+
+		PrzesuwanieWejscie.walidacjaIndeksow(rozmiarListy, indeksyWybranych);
+
+		if (!PrzesuwanieWejscie.czyParametryPrzesuwaniaPoprawne(rozmiarListy,
+				indeksyWybranych == null ? 0 : indeksyWybranych.length, przesuniecie)) {
+			return wynikPusty(wszystkie);
+		}
+
+		return wykonaj(wszystkie, PrzesuwanieWejscie.zbudujBlokiZIndeksow(indeksyWybranych), przesuniecie);
+	}
+
+	/**
+	 * Wariant {@link #przesunPelny(List, int[], int)}, w którym wybrane wiersze
+	 * oznaczone są ustawionymi bitami.
+	 *
+	 * @throws PrzesuwanieBrakElementuException Jeżeli którykolwiek indeks wykracza
+	 *                                          poza listę wszystkich.
+	 */
+	public PrzesuwanieWynik<T> przesunPelny(List<T> wszystkie, BitSet indeksyWybranych, int przesuniecie)
+			throws PrzesuwanieBrakElementuException {
+
+		int rozmiarListy = wszystkie == null ? 0 : wszystkie.size();
+
+		PrzesuwanieWejscie.walidacjaIndeksow(rozmiarListy, indeksyWybranych);
+
+		if (!PrzesuwanieWejscie.czyParametryPrzesuwaniaPoprawne(rozmiarListy,
+				indeksyWybranych == null ? 0 : indeksyWybranych.cardinality(), przesuniecie)) {
+			return wynikPusty(wszystkie);
+		}
+
+		return wykonaj(wszystkie, PrzesuwanieWejscie.zbudujBlokiZIndeksow(indeksyWybranych), przesuniecie);
+	}
+
+	/**
+	 * Wariant {@link #czyDoPrzesunieciaDojdzie(List, List, int)}, który nie
+	 * wymaga listy elementów – wystarczy jej rozmiar oraz zakresy LP (liczone od
+	 * 1) elementów wybranych.
+	 *
+	 * @param rozmiarListy Liczba elementów listy.
+	 * @param zakresyLp    Zakresy LP elementów podlegających przesunięciu.
+	 * @param przesuniecie Wartość przesunięcia (ujemna - w górę, dodatnia - w dół).
+	 * @return Zwraca <b>true</b> w przypadku, gdy aktualnym trybie działania
+	 *         możliwe będzie wykonanie przesunięcia.
+	 * @throws PrzesuwanieBrakElementuException Jeżeli którykolwiek zakres jest
+	 *                                          pusty lub wykracza poza listę.
+	 */
+	public boolean czyDoPrzesunieciaDojdzie(int rozmiarListy, List<PrzesuwanieIndeksyBlok> zakresyLp,
+			int przesuniecie) throws PrzesuwanieBrakElementuException {
+
+		PrzesuwanieWejscie.walidacjaZakresowLp(rozmiarListy, zakresyLp);
+
+		if (!PrzesuwanieWejscie.czyParametryPrzesuwaniaPoprawne(rozmiarListy, zakresyLp == null ? 0 : zakresyLp.size(),
+				przesuniecie)) {
+			return false;
+		}
+
+		return czyDoPrzesunieciaDojdzieDlaBlokow(rozmiarListy, PrzesuwanieWejscie.normalizujZakresyLp(zakresyLp),
+				przesuniecie);
+	}
+
+	/**
+	 * Wyznacza wyłącznie plan przesunięcia – bez listy elementów. Wystarczy
+	 * rozmiar listy oraz zakresy LP (liczone od 1) elementów wybranych.
+	 * <p>
+	 * Przeznaczone dla sytuacji, w których przesunięcie kończy się aktualizacją
+	 * bazy danych (np. {@link PrzesuwaniePlan#toSqlCaseWhenBloki(String, String, String)})
+	 * i wczytywanie wszystkich elementów byłoby zbędne. Koszt zależy wyłącznie od
+	 * liczby zakresów.
+	 * </p>
+	 *
+	 * @param rozmiarListy Liczba elementów listy.
+	 * @param zakresyLp    Zakresy LP elementów podlegających przesunięciu. Mogą być
+	 *                     nieposortowane, nachodzące na siebie lub sąsiednie.
+	 * @param przesuniecie Wartość przesunięcia. Znak oznacza kierunek.
+	 * @return Plan przesunięcia (pusty, jeśli nie dojdzie do przesunięcia).
+	 * @throws PrzesuwanieBrakElementuException Jeżeli którykolwiek zakres jest
+	 *                                          pusty lub wykracza poza listę.
+	 */
+	public PrzesuwaniePlan przesunPlan(int rozmiarListy, List<PrzesuwanieIndeksyBlok> zakresyLp, int przesuniecie)
+			throws PrzesuwanieBrakElementuException {
+
+		PrzesuwanieWejscie.walidacjaZakresowLp(rozmiarListy, zakresyLp);
+
+		if (!PrzesuwanieWejscie.czyParametryPrzesuwaniaPoprawne(rozmiarListy, zakresyLp == null ? 0 : zakresyLp.size(),
+				przesuniecie)) {
+			return new PrzesuwaniePlan();
+		}
+
+		List<PrzesuwanieIndeksyBlok> blokiWybranych = PrzesuwanieWejscie.normalizujZakresyLp(zakresyLp);
+
+		int rzeczywistePrzesuniecie = PrzesuwanieWejscie.obliczRzeczywistePrzesuniecie(trybPrzesuwania, przesuniecie,
+				rozmiarListy);
+
+		return PrzesuwanieObliczenia.wykonajPlan(trybPrzesuwania, blokiWybranych, rozmiarListy,
+				rzeczywistePrzesuniecie, PrzesuwanieObszarRoboczy.dlaBiezacegoWatku());
+	}
+
+	/**
+	 * Przesuwa elementy bezpośrednio na przekazanej liście, bez tworzenia nowej.
+	 * Ujemna wartość przesunięcia oznacza kierunek w górę.
+	 * <p>
+	 * Zmieniany jest wyłącznie zakres między pierwszą a ostatnią przesuniętą
+	 * pozycją. Lista musi obsługiwać {@link List#set(int, Object)}.
+	 * </p>
+	 *
+	 * @param wszystkie    Lista źródłowa, zmieniana w miejscu.
+	 * @param wybrane      Elementy, które podlegają przesunięciu.
+	 * @param przesuniecie Wartość przesunięcia. Znak oznacza kierunek.
+	 * @return Plan wykonanego przesunięcia (pusty, jeśli nic się nie zmieniło).
+	 * @throws PrzesuwanieBrakElementuException Jeżeli któregokolwiek elementu
+	 *                                          wybranego nie ma na liście
+	 *                                          wszystkich.
+	 */
+	public PrzesuwaniePlan przesunWMiejscu(List<T> wszystkie, List<T> wybrane, int przesuniecie)
+			throws PrzesuwanieBrakElementuException {
+
+		int[] indeksyWybranych = wyszukajWybrane(wszystkie, wybrane);
 
 		if (!PrzesuwanieWejscie.czyParametryPrzesuwaniaPoprawne(wszystkie, wybrane, przesuniecie)) {
-			return PrzesuwanieWynik.getInstancePusty(wszystkie);
+			return new PrzesuwaniePlan();
+		}
+
+		List<PrzesuwanieIndeksyBlok> blokiWybranych = PrzesuwanieWejscie.zbudujBlokiZIndeksow(indeksyWybranych);
+
+		return przesunBlokiWMiejscu(wszystkie, blokiWybranych, przesuniecie);
+	}
+
+	/**
+	 * Wariant {@link #przesunWMiejscu(List, List, int)}, w którym elementy
+	 * wybrane wskazywane są indeksami wierszy (liczonymi od 0).
+	 *
+	 * @throws PrzesuwanieBrakElementuException Jeżeli którykolwiek indeks wykracza
+	 *                                          poza listę wszystkich.
+	 */
+	public PrzesuwaniePlan przesunWMiejscu(List<T> wszystkie, int[] indeksyWybranych, int przesuniecie)
+			throws PrzesuwanieBrakElementuException {
+
+		int rozmiarListy = wszystkie == null ? 0 : wszystkie.size();
+
+		PrzesuwanieWejscie.walidacjaIndeksow(rozmiarListy, indeksyWybranych);
+
+		if (!PrzesuwanieWejscie.czyParametryPrzesuwaniaPoprawne(rozmiarListy,
+				indeksyWybranych == null ? 0 : indeksyWybranych.length, przesuniecie)) {
+			return new PrzesuwaniePlan();
+		}
+
+		return przesunBlokiWMiejscu(wszystkie, PrzesuwanieWejscie.zbudujBlokiZIndeksow(indeksyWybranych),
+				przesuniecie);
+	}
+
+	/**
+	 * Wariant {@link #przesunWMiejscu(List, int[], int)} działający bezpośrednio
+	 * na tablicy elementów.
+	 *
+	 * @throws PrzesuwanieBrakElementuException Jeżeli którykolwiek indeks wykracza
+	 *                                          poza tablicę.
+	 */
+	public PrzesuwaniePlan przesunWMiejscu(T[] wszystkie, int[] indeksyWybranych, int przesuniecie)
+			throws PrzesuwanieBrakElementuException {
+
+		return przesunWMiejscu(wszystkie == null ? null : Arrays.asList(wszystkie), indeksyWybranych, przesuniecie);
+	}
+
+	/**
+	 * Przygotowuje zaznaczenie do wielokrotnego sprawdzania, czy przesunięcie
+	 * zmieni kolejność – np. przy każdej zmianie zaznaczenia dla przycisków „w
+	 * górę” i „w dół”. Elementy wybrane wyszukiwane i walidowane są jednokrotnie,
+	 * a kolejne pytania ({@link PrzesuwanieZaznaczenie#czyDoPrzesunieciaDojdzie(int)})
+	 * mają koszt stały.
+	 *
+	 * @throws PrzesuwanieBrakElementuException Jeżeli któregokolwiek elementu
+	 *                                          wybranego nie ma na liście
+	 *                                          wszystkich.
+	 */
+	public PrzesuwanieZaznaczenie przygotujZaznaczenie(List<T> wszystkie, List<T> wybrane)
+			throws PrzesuwanieBrakElementuException {
+
+		int[] indeksyWybranych = wyszukajWybrane(wszystkie, wybrane);
+
+		return new PrzesuwanieZaznaczenie(this, wszystkie == null ? 0 : wszystkie.size(),
+				PrzesuwanieWejscie.zbudujBlokiZIndeksow(indeksyWybranych));
+	}
+
+	/**
+	 * Wariant {@link #przygotujZaznaczenie(List, List)}, w którym elementy
+	 * wybrane wskazywane są indeksami wierszy (liczonymi od 0), np. z
+	 * {@code JTable.getSelectedRows()}. Koszt zależy od liczby wybranych wierszy,
+	 * a nie od rozmiaru listy.
+	 *
+	 * @throws PrzesuwanieBrakElementuException Jeżeli którykolwiek indeks wykracza
+	 *                                          poza listę wszystkich.
+	 */
+	public PrzesuwanieZaznaczenie przygotujZaznaczenie(List<T> wszystkie, int[] indeksyWybranych)
+			throws PrzesuwanieBrakElementuException {
+
+		int rozmiarListy = wszystkie == null ? 0 : wszystkie.size();
+
+		PrzesuwanieWejscie.walidacjaIndeksow(rozmiarListy, indeksyWybranych);
+
+		return new PrzesuwanieZaznaczenie(this, rozmiarListy,
+				PrzesuwanieWejscie.zbudujBlokiZIndeksow(indeksyWybranych == null ? new int[0] : indeksyWybranych));
+	}
+
+	/**
+	 * Wariant {@link #przygotujZaznaczenie(List, int[])}, w którym wybrane
+	 * wiersze oznaczone są ustawionymi bitami.
+	 *
+	 * @throws PrzesuwanieBrakElementuException Jeżeli którykolwiek indeks wykracza
+	 *                                          poza listę wszystkich.
+	 */
+	public PrzesuwanieZaznaczenie przygotujZaznaczenie(List<T> wszystkie, BitSet indeksyWybranych)
+			throws PrzesuwanieBrakElementuException {
+
+		int rozmiarListy = wszystkie == null ? 0 : wszystkie.size();
+
+		PrzesuwanieWejscie.walidacjaIndeksow(rozmiarListy, indeksyWybranych);
+
+		return new PrzesuwanieZaznaczenie(this, rozmiarListy,
+				PrzesuwanieWejscie.zbudujBlokiZIndeksow(indeksyWybranych == null ? new BitSet() : indeksyWybranych));
+	}
+
+	/**
+	 * Wariant {@link #przygotujZaznaczenie(List, int[])} bez listy elementów –
+	 * wystarczy rozmiar listy oraz zakresy LP (liczone od 1) elementów wybranych,
+	 * np. gdy przesunięcie kończy się aktualizacją bazy danych.
+	 *
+	 * @param zakresyLp Zakresy LP elementów wybranych. Mogą być nieposortowane,
+	 *                  nachodzące na siebie lub sąsiednie.
+	 * @throws PrzesuwanieBrakElementuException Jeżeli którykolwiek zakres jest
+	 *                                          pusty lub wykracza poza listę.
+	 */
+	public PrzesuwanieZaznaczenie przygotujZaznaczenie(int rozmiarListy, List<PrzesuwanieIndeksyBlok> zakresyLp)
+			throws PrzesuwanieBrakElementuException {
+
+		PrzesuwanieWejscie.walidacjaZakresowLp(rozmiarListy, zakresyLp);
+
+		return new PrzesuwanieZaznaczenie(this, rozmiarListy, PrzesuwanieWejscie.normalizujZakresyLp(zakresyLp));
+	}
+
+	/**
+	 * Otwiera sesję edycji kolejności dla kopii przekazanej listy – z trwałym
+	 * zaznaczeniem i składanym planem oczekującym na zapis.
+	 *
+	 * @param wszystkie Lista źródłowa. Nie jest modyfikowana przez sesję.
+	 * @return Sesja bez zaznaczenia.
+	 */
+	public PrzesuwanieSesja<T> otworzSesje(List<T> wszystkie) {
+		return new PrzesuwanieSesja<>(this, wszystkie == null ? List.of() : wszystkie);
+	}
+
+	// ====================================================================
+	// ========================= WSPÓLNE ==================================
+	// ====================================================================
+
+	/**
+	 * Waliduje elementy wybrane zgodnie ze sposobem wyszukiwania i zwraca ich
+	 * indeksy (liczone od 0) na liście źródłowej. Lista źródłowa przechodzona
+	 * jest jednokrotnie – ten sam indeks służy walidacji i budowie bloków.
+	 */
+	int[] wyszukajWybrane(List<T> wszystkie, List<T> wybrane) throws PrzesuwanieBrakElementuException {
+
+		if (kluczElementu != null) {
+			return PrzesuwanieWejscie.indeksyWgKlucza(wszystkie, wybrane, kluczElementu);
 		}
 
-		List<PrzesuwanieIndeksyBlok> blokiWybranych = PrzesuwanieWejscie.zbudujBlokiWybranych(wszystkie, wybrane);
+		if (wyszukiwanieWgTozsamosci) {
+			return PrzesuwanieWejscie.indeksyWgTozsamosci(wszystkie, wybrane);
+		}
+
+		return PrzesuwanieWejscie.indeksyWgEquals(wszystkie, wybrane);
+	}
+
+	private boolean czyDoPrzesunieciaDojdzieDlaBlokow(int rozmiarListy, List<PrzesuwanieIndeksyBlok> blokiWybranych,
+			int przesuniecie) {
+
+		int rzeczywistePrzesuniecie = PrzesuwanieWejscie.obliczRzeczywistePrzesuniecie(trybPrzesuwania, przesuniecie,
+				rozmiarListy);
+
+		return PrzesuwanieObliczenia.czyDoPrzesunieciaDojdzie(trybPrzesuwania, blokiWybranych, rozmiarListy,
+				rzeczywistePrzesuniecie);
+	}
+
+	private PrzesuwanieWynik<T> wykonaj(List<T> wszystkie, List<PrzesuwanieIndeksyBlok> blokiWybranych,
+			int przesuniecie) {
 
 		int rozmiarListy = wszystkie.size();
 		int rzeczywistePrzesuniecie = PrzesuwanieWejscie.obliczRzeczywistePrzesuniecie(trybPrzesuwania, przesuniecie,
 				rozmiarListy);
 
-		return PrzesuwanieObliczenia.wykonaj(trybPrzesuwania, wszystkie, blokiWybranych, rzeczywistePrzesuniecie);
+		if (wynikJakoWidok) {
+			return PrzesuwanieWynik.widok(wszystkie, PrzesuwanieObliczenia.wykonajPlan(trybPrzesuwania,
+					blokiWybranych, rozmiarListy, rzeczywistePrzesuniecie, PrzesuwanieObszarRoboczy.dlaBiezacegoWatku()));
+		}
+
+		return PrzesuwanieObliczenia.wykonaj(trybPrzesuwania, wszystkie, blokiWybranych, rzeczywistePrzesuniecie,
+				pulaDla(rozmiarListy), PrzesuwanieObszarRoboczy.dlaBiezacegoWatku());
+	}
+
+	private PrzesuwanieWynik<T> wynikPusty(List<T> wszystkie) {
+		return wynikJakoWidok ? PrzesuwanieWynik.widok(wszystkie, new PrzesuwaniePlan())
+				: PrzesuwanieWynik.getInstancePusty(wszystkie);
+	}
+
+	/**
+	 * Zwraca pulę wątków, jeśli dla listy o podanym rozmiarze obliczenia mają być
+	 * wykonywane wielowątkowo, w przeciwnym razie null.
+	 */
+	private ForkJoinPool pulaDla(int rozmiarListy) {
+		return pulaWatkow != null && rozmiarListy >= progRownoleglosci ? pulaWatkow : null;
+	}
+
+	private PrzesuwaniePlan przesunBlokiWMiejscu(List<T> wszystkie, List<PrzesuwanieIndeksyBlok> blokiWybranych,
+			int przesuniecie) {
+
+		int rzeczywistePrzesuniecie = PrzesuwanieWejscie.obliczRzeczywistePrzesuniecie(trybPrzesuwania, przesuniecie,
+				wszystkie.size());
+
+		return PrzesuwanieObliczenia.przesunWMiejscu(trybPrzesuwania, wszystkie, blokiWybranych,
+				rzeczywistePrzesuniecie, PrzesuwanieObszarRoboczy.dlaBiezacegoWatku());
 	}
 
 }
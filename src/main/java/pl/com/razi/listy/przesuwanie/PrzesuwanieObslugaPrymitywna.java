@@ -0,0 +1,246 @@
+package pl.com.razi.listy.przesuwanie;
+
+import java.util.List;
+import java.util.function.IntToLongFunction;
+
+import pl.com.razi.listy.przesuwanie.PrzesuwanieObsluga.TrybPrzesuwania;
+import pl.com.razi.listy.przesuwanie.model.PrzesuwanieIndeksyBlok;
+import pl.com.razi.listy.przesuwanie.wyjatki.PrzesuwanieBrakElementuException;
+import pl.com.razi.listy.przesuwanie.wynik.PrzesuwaniePlan;
+import pl.com.razi.listy.przesuwanie.wynik.PrzesuwanieWynikInt;
+import pl.com.razi.listy.przesuwanie.wynik.PrzesuwanieWynikLong;
+
+/**
+ * Odpowiednik {@link PrzesuwanieObsluga} dla tablic identyfikatorów typu
+ * {@code int} i {@code long}, np. kluczy głównych wczytanych z bazy danych.
+ * <p>
+ * Żadna z operacji nie opakowuje elementów – walidacja i wyszukiwanie pozycji
+ * elementów wybranych odbywa się w mapie z adresowaniem otwartym opartej o
+ * tablice proste, a wynikowa tablica budowana jest przez kopiowanie zakresów
+ * planu. Tryby przesuwania oraz zwracany {@link PrzesuwaniePlan} są takie same
+ * jak w {@link PrzesuwanieObsluga}.
+ * </p>
+ * <p>
+ * Powtórzenia wartości obsługiwane są jak powtórzenia elementów w
+ * {@link PrzesuwanieObsluga} – kolejne powtórzenia wartości wybranej wskazują
+ * kolejne wystąpienia tej wartości w tablicy wszystkich.
+ * </p>
+ *
+ * <h3>Wyjątki</h3> Wszystkie metody mogą rzucać:
+ * <ul>
+ * <li>{@link PrzesuwanieBrakElementuException} – gdy którakolwiek wartość z
+ * tablicy wybranych nie występuje w tablicy wszystkich.</li>
+ * </ul>
+ */
+public class PrzesuwanieObslugaPrymitywna {
+
+	private TrybPrzesuwania trybPrzesuwania;
+
+	private PrzesuwanieObslugaPrymitywna(Builder builder) {
+		this.trybPrzesuwania = builder.trybPrzesuwania;
+	}
+
+	// ====================================================================
+	// ========================= BUILDER ==================================
+	// ====================================================================
+
+	public static class Builder {
+
+		private TrybPrzesuwania trybPrzesuwania = TrybPrzesuwania.LINIOWE;
+
+		public Builder trybPrzesuwania(TrybPrzesuwania trybPrzesuwania) {
+			this.trybPrzesuwania = trybPrzesuwania;
+			return this;
+		}
+
+		public PrzesuwanieObslugaPrymitywna build() {
+			return new PrzesuwanieObslugaPrymitywna(this);
+		}
+
+	}
+
+	// ====================================================================
+	// ========================= SETTERY ==================================
+	// ====================================================================
+
+	/**
+	 * Zmienia bieżący tryb przesuwania dla wszystkich kolejnych operacji.
+	 */
+	public void ustawTrybPrzesuwania(TrybPrzesuwania trybPrzesuwania) {
+		this.trybPrzesuwania = trybPrzesuwania;
+	}
+
+	// ====================================================================
+	// ========================= API ======================================
+	// ====================================================================
+
+	/**
+	 * Sprawdza, czy przesunięcie jest możliwe dla zestawu parametrów samego
+	 * przesunięcia.
+	 *
+	 * @param wszystkie    Tablica źródłowa, na której wykonywana jest operacja.
+	 * @param wybrane      Wartości, które podlegają przesunięciu.
+	 * @param przesuniecie Wartość przesunięcia (ujemna - w górę, dodatnia - w dół).
+	 * @return Zwraca <b>true</b> w przypadku, gdy aktualnym trybie działania
+	 *         możliwe będzie wykonanie przesunięcia.
+	 * @throws PrzesuwanieBrakElementuException Jeżeli którejkolwiek wartości
+	 *                                          wybranej nie ma w tablicy
+	 *                                          wszystkich.
+	 */
+	public boolean czyDoPrzesunieciaDojdzie(int[] wszystkie, int[] wybrane, int przesuniecie)
+			throws PrzesuwanieBrakElementuException {
+
+		int[] indeksyWybranych = indeksyWybranych(wszystkie, wybrane);
+
+		return czyDoPrzesunieciaDojdzieDlaIndeksow(wszystkie == null ? 0 : wszystkie.length, indeksyWybranych,
+				przesuniecie);
+	}
+
+	/**
+	 * Wariant {@link #czyDoPrzesunieciaDojdzie(int[], int[], int)} dla wartości
+	 * typu {@code long}.
+	 *
+	 * @throws PrzesuwanieBrakElementuException Jeżeli którejkolwiek wartości
+	 *                                          wybranej nie ma w tablicy
+	 *                                          wszystkich.
+	 */
+	public boolean czyDoPrzesunieciaDojdzie(long[] wszystkie, long[] wybrane, int przesuniecie)
+			throws PrzesuwanieBrakElementuException {
+
+		int[] indeksyWybranych = indeksyWybranych(wszystkie, wybrane);
+
+		return czyDoPrzesunieciaDojdzieDlaIndeksow(wszystkie == null ? 0 : wszystkie.length, indeksyWybranych,
+				przesuniecie);
+	}
+
+	/**
+	 * Przesuwa wartości o przekazaną wartość przesunięcia w obrębie tablicy.
+	 * Ujemna wartość przesunięcia oznacza kierunek w górę. Tablica wejściowa nie
+	 * jest zmieniana.
+	 *
+	 * @param wszystkie    Tablica źródłowa, na której wykonywana jest operacja.
+	 * @param wybrane      Wartości, które podlegają przesunięciu.
+	 * @param przesuniecie Wartość przesunięcia. Znak oznacza kierunek.
+	 * @return Nowa tablica po przesunięciu wraz z metadanymi przesunięcia.
+	 * @throws PrzesuwanieBrakElementuException Jeżeli którejkolwiek wartości
+	 *                                          wybranej nie ma w tablicy
+	 *                                          wszystkich.
+	 */
+	public PrzesuwanieWynikInt przesunPelny(int[] wszystkie, int[] wybrane, int przesuniecie)
+			throws PrzesuwanieBrakElementuException {
+
+		int[] indeksyWybranych = indeksyWybranych(wszystkie, wybrane);
+
+		if (wszystkie == null) {
+			return PrzesuwanieWynikInt.getInstancePusty(new int[0]);
+		}
+
+		PrzesuwaniePlan plan = wyznaczPlan(wszystkie.length, indeksyWybranych, przesuniecie);
+		int[] wynik = wszystkie.clone();
+
+		PrzesuwanieObliczenia.przepiszWgPlanu(wszystkie, wynik, plan);
+
+		return new PrzesuwanieWynikInt(wynik, plan);
+	}
+
+	/**
+	 * Wariant {@link #przesunPelny(int[], int[], int)} dla wartości typu
+	 * {@code long}.
+	 *
+	 * @throws PrzesuwanieBrakElementuException Jeżeli którejkolwiek wartości
+	 *                                          wybranej nie ma w tablicy
+	 *                                          wszystkich.
+	 */
+	public PrzesuwanieWynikLong przesunPelny(long[] wszystkie, long[] wybrane, int przesuniecie)
+			throws PrzesuwanieBrakElementuException {
+
+		int[] indeksyWybranych = indeksyWybranych(wszystkie, wybrane);
+
+		if (wszystkie == null) {
+			return PrzesuwanieWynikLong.getInstancePusty(new long[0]);
+		}
+
+		PrzesuwaniePlan plan = wyznaczPlan(wszystkie.length, indeksyWybranych, przesuniecie);
+		long[] wynik = wszystkie.clone();
+
+		PrzesuwanieObliczenia.przepiszWgPlanu(wszystkie, wynik, plan);
+
+		return new PrzesuwanieWynikLong(wynik, plan);
+	}
+
+	// ====================================================================
+	// ========================= WSPÓLNE ==================================
+	// ====================================================================
+
+	/**
+	 * Wyszukuje indeksy (liczone od 0) wartości wybranych w tablicy wszystkich.
+	 * Pełni jednocześnie rolę walidacji – brak którejkolwiek wartości kończy się
+	 * wyjątkiem.
+	 */
+	private static int[] indeksyWybranych(int[] wszystkie, int[] wybrane) throws PrzesuwanieBrakElementuException {
+		return indeksyWybranych(wszystkie == null ? -1 : wszystkie.length, i -> wszystkie[i],
+				wybrane == null ? 0 : wybrane.length, i -> wybrane[i]);
+	}
+
+	private static int[] indeksyWybranych(long[] wszystkie, long[] wybrane) throws PrzesuwanieBrakElementuException {
+		return indeksyWybranych(wszystkie == null ? -1 : wszystkie.length, i -> wszystkie[i],
+				wybrane == null ? 0 : wybrane.length, i -> wybrane[i]);
+	}
+
+	/**
+	 * Wspólna implementacja wyszukiwania dla tablic {@code int} i {@code long} –
+	 * wartości odczytywane są przez akcesory indeksowe, bez kopiowania tablic.
+	 * Ujemna liczba wszystkich oznacza brak tablicy wszystkich.
+	 */
+	private static int[] indeksyWybranych(int liczbaWszystkich, IntToLongFunction wszystkie, int liczbaWybranych,
+			IntToLongFunction wybrane) throws PrzesuwanieBrakElementuException {
+
+		if (liczbaWybranych == 0) {
+			return new int[0];
+		}
+
+		if (liczbaWszystkich < 0) {
+			throw new PrzesuwanieBrakElementuException();
+		}
+
+		int[] indeksy = PrzesuwanieMapaLong.pozycjeWybranych(liczbaWszystkich, wszystkie, liczbaWybranych, wybrane);
+		for (int indeks : indeksy) {
+			if (indeks < 0) {
+				throw new PrzesuwanieBrakElementuException();
+			}
+		}
+
+		return indeksy;
+	}
+
+	private boolean czyDoPrzesunieciaDojdzieDlaIndeksow(int rozmiarListy, int[] indeksyWybranych, int przesuniecie) {
+
+		if (!PrzesuwanieWejscie.czyParametryPrzesuwaniaPoprawne(rozmiarListy, indeksyWybranych.length,
+				przesuniecie)) {
+			return false;
+		}
+
+		int rzeczywistePrzesuniecie = PrzesuwanieWejscie.obliczRzeczywistePrzesuniecie(trybPrzesuwania, przesuniecie,
+				rozmiarListy);
+
+		return PrzesuwanieObliczenia.czyDoPrzesunieciaDojdzie(trybPrzesuwania,
+				PrzesuwanieWejscie.zbudujBlokiZIndeksow(indeksyWybranych), rozmiarListy, rzeczywistePrzesuniecie);
+	}
+
+	private PrzesuwaniePlan wyznaczPlan(int rozmiarListy, int[] indeksyWybranych, int przesuniecie) {
+
+		if (!PrzesuwanieWejscie.czyParametryPrzesuwaniaPoprawne(rozmiarListy, indeksyWybranych.length,
+				przesuniecie)) {
+			return new PrzesuwaniePlan();
+		}
+
+		List<PrzesuwanieIndeksyBlok> blokiWybranych = PrzesuwanieWejscie.zbudujBlokiZIndeksow(indeksyWybranych);
+
+		int rzeczywistePrzesuniecie = PrzesuwanieWejscie.obliczRzeczywistePrzesuniecie(trybPrzesuwania, przesuniecie,
+				rozmiarListy);
+
+		return PrzesuwanieObliczenia.wykonajPlan(trybPrzesuwania, blokiWybranych, rozmiarListy,
+				rzeczywistePrzesuniecie, PrzesuwanieObszarRoboczy.dlaBiezacegoWatku());
+	}
+
+}
@@ -0,0 +1,68 @@
+package pl.com.razi.listy.przesuwanie;
+
+import java.util.Arrays;
+
+/**
+ * Obszar roboczy obliczeń przesunięcia – bufory wielokrotnego użytku,
+ * powiększane tylko wtedy, gdy bieżąca pojemność jest niewystarczająca.
+ * <p>
+ * Przy powtarzanych przesunięciach list podobnej wielkości (np. przytrzymany
+ * klawisz strzałki) obliczenia nie alokują niczego poza samym wynikiem.
+ * <p>
+ * Obszar nie jest bezpieczny wielowątkowo – obsługa przesuwania korzysta z
+ * osobnego obszaru dla każdego wątku ({@link #dlaBiezacegoWatku()}). Bufor
+ * elementów po każdym użyciu jest czyszczony, aby nie przytrzymywać referencji
+ * do elementów list.
+ * <p>
+ * Między wywołaniami zachowywany jest wyłącznie bufor nie większy niż
+ * {@link #MAKS_ZACHOWANY_BUFOR} – większy (dla dużych list) jest po użyciu
+ * porzucany, aby jednorazowe przesunięcie dużej listy nie zajmowało pamięci
+ * przez cały czas życia wątku puli.
+ */
+final class PrzesuwanieObszarRoboczy {
+
+	private static final ThreadLocal<PrzesuwanieObszarRoboczy> OBSZAR_WATKU = ThreadLocal
+			.withInitial(PrzesuwanieObszarRoboczy::new);
+
+	/**
+	 * Największa pojemność bufora elementów zachowywanego między wywołaniami.
+	 */
+	static final int MAKS_ZACHOWANY_BUFOR = 1 << 16;
+
+	private static final Object[] PUSTY_BUFOR = new Object[0];
+
+	final PrzesuwanieOdcinki odcinki = new PrzesuwanieOdcinki();
+
+	private Object[] bufor = PUSTY_BUFOR;
+
+	/**
+	 * Zwraca obszar roboczy przypisany do bieżącego wątku.
+	 */
+	static PrzesuwanieObszarRoboczy dlaBiezacegoWatku() {
+		return OBSZAR_WATKU.get();
+	}
+
+	/**
+	 * Zwraca bufor elementów o pojemności co najmniej {@code pojemnosc}. Po
+	 * użyciu należy wywołać {@link #zwolnijBufor(int)}.
+	 */
+	Object[] bufor(int pojemnosc) {
+		if (bufor.length < pojemnosc) {
+			bufor = new Object[pojemnosc];
+		}
+		return bufor;
+	}
+
+	/**
+	 * Usuwa z bufora referencje do elementów na pierwszych {@code dlugosc}
+	 * pozycjach, a bufor większy niż {@link #MAKS_ZACHOWANY_BUFOR} porzuca.
+	 */
+	void zwolnijBufor(int dlugosc) {
+		if (bufor.length > MAKS_ZACHOWANY_BUFOR) {
+			bufor = PUSTY_BUFOR;
+			return;
+		}
+		Arrays.fill(bufor, 0, Math.min(dlugosc, bufor.length), null);
+	}
+
+}
@@ -0,0 +1,103 @@
+package pl.com.razi.listy.przesuwanie;
+
+import java.util.List;
+
+import pl.com.razi.listy.przesuwanie.PrzesuwanieObsluga.TrybPrzesuwania;
+import pl.com.razi.listy.przesuwanie.model.PrzesuwanieIndeksyBlok;
+
+/**
+ * Rozmieszczenie elementów wybranych po przesunięciu, opisane odcinkami
+ * (LP źródłowe, LP docelowe, długość) w kolejności źródłowej.
+ * <p>
+ * Odcinek odpowiada blokowi wybranych, z wyjątkiem trybu <b>CYKLICZNEGO</b>, w
+ * którym blok przechodzący przez koniec listy dzielony jest na dwa odcinki.
+ * Przesunięcie zachowuje kolejność bloków, a w trybie cyklicznym co najwyżej ją
+ * rotuje – kolejność wg LP docelowych zaczyna się więc od odcinka
+ * {@link #pierwszyWgCelu} i jest dostępna bez sortowania.
+ * <p>
+ * Na tej strukturze opierają się obliczenia, które nie potrzebują permutacji
+ * całej listy – elementy niewybrane zachowują wzajemną kolejność i wypełniają
+ * kolejne wolne zakresy między odcinkami docelowymi.
+ * <p>
+ * Zakłada pełną poprawność danych wejściowych.
+ */
+final class PrzesuwanieOdcinki {
+
+	int[] zrodlo = new int[0];
+	int[] cel = new int[0];
+	int[] dlugosc = new int[0];
+
+	private int[] startyDocelowe = new int[0];
+
+	int liczba;
+	int pierwszyWgCelu;
+
+	/**
+	 * Wyznacza odcinki dla podanych bloków i przesunięcia. Tablice są
+	 * powiększane tylko wtedy, gdy bieżąca pojemność jest niewystarczająca.
+	 */
+	PrzesuwanieOdcinki wyznacz(final TrybPrzesuwania trybPrzesuwania,
+			final List<PrzesuwanieIndeksyBlok> blokiWybranych, final int rozmiarListy, final int przesuniecie) {
+
+		if (startyDocelowe.length < blokiWybranych.size()) {
+			startyDocelowe = new int[blokiWybranych.size()];
+		}
+
+		PrzesuwanieObliczenia.obliczStartyDocelowe(trybPrzesuwania, blokiWybranych, rozmiarListy, przesuniecie,
+				startyDocelowe);
+
+		zapewnijPojemnosc(2 * blokiWybranych.size());
+
+		liczba = 0;
+
+		for (int i = 0; i < blokiWybranych.size(); i++) {
+
+			final PrzesuwanieIndeksyBlok blok = blokiWybranych.get(i);
+			final int dlugoscBloku = blok.end - blok.start + 1;
+			final int celBloku = startyDocelowe[i];
+			final int doKonca = rozmiarListy - celBloku + 1;
+
+			if (trybPrzesuwania == TrybPrzesuwania.CYKLICZNE && dlugoscBloku > doKonca) {
+				dodaj(blok.start, celBloku, doKonca);
+				dodaj(blok.start + doKonca, 1, dlugoscBloku - doKonca);
+			} else {
+				dodaj(blok.start, celBloku, dlugoscBloku);
+			}
+		}
+
+		pierwszyWgCelu = 0;
+		for (int i = 1; i < liczba; i++) {
+			if (cel[i] < cel[i - 1]) {
+				pierwszyWgCelu = i;
+				break;
+			}
+		}
+
+		return this;
+	}
+
+	/**
+	 * Zwraca indeks odcinka, który w kolejności LP docelowych zajmuje pozycję
+	 * {@code k}.
+	 */
+	int wgCelu(int k) {
+		final int j = pierwszyWgCelu + k;
+		return j < liczba ? j : j - liczba;
+	}
+
+	private void dodaj(int lpZrodlo, int lpCel, int dlugoscOdcinka) {
+		zrodlo[liczba] = lpZrodlo;
+		cel[liczba] = lpCel;
+		dlugosc[liczba] = dlugoscOdcinka;
+		liczba++;
+	}
+
+	private void zapewnijPojemnosc(int pojemnosc) {
+		if (zrodlo.length < pojemnosc) {
+			zrodlo = new int[pojemnosc];
+			cel = new int[pojemnosc];
+			dlugosc = new int[pojemnosc];
+		}
+	}
+
+}
@@ -0,0 +1,249 @@
+package pl.com.razi.listy.przesuwanie;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import pl.com.razi.listy.przesuwanie.PrzesuwanieObsluga.TrybPrzesuwania;
+import pl.com.razi.listy.przesuwanie.model.PrzesuwanieIndeksyBlok;
+import pl.com.razi.listy.przesuwanie.wyjatki.PrzesuwanieBrakElementuException;
+import pl.com.razi.listy.przesuwanie.wynik.PrzesuwaniePlan;
+
+/**
+ * Sesja edycji kolejności listy – przechowuje bieżący porządek elementów oraz
+ * zaznaczenie pomiędzy kolejnymi przesunięciami.
+ * <p>
+ * Przeznaczona dla interfejsu użytkownika, w którym każde naciśnięcie
+ * klawisza przesuwa to samo zaznaczenie. Zamiast przekazywać za każdym razem
+ * całą listę i elementy wybrane (walidacja, wyszukanie, budowa bloków,
+ * przebudowa listy), sesja:
+ * <ul>
+ * <li>wyszukuje elementy wybrane tylko przy zmianie zaznaczenia
+ * ({@link #zaznacz(List)}),</li>
+ * <li>przesuwa elementy we własnej liście w miejscu,</li>
+ * <li>po przesunięciu wyznacza nowe bloki zaznaczenia z ich pozycji docelowych –
+ * koszt zależy od liczby bloków, a nie od rozmiaru listy,</li>
+ * <li>składa plany kolejnych przesunięć w jeden oczekujący plan, zawierający
+ * wyłącznie wiersze, których LP zmieniło się per saldo od ostatniego
+ * {@link #zatwierdz()}.</li>
+ * </ul>
+ * Dziesięć naciśnięć strzałki daje więc jeden zapis do bazy danych.
+ * <p>
+ * Sesję tworzy {@link PrzesuwanieObsluga#otworzSesje(List)} – tryb
+ * przesuwania i sposób wyszukiwania elementów pochodzą z obsługi (zmiana trybu
+ * w obsłudze dotyczy kolejnych przesunięć w sesji). Sesja nie jest bezpieczna
+ * wielowątkowo.
+ *
+ * @param <T> typ elementów listy
+ */
+public class PrzesuwanieSesja<T> {
+
+	private final PrzesuwanieObsluga<T> obsluga;
+	private final List<T> lista;
+	private final List<T> listaTylkoDoOdczytu;
+
+	private List<PrzesuwanieIndeksyBlok> blokiWybranych = Collections.emptyList();
+	private int liczbaWybranych;
+
+	private PrzesuwaniePlan oczekujacyPlan = new PrzesuwaniePlan();
+
+	PrzesuwanieSesja(PrzesuwanieObsluga<T> obsluga, List<T> wszystkie) {
+		this.obsluga = obsluga;
+		this.lista = new ArrayList<>(wszystkie);
+		this.listaTylkoDoOdczytu = Collections.unmodifiableList(lista);
+	}
+
+	// ====================================================================
+	// ========================= ZAZNACZENIE ==============================
+	// ====================================================================
+
+	/**
+	 * Ustawia zaznaczenie. Elementy wyszukiwane są w bieżącej kolejności sesji
+	 * zgodnie ze sposobem wyszukiwania obsługi.
+	 *
+	 * @throws PrzesuwanieBrakElementuException Jeżeli któregokolwiek elementu
+	 *                                          wybranego nie ma w sesji.
+	 */
+	public void zaznacz(List<T> wybrane) throws PrzesuwanieBrakElementuException {
+		ustawZaznaczenie(obsluga.wyszukajWybrane(lista, wybrane));
+	}
+
+	/**
+	 * Ustawia zaznaczenie wskazane indeksami wierszy (liczonymi od 0) w bieżącej
+	 * kolejności sesji.
+	 *
+	 * @throws PrzesuwanieBrakElementuException Jeżeli którykolwiek indeks wykracza
+	 *                                          poza listę.
+	 */
+	public void zaznacz(int[] indeksyWybranych) throws PrzesuwanieBrakElementuException {
+		PrzesuwanieWejscie.walidacjaIndeksow(lista.size(), indeksyWybranych);
+		ustawZaznaczenie(indeksyWybranych == null ? new int[0] : indeksyWybranych);
+	}
+
+	/**
+	 * Zwraca bloki zaznaczenia (LP liczone od 1) w bieżącej kolejności sesji.
+	 */
+	public List<PrzesuwanieIndeksyBlok> getBlokiWybranych() {
+		return Collections.unmodifiableList(blokiWybranych);
+	}
+
+	/**
+	 * Zwraca indeksy (liczone od 0) zaznaczonych wierszy w bieżącej kolejności
+	 * sesji, rosnąco.
+	 */
+	public int[] getIndeksyWybranych() {
+		int[] indeksy = new int[liczbaWybranych];
+		int i = 0;
+		for (PrzesuwanieIndeksyBlok blok : blokiWybranych) {
+			for (int lp = blok.start; lp <= blok.end; lp++) {
+				indeksy[i++] = lp - 1;
+			}
+		}
+		return indeksy;
+	}
+
+	/**
+	 * Zwraca zaznaczone elementy w bieżącej kolejności sesji.
+	 */
+	public List<T> getWybrane() {
+		List<T> wybrane = new ArrayList<>(liczbaWybranych);
+		for (PrzesuwanieIndeksyBlok blok : blokiWybranych) {
+			wybrane.addAll(lista.subList(blok.start - 1, blok.end));
+		}
+		return wybrane;
+	}
+
+	// ====================================================================
+	// ========================= PRZESUWANIE ==============================
+	// ====================================================================
+
+	/**
+	 * Sprawdza, czy przesunięcie zaznaczenia o podaną wartość zmieni kolejność.
+	 */
+	public boolean czyDoPrzesunieciaDojdzie(int przesuniecie) {
+
+		if (!PrzesuwanieWejscie.czyParametryPrzesuwaniaPoprawne(lista.size(), liczbaWybranych, przesuniecie)) {
+			return false;
+		}
+
+		final TrybPrzesuwania tryb = obsluga.getTrybPrzesuwania();
+
+		return PrzesuwanieObliczenia.czyDoPrzesunieciaDojdzie(tryb, blokiWybranych, lista.size(),
+				PrzesuwanieWejscie.obliczRzeczywistePrzesuniecie(tryb, przesuniecie, lista.size()));
+	}
+
+	/**
+	 * Przesuwa zaznaczenie o podaną wartość (ujemna – w górę, dodatnia – w dół).
+	 * Zaznaczenie podąża za przesuniętymi elementami, a plan przesunięcia jest
+	 * składany z oczekującym planem sesji.
+	 *
+	 * @return Plan tego przesunięcia (pusty, jeśli nic się nie zmieniło).
+	 */
+	public PrzesuwaniePlan przesun(int przesuniecie) {
+
+		if (!PrzesuwanieWejscie.czyParametryPrzesuwaniaPoprawne(lista.size(), liczbaWybranych, przesuniecie)) {
+			return new PrzesuwaniePlan();
+		}
+
+		final TrybPrzesuwania tryb = obsluga.getTrybPrzesuwania();
+		final PrzesuwanieObszarRoboczy obszar = PrzesuwanieObszarRoboczy.dlaBiezacegoWatku();
+
+		final PrzesuwaniePlan plan = PrzesuwanieObliczenia.przesunWMiejscu(tryb, lista, blokiWybranych,
+				PrzesuwanieWejscie.obliczRzeczywistePrzesuniecie(tryb, przesuniecie, lista.size()), obszar);
+
+		if (plan.czyPusty()) {
+			return plan;
+		}
+
+		blokiWybranych = blokiDocelowe(obszar.odcinki);
+		oczekujacyPlan = PrzesuwaniePlan.zloz(oczekujacyPlan, plan);
+
+		return plan;
+	}
+
+	/**
+	 * Zwraca bieżącą kolejność elementów (widok tylko do odczytu).
+	 */
+	public List<T> getLista() {
+		return listaTylkoDoOdczytu;
+	}
+
+	// ====================================================================
+	// ========================= OCZEKUJĄCY PLAN ==========================
+	// ====================================================================
+
+	/**
+	 * Zwraca plan złożony ze wszystkich przesunięć od utworzenia sesji lub
+	 * ostatniego {@link #zatwierdz()} – względem kolejności z tamtej chwili. Plan
+	 * nie powinien być modyfikowany.
+	 */
+	public PrzesuwaniePlan getOczekujacyPlan() {
+		return oczekujacyPlan;
+	}
+
+	/**
+	 * Określa, czy od ostatniego zatwierdzenia kolejność zmieniła się per saldo.
+	 */
+	public boolean czySaOczekujaceZmiany() {
+		return !oczekujacyPlan.czyPusty();
+	}
+
+	/**
+	 * Zwraca oczekujący plan (np. do zapisania w bazie danych) i rozpoczyna
+	 * zbieranie nowego.
+	 */
+	public PrzesuwaniePlan zatwierdz() {
+		PrzesuwaniePlan plan = oczekujacyPlan;
+		oczekujacyPlan = new PrzesuwaniePlan();
+		return plan;
+	}
+
+	// ====================================================================
+	// ========================= POMOCNICZE ===============================
+	// ====================================================================
+
+	private void ustawZaznaczenie(int[] indeksyWybranych) {
+		blokiWybranych = PrzesuwanieWejscie.zbudujBlokiZIndeksow(indeksyWybranych);
+		liczbaWybranych = 0;
+		for (PrzesuwanieIndeksyBlok blok : blokiWybranych) {
+			liczbaWybranych += blok.end - blok.start + 1;
+		}
+	}
+
+	/**
+	 * Buduje bloki zaznaczenia po przesunięciu z odcinków docelowych – w
+	 * kolejności LP docelowych, łącząc odcinki stykające się ze sobą (np.
+	 * dociśnięte do krawędzi listy).
+	 */
+	private static List<PrzesuwanieIndeksyBlok> blokiDocelowe(PrzesuwanieOdcinki odcinki) {
+
+		final List<PrzesuwanieIndeksyBlok> bloki = new ArrayList<>(odcinki.liczba);
+
+		int start = 0;
+		int koniec = -1;
+
+		for (int k = 0; k < odcinki.liczba; k++) {
+
+			final int i = odcinki.wgCelu(k);
+
+			if (koniec >= start && odcinki.cel[i] == koniec + 1) {
+				koniec += odcinki.dlugosc[i];
+				continue;
+			}
+
+			if (koniec >= start) {
+				bloki.add(new PrzesuwanieIndeksyBlok(start, koniec));
+			}
+
+			start = odcinki.cel[i];
+			koniec = start + odcinki.dlugosc[i] - 1;
+		}
+
+		if (koniec >= start) {
+			bloki.add(new PrzesuwanieIndeksyBlok(start, koniec));
+		}
+
+		return bloki;
+	}
+
+}
@@ -1,10 +1,15 @@
 package pl.com.razi.listy.przesuwanie;
 
 import java.util.ArrayList;
-import java.util.HashSet;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.List;
-import java.util.Objects;
-import java.util.Set;
+import java.util.ListIterator;
+import java.util.Map;
+import java.util.RandomAccess;
+import java.util.function.ToLongFunction;
 
 import pl.com.razi.listy.przesuwanie.PrzesuwanieObsluga.TrybPrzesuwania;
 import pl.com.razi.listy.przesuwanie.model.PrzesuwanieIndeksyBlok;
@@ -21,14 +26,22 @@ import pl.com.razi.listy.przesuwanie.wyjatki.PrzesuwanieBrakElementuException;
  * <li>sprawdzenie istnienia elementów wybranych w liście źródłowej,</li>
  * <li>obliczenie rzeczywistej wartości przesunięcia (np. w trybie
  * cyklicznym),</li>
- * <li>zbudowanie ciągłych bloków indeksów na podstawie kolejności występowania
- * elementów na liście.</li>
+ * <li>zbudowanie ciągłych bloków indeksów na podstawie pozycji elementów na
+ * liście, niezależnie od kolejności elementów wybranych,</li>
+ * <li>wyszukanie indeksów elementów wybranych wg tożsamości obiektów lub wg
+ * klucza liczbowego, bez wywołań {@code equals()}/{@code hashCode()},</li>
+ * <li>zbudowanie bloków bezpośrednio z indeksów wierszy (np. z
+ * {@code JTable.getSelectedRows()}), bez wyszukiwania elementów,</li>
+ * <li>weryfikację i normalizację zakresów LP przekazanych bez listy
+ * elementów.</li>
  * </ul>
  * Klasa jest wyłącznie pomocnicza i nie powinna być używana bezpośrednio poza
  * mechanizmem przesuwania.
  */
 class PrzesuwanieWejscie {
 
+	private static final int BRAK = -1;
+
 	private PrzesuwanieWejscie() {
 		throw new AssertionError();
 	}
@@ -39,24 +52,11 @@ class PrzesuwanieWejscie {
 	 * Jeśli lista wybranych jest pusta lub null – walidacja przechodzi pozytywnie.
 	 * W przeciwnym wypadku metoda sprawdza, czy każdy element wybrany znajduje się
 	 * w liście źródłowej, jeśli nie – rzucany jest wyjątek.
+	 * <p>
+	 * Sprawdzenie wykonywane jest przez {@link #indeksyWgEquals(List, List)}.
 	 */
 	public static <T> void walidacjaDanych(List<T> wszystkie, List<T> wybrane) throws PrzesuwanieBrakElementuException {
-
-		if (wybrane == null || wybrane.isEmpty()) {
-			return;
-		}
-
-		if (wszystkie == null) {
-			throw new PrzesuwanieBrakElementuException();
-		}
-
-		Set<T> zbior = new HashSet<>(wszystkie);
-
-		for (T element : wybrane) {
-			if (!zbior.contains(element)) {
-				throw new PrzesuwanieBrakElementuException();
-			}
-		}
+		indeksyWgEquals(wszystkie, wybrane);
 	}
 
 	/**
@@ -71,10 +71,19 @@ class PrzesuwanieWejscie {
 	 * </ul>
 	 */
 	public static <T> boolean czyParametryPrzesuwaniaPoprawne(List<T> wszystkie, List<T> wybrane, int przesuniecie) {
-		if (wszystkie == null || wszystkie.isEmpty()) {
+		return czyParametryPrzesuwaniaPoprawne(wszystkie == null ? 0 : wszystkie.size(),
+				wybrane == null ? 0 : wybrane.size(), przesuniecie);
+	}
+
+	/**
+	 * Wariant {@link #czyParametryPrzesuwaniaPoprawne(List, List, int)}
+	 * operujący wyłącznie na liczebnościach list.
+	 */
+	public static boolean czyParametryPrzesuwaniaPoprawne(int rozmiarListy, int liczbaWybranych, int przesuniecie) {
+		if (rozmiarListy <= 0) {
 			return false;
 		}
-		if (wybrane == null || wybrane.isEmpty()) {
+		if (liczbaWybranych <= 0) {
 			return false;
 		}
 		if (przesuniecie == 0) {
@@ -97,49 +106,208 @@ class PrzesuwanieWejscie {
 
 	/**
 	 * Buduje listę ciągłych bloków indeksów elementów wybranych na podstawie
-	 * kolejności ich występowania w liście źródłowej.
+	 * pozycji, jakie zajmują one w liście źródłowej.
 	 * <p>
-	 * Przeszukiwana jest kolejno lista źródłowa, a każdy odnaleziony element
-	 * dodawany jest do bieżącego bloku, jeśli jego indeks bezpośrednio sąsiaduje z
-	 * poprzednim. W przeciwnym przypadku rozpoczynany jest nowy blok.
+	 * Pozycje wyznaczane są przez {@link #indeksyWgEquals(List, List)}, a bloki
+	 * przez {@link #zbudujBlokiZIndeksow(int[])}, więc kolejność elementów na
+	 * liście wybranych nie ma znaczenia.
 	 * <p>
 	 * Metoda zakłada, że elementy z listy wybranych znajdują się w liście źródłowej
 	 * – ewentualne błędy istnienia powinny być wychwycone wcześniej przez
-	 * walidację.
+	 * walidację. Brak elementu traktowany jest jako błąd wywołania.
 	 */
 	public static <T> List<PrzesuwanieIndeksyBlok> zbudujBlokiWybranych(List<T> wszystkie, List<T> wybrane) {
 
-		List<PrzesuwanieIndeksyBlok> bloki = new ArrayList<>();
-
 		if (wszystkie == null || wybrane == null || wszystkie.isEmpty() || wybrane.isEmpty()) {
-			return bloki;
+			return new ArrayList<>();
+		}
+
+		try {
+			return zbudujBlokiZIndeksow(indeksyWgEquals(wszystkie, wybrane));
+		} catch (PrzesuwanieBrakElementuException e) {
+			throw new IllegalArgumentException(e.getMessage(), e);
 		}
+	}
 
-		int startWyszukiwania = 0;
+	// ====================================================================
+	// ==================== WYSZUKIWANIE WYBRANYCH ========================
+	// ====================================================================
 
-		int startBloku = -1;
-		int poprzedni = -1;
+	/**
+	 * Wyszukuje indeksy (liczone od 0) elementów wybranych na liście źródłowej wg
+	 * {@code equals()}/{@code hashCode()}.
+	 * <p>
+	 * Łączy walidację z wyszukiwaniem: lista źródłowa indeksowana jest jednym
+	 * przejściem, po czym każdy element wybrany jest w tym indeksie odnajdywany –
+	 * jeśli któregokolwiek brakuje, rzucany jest wyjątek. Kolejność elementów
+	 * wybranych jest dowolna.
+	 * <p>
+	 * Przy powtórzeniach na liście źródłowej kolejne wybrane elementy równe sobie
+	 * wskazują kolejne wystąpienia – tak jak przy przeszukiwaniu listy od miejsca
+	 * poprzedniego trafienia.
+	 */
+	public static <T> int[] indeksyWgEquals(List<T> wszystkie, List<T> wybrane)
+			throws PrzesuwanieBrakElementuException {
 
-		for (T elem : wybrane) {
+		if (wybrane == null || wybrane.isEmpty()) {
+			return new int[0];
+		}
 
-			int idx = -1;
-			for (int i = startWyszukiwania; i < wszystkie.size(); i++) {
-				if (Objects.equals(wszystkie.get(i), elem)) {
-					idx = i;
-					startWyszukiwania = i + 1;
-					break;
-				}
+		if (wszystkie == null) {
+			throw new PrzesuwanieBrakElementuException();
+		}
+
+		int[] indeksy = pozycjeWybranych(
+				new HashMap<>(Math.max(16, (int) (wszystkie.size() / 0.75f) + 1)), wszystkie, wybrane);
+
+		for (int indeks : indeksy) {
+			if (indeks == BRAK) {
+				throw new PrzesuwanieBrakElementuException();
 			}
+		}
 
-			int lp = idx + 1;
+		return indeksy;
+	}
 
-			if (startBloku == -1) {
-				startBloku = lp;
-				poprzedni = lp;
-				continue;
+	/**
+	 * Wyszukuje indeksy (liczone od 0) elementów wybranych na liście źródłowej,
+	 * porównując elementy wyłącznie wg tożsamości ({@code ==}), jak
+	 * {@link IdentityHashMap}.
+	 * <p>
+	 * Pełni jednocześnie rolę walidacji – jeśli któregokolwiek elementu nie ma na
+	 * liście, rzucany jest wyjątek. Powtórzenia obsługiwane są jak w
+	 * {@link #indeksyWgEquals(List, List)}.
+	 */
+	public static <T> int[] indeksyWgTozsamosci(List<T> wszystkie, List<T> wybrane)
+			throws PrzesuwanieBrakElementuException {
+
+		if (wybrane == null || wybrane.isEmpty()) {
+			return new int[0];
+		}
+
+		if (wszystkie == null) {
+			throw new PrzesuwanieBrakElementuException();
+		}
+
+		int[] indeksy = pozycjeWybranych(new IdentityHashMap<>(wszystkie.size()), wszystkie, wybrane);
+
+		for (int indeks : indeksy) {
+			if (indeks == BRAK) {
+				throw new PrzesuwanieBrakElementuException();
+			}
+		}
+
+		return indeksy;
+	}
+
+	/**
+	 * Wyszukuje indeksy (liczone od 0) elementów wybranych na liście źródłowej,
+	 * porównując klucze liczbowe wyznaczone przez {@code klucz} (np. identyfikator
+	 * encji). Klucze przechowywane są w {@link PrzesuwanieMapaLong}, więc
+	 * wyszukiwanie nie wywołuje {@code equals()}/{@code hashCode()} na elementach.
+	 * <p>
+	 * Pełni jednocześnie rolę walidacji – jeśli klucza któregokolwiek elementu nie
+	 * ma na liście, rzucany jest wyjątek. Powtórzenia klucza obsługiwane są jak
+	 * powtórzenia elementów w {@link #indeksyWgEquals(List, List)}.
+	 */
+	public static <T> int[] indeksyWgKlucza(List<T> wszystkie, List<T> wybrane, ToLongFunction<? super T> klucz)
+			throws PrzesuwanieBrakElementuException {
+
+		if (wybrane == null || wybrane.isEmpty()) {
+			return new int[0];
+		}
+
+		if (wszystkie == null) {
+			throw new PrzesuwanieBrakElementuException();
+		}
+
+		long[] kluczeWszystkich = kluczeElementow(wszystkie, klucz);
+		long[] kluczeWybranych = kluczeElementow(wybrane, klucz);
+
+		int[] indeksy = PrzesuwanieMapaLong.pozycjeWybranych(kluczeWszystkich.length, i -> kluczeWszystkich[i],
+				kluczeWybranych.length, i -> kluczeWybranych[i]);
+
+		for (int indeks : indeksy) {
+			if (indeks == BRAK) {
+				throw new PrzesuwanieBrakElementuException();
+			}
+		}
+
+		return indeksy;
+	}
+
+	// ====================================================================
+	// ====================== WYBÓR PO INDEKSACH ==========================
+	// ====================================================================
+
+	/**
+	 * Weryfikuje, czy wszystkie indeksy wybranych wierszy (liczone od 0) mieszczą
+	 * się w zakresie listy o podanym rozmiarze.
+	 * <p>
+	 * Jeśli tablica indeksów jest pusta lub null – walidacja przechodzi
+	 * pozytywnie.
+	 */
+	public static void walidacjaIndeksow(int rozmiarListy, int[] indeksy) throws PrzesuwanieBrakElementuException {
+
+		if (indeksy == null) {
+			return;
+		}
+
+		for (int indeks : indeksy) {
+			if (indeks < 0 || indeks >= rozmiarListy) {
+				throw new PrzesuwanieBrakElementuException();
+			}
+		}
+	}
+
+	/**
+	 * Weryfikuje, czy wszystkie ustawione bity (indeksy wierszy liczone od 0)
+	 * mieszczą się w zakresie listy o podanym rozmiarze.
+	 */
+	public static void walidacjaIndeksow(int rozmiarListy, BitSet indeksy) throws PrzesuwanieBrakElementuException {
+
+		if (indeksy == null) {
+			return;
+		}
+
+		if (indeksy.length() > rozmiarListy) {
+			throw new PrzesuwanieBrakElementuException();
+		}
+	}
+
+	/**
+	 * Buduje listę ciągłych bloków (LP liczone od 1) bezpośrednio z indeksów
+	 * wybranych wierszy (liczonych od 0).
+	 * <p>
+	 * Indeksy nie muszą być posortowane – w takim przypadku są one oznaczane w
+	 * zbiorze bitów (sortowanie przez zliczanie, liniowe względem największego
+	 * indeksu), z którego bloki odczytywane są przez
+	 * {@link #zbudujBlokiZIndeksow(BitSet)}. Powtórzenia są pomijane. Metoda nie
+	 * odwołuje się do elementów listy, więc nie wywołuje {@code equals()} ani
+	 * {@code hashCode()}.
+	 */
+	public static List<PrzesuwanieIndeksyBlok> zbudujBlokiZIndeksow(int[] indeksy) {
+
+		List<PrzesuwanieIndeksyBlok> bloki = new ArrayList<>();
+
+		if (indeksy == null || indeksy.length == 0) {
+			return bloki;
+		}
+
+		for (int i = 1; i < indeksy.length; i++) {
+			if (indeksy[i] < indeksy[i - 1]) {
+				return zbudujBlokiZIndeksow(oznaczIndeksy(indeksy));
 			}
+		}
+
+		int startBloku = indeksy[0] + 1;
+		int poprzedni = startBloku;
+
+		for (int i = 1; i < indeksy.length; i++) {
 
-			if (lp == poprzedni + 1) {
+			int lp = indeksy[i] + 1;
+
+			if (lp == poprzedni || lp == poprzedni + 1) {
 				poprzedni = lp;
 				continue;
 			}
@@ -153,4 +321,184 @@ class PrzesuwanieWejscie {
 		return bloki;
 	}
 
+	/**
+	 * Buduje listę ciągłych bloków (LP liczone od 1) z zestawu bitów, w którym
+	 * ustawiony bit oznacza wybrany wiersz (indeks liczony od 0).
+	 * <p>
+	 * Kolejne bloki wyznaczane są przez {@link BitSet#nextSetBit(int)} i
+	 * {@link BitSet#nextClearBit(int)}, dzięki czemu koszt zależy od liczby
+	 * bloków, a nie od liczby wybranych wierszy.
+	 */
+	public static List<PrzesuwanieIndeksyBlok> zbudujBlokiZIndeksow(BitSet indeksy) {
+
+		List<PrzesuwanieIndeksyBlok> bloki = new ArrayList<>();
+
+		if (indeksy == null) {
+			return bloki;
+		}
+
+		for (int start = indeksy.nextSetBit(0); start >= 0; start = indeksy.nextSetBit(start)) {
+			int koniec = indeksy.nextClearBit(start);
+			bloki.add(new PrzesuwanieIndeksyBlok(start + 1, koniec));
+			start = koniec;
+		}
+
+		return bloki;
+	}
+
+	// ====================================================================
+	// ======================= WYBÓR PO ZAKRESACH LP ======================
+	// ====================================================================
+
+	/**
+	 * Weryfikuje, czy każdy zakres LP (liczonych od 1) jest niepusty i mieści się
+	 * w liście o podanym rozmiarze.
+	 * <p>
+	 * Jeśli lista zakresów jest pusta lub null – walidacja przechodzi pozytywnie.
+	 */
+	public static void walidacjaZakresowLp(int rozmiarListy, List<PrzesuwanieIndeksyBlok> zakresyLp)
+			throws PrzesuwanieBrakElementuException {
+
+		if (zakresyLp == null) {
+			return;
+		}
+
+		for (PrzesuwanieIndeksyBlok zakres : zakresyLp) {
+			if (zakres == null || zakres.start < 1 || zakres.end > rozmiarListy || zakres.start > zakres.end) {
+				throw new PrzesuwanieBrakElementuException();
+			}
+		}
+	}
+
+	/**
+	 * Sprowadza zakresy LP do postaci oczekiwanej przez obliczenia: posortowanych
+	 * rosnąco, rozłącznych i niesąsiadujących bloków.
+	 * <p>
+	 * Jeśli zakresy już spełniają te warunki, zwracana jest lista wejściowa bez
+	 * kopiowania (o ile zapewnia dostęp swobodny – w przeciwnym razie jej kopia).
+	 * W przeciwnym razie sortowana jest kopia, a nachodzące na siebie lub sąsiednie
+	 * zakresy są łączone.
+	 */
+	public static List<PrzesuwanieIndeksyBlok> normalizujZakresyLp(List<PrzesuwanieIndeksyBlok> zakresyLp) {
+
+		if (zakresyLp == null || zakresyLp.isEmpty()) {
+			return new ArrayList<>();
+		}
+
+		boolean znormalizowane = true;
+		PrzesuwanieIndeksyBlok poprzedni = null;
+		for (PrzesuwanieIndeksyBlok zakres : zakresyLp) {
+			if (poprzedni != null && zakres.start <= poprzedni.end + 1) {
+				znormalizowane = false;
+				break;
+			}
+			poprzedni = zakres;
+		}
+
+		if (znormalizowane) {
+			return zakresyLp instanceof RandomAccess ? zakresyLp : new ArrayList<>(zakresyLp);
+		}
+
+		List<PrzesuwanieIndeksyBlok> posortowane = new ArrayList<>(zakresyLp);
+		posortowane.sort(Comparator.comparingInt(b -> b.start));
+
+		List<PrzesuwanieIndeksyBlok> bloki = new ArrayList<>();
+
+		int startBloku = posortowane.get(0).start;
+		int koniecBloku = posortowane.get(0).end;
+
+		for (int i = 1; i < posortowane.size(); i++) {
+
+			PrzesuwanieIndeksyBlok zakres = posortowane.get(i);
+
+			if (zakres.start <= koniecBloku + 1) {
+				koniecBloku = Math.max(koniecBloku, zakres.end);
+				continue;
+			}
+
+			bloki.add(new PrzesuwanieIndeksyBlok(startBloku, koniecBloku));
+			startBloku = zakres.start;
+			koniecBloku = zakres.end;
+		}
+
+		bloki.add(new PrzesuwanieIndeksyBlok(startBloku, koniecBloku));
+
+		return bloki;
+	}
+
+	// ====================================================================
+	// ========================= POMOCNICZE ===============================
+	// ====================================================================
+
+	/**
+	 * Wyznacza pozycje (liczone od 0) elementów wybranych na liście źródłowej przy
+	 * użyciu przekazanej, pustej mapy; brakującym elementom odpowiada
+	 * {@link #BRAK}.
+	 * <p>
+	 * Lista indeksowana jest od końca, więc w mapie zostaje pierwsze wystąpienie
+	 * elementu, a kolejne wystąpienia łączone są w łańcuch. Odnaleziony element
+	 * przesuwa swój wpis w mapie na następne wystąpienie – powtórzony element
+	 * wybrany wskazuje więc kolejne wystąpienie, a po wyczerpaniu łańcucha –
+	 * ostatnie. Łańcuch alokowany jest dopiero przy pierwszym powtórzeniu.
+	 */
+	private static <T> int[] pozycjeWybranych(Map<T, Integer> pozycje, List<T> wszystkie, List<T> wybrane) {
+
+		// następne wystąpienie tego samego elementu (pozycja + 1, 0 – brak)
+		int[] nastepne = null;
+
+		ListIterator<T> iterator = wszystkie.listIterator(wszystkie.size());
+		while (iterator.hasPrevious()) {
+			int i = iterator.previousIndex();
+			Integer poprzednie = pozycje.put(iterator.previous(), i);
+			if (poprzednie != null) {
+				if (nastepne == null) {
+					nastepne = new int[wszystkie.size()];
+				}
+				nastepne[i] = poprzednie + 1;
+			}
+		}
+
+		int[] indeksy = new int[wybrane.size()];
+		int j = 0;
+		for (T element : wybrane) {
+			Integer pozycja = pozycje.get(element);
+			if (pozycja == null) {
+				indeksy[j++] = BRAK;
+				continue;
+			}
+			indeksy[j++] = pozycja;
+			if (nastepne != null && nastepne[pozycja] != 0) {
+				pozycje.put(element, nastepne[pozycja] - 1);
+			}
+		}
+
+		return indeksy;
+	}
+
+	private static <T> long[] kluczeElementow(List<T> elementy, ToLongFunction<? super T> klucz) {
+
+		long[] klucze = new long[elementy.size()];
+		int i = 0;
+		for (T element : elementy) {
+			klucze[i++] = klucz.applyAsLong(element);
+		}
+
+		return klucze;
+	}
+
+	private static BitSet oznaczIndeksy(int[] indeksy) {
+
+		int najwiekszy = 0;
+		for (int indeks : indeksy) {
+			najwiekszy = Math.max(najwiekszy, indeks);
+		}
+
+		BitSet oznaczone = new BitSet(najwiekszy + 1);
+		for (int indeks : indeksy) {
+			oznaczone.set(indeks);
+		}
+
+		return oznaczone;
+	}
+
 }
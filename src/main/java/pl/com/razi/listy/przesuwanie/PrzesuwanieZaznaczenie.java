@@ -0,0 +1,258 @@
+package pl.com.razi.listy.przesuwanie;
+
+import java.util.Collections;
+import java.util.List;
+
+import pl.com.razi.listy.przesuwanie.PrzesuwanieObsluga.TrybPrzesuwania;
+import pl.com.razi.listy.przesuwanie.model.PrzesuwanieIndeksyBlok;
+import pl.com.razi.listy.przesuwanie.wynik.PrzesuwaniePlan;
+import pl.com.razi.listy.przesuwanie.wynik.PrzesuwaniePodglad;
+
+/**
+ * Przygotowane zaznaczenie – odpowiada w czasie stałym, czy przesunięcie o
+ * podaną wartość zmieni kolejność listy.
+ * <p>
+ * Wynik {@code czyDoPrzesunieciaDojdzie} zależy wyłącznie od rozmiaru listy,
+ * liczby bloków zaznaczenia oraz bloku granicznego w kierunku ruchu. Zaznaczenie
+ * jest walidowane i zamieniane na bloki jednokrotnie – przy tworzeniu przez
+ * {@link PrzesuwanieObsluga#przygotujZaznaczenie(List, int[])} – a kolejne
+ * pytania (w górę i w dół, dla dowolnej wartości i dowolnego trybu) nie
+ * odwołują się już do listy. Przeznaczone dla słuchaczy zmiany zaznaczenia w
+ * dużych tabelach, sterujących aktywnością przycisków.
+ * <p>
+ * Z bloków (bez wykonywania przesunięcia i bez listy) wyznaczane są również
+ * największe sensowne przesunięcie w każdą stronę ({@link #getMaksymalnePrzesuniecieWGore()})
+ * – np. do ograniczenia wartości wpisanej przez użytkownika – oraz podgląd
+ * skutków przesunięcia ({@link #podglad(int)}) do oszacowania kosztu
+ * aktualizacji bazy danych.
+ * <p>
+ * Zaznaczenie nie śledzi zmian listy – po przesunięciu lub zmianie zaznaczenia
+ * należy przygotować nowe.
+ */
+public final class PrzesuwanieZaznaczenie {
+
+	private final PrzesuwanieObsluga<?> obsluga;
+
+	private final List<PrzesuwanieIndeksyBlok> blokiWybranych;
+
+	private final int rozmiarListy;
+	private final int liczbaWybranych;
+	private final int liczbaBlokow;
+	private final int startPierwszego;
+	private final int koniecOstatniego;
+
+	PrzesuwanieZaznaczenie(PrzesuwanieObsluga<?> obsluga, int rozmiarListy,
+			List<PrzesuwanieIndeksyBlok> blokiWybranych) {
+
+		this.obsluga = obsluga;
+		this.blokiWybranych = Collections.unmodifiableList(blokiWybranych);
+		this.rozmiarListy = rozmiarListy;
+		this.liczbaBlokow = blokiWybranych.size();
+
+		int liczba = 0;
+		for (PrzesuwanieIndeksyBlok blok : blokiWybranych) {
+			liczba += blok.end - blok.start + 1;
+		}
+		this.liczbaWybranych = liczba;
+
+		this.startPierwszego = liczbaBlokow == 0 ? 0 : blokiWybranych.get(0).start;
+		this.koniecOstatniego = liczbaBlokow == 0 ? 0 : blokiWybranych.get(liczbaBlokow - 1).end;
+	}
+
+	// ====================================================================
+	// ========================= API ======================================
+	// ====================================================================
+
+	/**
+	 * Sprawdza, czy przesunięcie o podaną wartość (ujemna – w górę, dodatnia – w
+	 * dół) zmieni kolejność w bieżącym trybie obsługi, z której pochodzi
+	 * zaznaczenie.
+	 */
+	public boolean czyDoPrzesunieciaDojdzie(int przesuniecie) {
+		return czyDoPrzesunieciaDojdzie(obsluga.getTrybPrzesuwania(), przesuniecie);
+	}
+
+	/**
+	 * Sprawdza, czy przesunięcie o podaną wartość (ujemna – w górę, dodatnia – w
+	 * dół) zmieni kolejność w podanym trybie.
+	 */
+	public boolean czyDoPrzesunieciaDojdzie(TrybPrzesuwania tryb, int przesuniecie) {
+
+		if (!PrzesuwanieWejscie.czyParametryPrzesuwaniaPoprawne(rozmiarListy, liczbaWybranych, przesuniecie)) {
+			return false;
+		}
+
+		return PrzesuwanieObliczenia.czyDoPrzesunieciaDojdzie(tryb, liczbaBlokow, startPierwszego, koniecOstatniego,
+				rozmiarListy, PrzesuwanieWejscie.obliczRzeczywistePrzesuniecie(tryb, przesuniecie, rozmiarListy));
+	}
+
+	/**
+	 * Sprawdza, czy przesunięcie w górę o podaną (dodatnią) liczbę pozycji zmieni
+	 * kolejność w bieżącym trybie obsługi.
+	 */
+	public boolean czyMoznaPrzesunacWGore(int oIle) {
+		return oIle > 0 && czyDoPrzesunieciaDojdzie(-oIle);
+	}
+
+	/**
+	 * Sprawdza, czy przesunięcie w dół o podaną (dodatnią) liczbę pozycji zmieni
+	 * kolejność w bieżącym trybie obsługi.
+	 */
+	public boolean czyMoznaPrzesunacWDol(int oIle) {
+		return oIle > 0 && czyDoPrzesunieciaDojdzie(oIle);
+	}
+
+	// ====================================================================
+	// ========================= ZAKRES I PODGLĄD =========================
+	// ====================================================================
+
+	/**
+	 * Największe przesunięcie w górę (wartość dodatnia) w bieżącym trybie
+	 * obsługi.
+	 * <p>
+	 * Patrz: {@link #getMaksymalnePrzesuniecieWGore(TrybPrzesuwania)}.
+	 */
+	public int getMaksymalnePrzesuniecieWGore() {
+		return getMaksymalnePrzesuniecieWGore(obsluga.getTrybPrzesuwania());
+	}
+
+	/**
+	 * Największe przesunięcie w górę (wartość dodatnia), którego wynik różni się
+	 * od wyniku mniejszych przesunięć; 0, gdy przesunięcie w górę nie zmieni
+	 * kolejności.
+	 * <ul>
+	 * <li><b>LINIOWE</b> – odległość pierwszego bloku od początku listy (większe
+	 * przesunięcie nie zostanie wykonane),</li>
+	 * <li><b>DOCISKAJĄCE</b> – przesunięcie, przy którym wszystkie bloki zostają
+	 * dociśnięte do początku listy (większe daje ten sam wynik),</li>
+	 * <li><b>CYKLICZNE</b> – rozmiar listy pomniejszony o 1 (większe powtarza
+	 * wyniki modulo rozmiar listy).</li>
+	 * </ul>
+	 */
+	public int getMaksymalnePrzesuniecieWGore(TrybPrzesuwania tryb) {
+
+		if (liczbaBlokow == 0) {
+			return 0;
+		}
+
+		final PrzesuwanieIndeksyBlok ostatni = blokiWybranych.get(liczbaBlokow - 1);
+
+		switch (tryb) {
+
+		case LINIOWE:
+			return startPierwszego - 1;
+
+		case DOCISKAJACE:
+			// ostatni blok trafia tuż za wszystkie pozostałe wybrane wiersze
+			return ostatni.start - (liczbaWybranych - (ostatni.end - ostatni.start + 1) + 1);
+
+		case CYKLICZNE:
+			return rozmiarListy - 1;
+
+		default:
+			throw new AssertionError("Nieobsługiwany tryb przesuwania: " + tryb);
+		}
+	}
+
+	/**
+	 * Największe przesunięcie w dół (wartość dodatnia) w bieżącym trybie obsługi.
+	 * <p>
+	 * Patrz: {@link #getMaksymalnePrzesuniecieWDol(TrybPrzesuwania)}.
+	 */
+	public int getMaksymalnePrzesuniecieWDol() {
+		return getMaksymalnePrzesuniecieWDol(obsluga.getTrybPrzesuwania());
+	}
+
+	/**
+	 * Największe przesunięcie w dół (wartość dodatnia), którego wynik różni się od
+	 * wyniku mniejszych przesunięć – odpowiednik
+	 * {@link #getMaksymalnePrzesuniecieWGore(TrybPrzesuwania)} względem końca
+	 * listy.
+	 */
+	public int getMaksymalnePrzesuniecieWDol(TrybPrzesuwania tryb) {
+
+		if (liczbaBlokow == 0) {
+			return 0;
+		}
+
+		final PrzesuwanieIndeksyBlok pierwszy = blokiWybranych.get(0);
+
+		switch (tryb) {
+
+		case LINIOWE:
+			return rozmiarListy - koniecOstatniego;
+
+		case DOCISKAJACE:
+			// pierwszy blok trafia tuż przed wszystkie pozostałe wybrane wiersze
+			return rozmiarListy - liczbaWybranych + 1 - pierwszy.start;
+
+		case CYKLICZNE:
+			return rozmiarListy - 1;
+
+		default:
+			throw new AssertionError("Nieobsługiwany tryb przesuwania: " + tryb);
+		}
+	}
+
+	/**
+	 * Wyznacza podgląd przesunięcia w bieżącym trybie obsługi.
+	 * <p>
+	 * Patrz: {@link #podglad(TrybPrzesuwania, int)}.
+	 */
+	public PrzesuwaniePodglad podglad(int przesuniecie) {
+		return podglad(obsluga.getTrybPrzesuwania(), przesuniecie);
+	}
+
+	/**
+	 * Wyznacza podgląd przesunięcia – zakres zmienianych LP, liczbę zmienianych
+	 * wierszy i liczbę operacji – z samych bloków zaznaczenia, bez listy. Koszt
+	 * zależy od liczby bloków, a wyznaczony plan jest tym samym planem, który
+	 * zwróciłoby przesunięcie.
+	 */
+	public PrzesuwaniePodglad podglad(TrybPrzesuwania tryb, int przesuniecie) {
+
+		if (!PrzesuwanieWejscie.czyParametryPrzesuwaniaPoprawne(rozmiarListy, liczbaWybranych, przesuniecie)) {
+			return new PrzesuwaniePodglad(0, new PrzesuwaniePlan());
+		}
+
+		final int rzeczywistePrzesuniecie = PrzesuwanieWejscie.obliczRzeczywistePrzesuniecie(tryb, przesuniecie,
+				rozmiarListy);
+
+		return new PrzesuwaniePodglad(rzeczywistePrzesuniecie, PrzesuwanieObliczenia.wykonajPlan(tryb, blokiWybranych,
+				rozmiarListy, rzeczywistePrzesuniecie, PrzesuwanieObszarRoboczy.dlaBiezacegoWatku()));
+	}
+
+	// ====================================================================
+	// ========================= GETTERY ==================================
+	// ====================================================================
+
+	public int getRozmiarListy() {
+		return rozmiarListy;
+	}
+
+	/**
+	 * Liczba zaznaczonych wierszy (bez powtórzeń).
+	 */
+	public int getLiczbaWybranych() {
+		return liczbaWybranych;
+	}
+
+	public int getLiczbaBlokow() {
+		return liczbaBlokow;
+	}
+
+	/**
+	 * Zwraca bloki zaznaczenia (LP liczone od 1).
+	 */
+	public List<PrzesuwanieIndeksyBlok> getBlokiWybranych() {
+		return blokiWybranych;
+	}
+
+	/**
+	 * Zwraca true, jeśli nic nie jest zaznaczone.
+	 */
+	public boolean czyPuste() {
+		return liczbaBlokow == 0;
+	}
+
+}
@@ -0,0 +1,44 @@
+package pl.com.razi.listy.przesuwanie.sql;
+
+/**
+ * Postać instrukcji SQL generowanych przez {@link PrzesuwanieSqlRenderer}.
+ * <p>
+ * Dialekty oparte o złączenie ({@link #ZLACZENIE_VALUES},
+ * {@link #TABELA_TYMCZASOWA}) używają składni {@code UPDATE ... FROM}
+ * (PostgreSQL, SQL Server). Zamiast wyrażenia {@code CASE}, sprawdzanego dla
+ * każdego wiersza gałąź po gałęzi, baza łączy wiersze z zakresami planu, co
+ * przy tysiącach operacji pozwala jej użyć złączenia zamiast liniowego
+ * przeszukiwania.
+ */
+public enum PrzesuwanieDialektSql {
+
+	/**
+	 * Wyrażenie {@code CASE WHEN lp BETWEEN a AND b THEN lp + o ... END} – postać
+	 * zgodna z {@link pl.com.razi.listy.przesuwanie.wynik.PrzesuwaniePlan#toSqlCaseWhenBloki(String, String, String)}.
+	 */
+	CASE_WHEN,
+
+	/**
+	 * Złączenie z listą zakresów podaną w treści instrukcji:
+	 *
+	 * <pre>
+	 * UPDATE tabela
+	 * SET lp = lp + plan.przesuniecie
+	 * FROM (VALUES
+	 *     (5, 7, 1),
+	 *     (8, 8, -3)
+	 * ) AS plan(lp_od, lp_do, przesuniecie)
+	 * WHERE lp BETWEEN plan.lp_od AND plan.lp_do;
+	 * </pre>
+	 */
+	ZLACZENIE_VALUES,
+
+	/**
+	 * Zakresy ładowane są do tabeli tymczasowej ({@code CREATE TEMPORARY TABLE},
+	 * {@code INSERT}), a jedna instrukcja {@code UPDATE ... FROM} – o rozmiarze
+	 * niezależnym od planu – łączy z nią aktualizowane wiersze. Na koniec tabela
+	 * jest usuwana.
+	 */
+	TABELA_TYMCZASOWA
+
+}
@@ -0,0 +1,299 @@
+package pl.com.razi.listy.przesuwanie.sql;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Arrays;
+
+import pl.com.razi.listy.przesuwanie.wynik.PrzesuwaniePlan;
+
+/**
+ * Wykonuje {@link PrzesuwaniePlan} przez JDBC przy użyciu stałych, sparametryzowanych
+ * instrukcji – tekst SQL nie zależy od planu, więc pula połączeń może
+ * wielokrotnie używać tej samej przygotowanej instrukcji.
+ * <p>
+ * Każda operacja planu dodawana jest do paczki ({@link PreparedStatement#addBatch()})
+ * instrukcji:
+ *
+ * <pre>
+ * UPDATE tabela SET lp = -(lp + ?) WHERE lp BETWEEN ? AND ? AND (warunek)
+ * </pre>
+ *
+ * a paczki wysyłane są co {@link Builder#rozmiarPaczki(int)} operacji. Nowe LP
+ * zapisywane są ze znakiem ujemnym – zakresy planu dotyczą starych LP, więc
+ * wiersz już przeniesiony nie może zostać dopasowany przez kolejną operację.
+ * Na koniec jedna instrukcja przywraca znak:
+ *
+ * <pre>
+ * UPDATE tabela SET lp = -lp WHERE lp &lt; 0 AND (warunek)
+ * </pre>
+ *
+ * Wymaga to, aby LP w aktualizowanym zakresie były dodatnie – alternatywnie
+ * przestrzenią tymczasową mogą być LP powiększone o stałą
+ * ({@link Builder#przestrzenTymczasowaPrzesuniecie(int)}). Każdy wiersz
+ * aktualizowany jest co najwyżej dwa razy, a żaden stan pośredni nie zawiera
+ * powtórzonego LP, więc indeks unikalny na LP nie przeszkadza. Warunek może
+ * zawierać parametry {@code ?}, których wartości przekazuje się w
+ * {@link Builder#warunek(String, Object...)}.
+ * <p>
+ * Pomiędzy fazami wiersze mają ujemne LP, dlatego plan powinien być wykonywany
+ * w transakcji. Jeśli połączenie pracuje w trybie {@code autoCommit},
+ * wykonawca sam otwiera transakcję i zatwierdza ją (lub wycofuje w razie
+ * błędu), po czym przywraca tryb {@code autoCommit}.
+ */
+public class PrzesuwanieJdbcWykonawca {
+
+	/**
+	 * Domyślna liczba operacji w jednej paczce.
+	 */
+	public static final int DOMYSLNY_ROZMIAR_PACZKI = 500;
+
+	private final String tabela;
+	private final String kolumnaLp;
+	private final String warunek;
+	private final Object[] parametryWarunku;
+	private final int rozmiarPaczki;
+	private final int przesuniecieTymczasowe;
+
+	private PrzesuwanieJdbcWykonawca(Builder builder) {
+		this.tabela = builder.tabela;
+		this.kolumnaLp = builder.kolumnaLp;
+		this.warunek = builder.warunek == null || builder.warunek.isBlank() ? null : builder.warunek;
+		this.parametryWarunku = builder.parametryWarunku;
+		this.rozmiarPaczki = builder.rozmiarPaczki;
+		this.przesuniecieTymczasowe = builder.przesuniecieTymczasowe == null ? 0 : builder.przesuniecieTymczasowe;
+	}
+
+	// ====================================================================
+	// ========================= BUILDER ==================================
+	// ====================================================================
+
+	public static class Builder {
+
+		private String tabela;
+		private String kolumnaLp = "lp";
+		private String warunek;
+		private Object[] parametryWarunku = new Object[0];
+		private int rozmiarPaczki = DOMYSLNY_ROZMIAR_PACZKI;
+		private Integer przesuniecieTymczasowe;
+
+		public Builder tabela(String tabela) {
+			this.tabela = tabela;
+			return this;
+		}
+
+		/**
+		 * Nazwa kolumny LP. Domyślnie {@code lp}.
+		 */
+		public Builder kolumnaLp(String kolumnaLp) {
+			this.kolumnaLp = kolumnaLp;
+			return this;
+		}
+
+		/**
+		 * Warunek zawężający aktualizowane wiersze (bez słowa {@code WHERE}), np.
+		 * {@code id_kategorii = ?}, wraz z wartościami jego parametrów.
+		 */
+		public Builder warunek(String warunek, Object... parametryWarunku) {
+			this.warunek = warunek;
+			this.parametryWarunku = parametryWarunku == null ? new Object[0] : parametryWarunku.clone();
+			return this;
+		}
+
+		/**
+		 * Liczba operacji planu wysyłanych w jednej paczce. Domyślnie
+		 * {@link PrzesuwanieJdbcWykonawca#DOMYSLNY_ROZMIAR_PACZKI}.
+		 */
+		public Builder rozmiarPaczki(int rozmiarPaczki) {
+			this.rozmiarPaczki = rozmiarPaczki;
+			return this;
+		}
+
+		/**
+		 * Przestrzenią tymczasową są LP ze znakiem ujemnym. Ustawienie domyślne.
+		 */
+		public Builder przestrzenTymczasowaNegacja() {
+			this.przesuniecieTymczasowe = null;
+			return this;
+		}
+
+		/**
+		 * Przestrzenią tymczasową są LP powiększone o {@code k}:
+		 * {@code SET lp = lp + ?} z parametrem {@code offset + k}, przywracane przez
+		 * {@code SET lp = lp - k WHERE lp > k}. Wartość {@code k} musi być nie
+		 * mniejsza niż największe LP w zakresie warunku.
+		 */
+		public Builder przestrzenTymczasowaPrzesuniecie(int k) {
+			this.przesuniecieTymczasowe = k;
+			return this;
+		}
+
+		public PrzesuwanieJdbcWykonawca build() {
+			if (tabela == null || tabela.isBlank() || kolumnaLp == null || kolumnaLp.isBlank()) {
+				throw new IllegalStateException("Nie podano nazwy tabeli lub kolumny LP.");
+			}
+			if (rozmiarPaczki < 1) {
+				throw new IllegalStateException("Rozmiar paczki musi być dodatni.");
+			}
+			if (przesuniecieTymczasowe != null && przesuniecieTymczasowe < 1) {
+				throw new IllegalStateException("Przesunięcie przestrzeni tymczasowej musi być dodatnie.");
+			}
+			return new PrzesuwanieJdbcWykonawca(this);
+		}
+
+	}
+
+	// ====================================================================
+	// ========================= API ======================================
+	// ====================================================================
+
+	/**
+	 * Wykonuje plan na przekazanym połączeniu. Dla pustego planu nie jest
+	 * wykonywana żadna instrukcja.
+	 *
+	 * @param plan        Plan przesunięcia.
+	 * @param polaczenie  Połączenie z bazą danych. Nie jest zamykane.
+	 * @return Liczba wierszy, którym zmieniono LP.
+	 * @throws SQLException             Błąd bazy danych. Jeśli transakcję
+	 *                                  otworzył wykonawca, jest ona wycofywana, a
+	 *                                  błędy wycofania i przywrócenia trybu
+	 *                                  {@code autoCommit} dołączane są jako
+	 *                                  wyjątki stłumione.
+	 * @throws IllegalArgumentException Jeżeli LP w przestrzeni tymczasowej
+	 *                                  przekroczyłoby zakres {@code int}. Żadna
+	 *                                  instrukcja nie jest wtedy wykonywana.
+	 */
+	public int wykonaj(PrzesuwaniePlan plan, Connection polaczenie) throws SQLException {
+
+		if (plan.czyPusty()) {
+			return 0;
+		}
+
+		sprawdzZakresPrzestrzeniTymczasowej(plan);
+
+		final boolean autoCommit = polaczenie.getAutoCommit();
+
+		if (!autoCommit) {
+			return wykonajWTransakcji(plan, polaczenie);
+		}
+
+		polaczenie.setAutoCommit(false);
+
+		final int liczbaWierszy;
+		try {
+			liczbaWierszy = wykonajWTransakcji(plan, polaczenie);
+			polaczenie.commit();
+		} catch (SQLException | RuntimeException e) {
+			try {
+				polaczenie.rollback();
+			} catch (SQLException | RuntimeException bladWycofania) {
+				e.addSuppressed(bladWycofania);
+			}
+			try {
+				polaczenie.setAutoCommit(true);
+			} catch (SQLException | RuntimeException bladAutoCommit) {
+				e.addSuppressed(bladAutoCommit);
+			}
+			throw e;
+		}
+
+		polaczenie.setAutoCommit(true);
+		return liczbaWierszy;
+	}
+
+	/**
+	 * Tekst instrukcji przenoszącej zakres LP – stały dla wszystkich planów.
+	 */
+	public String getSqlPrzeniesienia() {
+		final String wartosc = przesuniecieTymczasowe == 0 ? "-(" + kolumnaLp + " + ?)" : kolumnaLp + " + ?";
+		return "UPDATE " + tabela + " SET " + kolumnaLp + " = " + wartosc + " WHERE " + kolumnaLp
+				+ " BETWEEN ? AND ?" + (warunek == null ? "" : " AND (" + warunek + ")");
+	}
+
+	/**
+	 * Tekst instrukcji przenoszącej wiersze z przestrzeni tymczasowej na
+	 * docelowe LP – stały dla wszystkich planów.
+	 */
+	public String getSqlPrzywrocenia() {
+		final String przywrocenie = przesuniecieTymczasowe == 0
+				? " = -" + kolumnaLp + " WHERE " + kolumnaLp + " < 0"
+				: " = " + kolumnaLp + " - ? WHERE " + kolumnaLp + " > ?";
+		return "UPDATE " + tabela + " SET " + kolumnaLp + przywrocenie
+				+ (warunek == null ? "" : " AND (" + warunek + ")");
+	}
+
+	// ====================================================================
+	// ========================= POMOCNICZE ===============================
+	// ====================================================================
+
+	/**
+	 * Sprawdza, czy LP w przestrzeni tymczasowej ({@code lpDo + offset + k}) oraz
+	 * parametr przeniesienia ({@code offset + k}) mieszczą się w zakresie
+	 * {@code int}.
+	 */
+	private void sprawdzZakresPrzestrzeniTymczasowej(PrzesuwaniePlan plan) {
+
+		if (przesuniecieTymczasowe == 0) {
+			return;
+		}
+
+		final PrzesuwaniePlan.Kursor op = plan.kursor();
+		while (op.nastepna()) {
+			if ((long) op.lpDo() + op.offset() + przesuniecieTymczasowe > Integer.MAX_VALUE) {
+				throw new IllegalArgumentException("LP " + op.lpDo() + " z offsetem " + op.offset()
+						+ " przekracza zakres int w przestrzeni tymczasowej (przesunięcie " + przesuniecieTymczasowe
+						+ ").");
+			}
+		}
+	}
+
+	private int wykonajWTransakcji(PrzesuwaniePlan plan, Connection polaczenie) throws SQLException {
+
+		try (PreparedStatement przeniesienie = polaczenie.prepareStatement(getSqlPrzeniesienia())) {
+
+			int wPaczce = 0;
+			final PrzesuwaniePlan.Kursor op = plan.kursor();
+
+			while (op.nastepna()) {
+
+				przeniesienie.setInt(1, op.offset() + przesuniecieTymczasowe);
+				przeniesienie.setInt(2, op.lpOd());
+				przeniesienie.setInt(3, op.lpDo());
+				ustawParametryWarunku(przeniesienie, 4);
+				przeniesienie.addBatch();
+
+				if (++wPaczce == rozmiarPaczki) {
+					przeniesienie.executeBatch();
+					wPaczce = 0;
+				}
+			}
+
+			if (wPaczce > 0) {
+				przeniesienie.executeBatch();
+			}
+		}
+
+		try (PreparedStatement przywrocenie = polaczenie.prepareStatement(getSqlPrzywrocenia())) {
+			int indeks = 1;
+			if (przesuniecieTymczasowe != 0) {
+				przywrocenie.setInt(indeks++, przesuniecieTymczasowe);
+				przywrocenie.setInt(indeks++, przesuniecieTymczasowe);
+			}
+			ustawParametryWarunku(przywrocenie, indeks);
+			return przywrocenie.executeUpdate();
+		}
+	}
+
+	private void ustawParametryWarunku(PreparedStatement instrukcja, int pierwszyIndeks) throws SQLException {
+		for (int i = 0; i < parametryWarunku.length; i++) {
+			instrukcja.setObject(pierwszyIndeks + i, parametryWarunku[i]);
+		}
+	}
+
+	@Override
+	public String toString() {
+		return "PrzesuwanieJdbcWykonawca[" + getSqlPrzeniesienia() + "; parametry warunku="
+				+ Arrays.toString(parametryWarunku) + "; rozmiar paczki=" + rozmiarPaczki + "]";
+	}
+
+}
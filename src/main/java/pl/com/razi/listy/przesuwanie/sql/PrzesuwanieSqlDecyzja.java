@@ -0,0 +1,76 @@
+package pl.com.razi.listy.przesuwanie.sql;
+
+import java.util.Locale;
+
+import pl.com.razi.listy.przesuwanie.sql.PrzesuwanieSqlPlanista.SposobZapisu;
+
+/**
+ * Wynik {@link PrzesuwanieSqlPlanista#wybierz}: wybrany sposób zapisu planu
+ * oraz oszacowania, na podstawie których go wybrano.
+ */
+public final class PrzesuwanieSqlDecyzja {
+
+	private final SposobZapisu sposob;
+	private final int rozmiarListy;
+	private final int liczbaOperacji;
+	private final long liczbaWierszy;
+	private final double[] koszty;
+
+	PrzesuwanieSqlDecyzja(SposobZapisu sposob, int rozmiarListy, int liczbaOperacji, long liczbaWierszy,
+			double[] koszty) {
+		this.sposob = sposob;
+		this.rozmiarListy = rozmiarListy;
+		this.liczbaOperacji = liczbaOperacji;
+		this.liczbaWierszy = liczbaWierszy;
+		this.koszty = koszty;
+	}
+
+	/**
+	 * Wybrany (najtańszy) sposób zapisu.
+	 */
+	public SposobZapisu getSposob() {
+		return sposob;
+	}
+
+	public int getRozmiarListy() {
+		return rozmiarListy;
+	}
+
+	public int getLiczbaOperacji() {
+		return liczbaOperacji;
+	}
+
+	/**
+	 * Liczba wierszy, którym plan zmienia LP.
+	 */
+	public long getLiczbaWierszy() {
+		return liczbaWierszy;
+	}
+
+	/**
+	 * Udział przesuwanych wierszy w liście (0–1).
+	 */
+	public double getUdzialWierszy() {
+		return rozmiarListy == 0 ? 0 : (double) liczbaWierszy / rozmiarListy;
+	}
+
+	/**
+	 * Oszacowany koszt podanego sposobu zapisu w jednostkach modelu planisty.
+	 */
+	public double getKoszt(SposobZapisu sposobZapisu) {
+		return koszty[sposobZapisu.ordinal()];
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder sb = new StringBuilder();
+		sb.append("PrzesuwanieSqlDecyzja[").append(sposob).append("; operacji=").append(liczbaOperacji)
+				.append(", wierszy=").append(liczbaWierszy).append('/').append(rozmiarListy).append(" (")
+				.append(String.format(Locale.ROOT, "%.1f", 100 * getUdzialWierszy())).append("%)");
+		for (SposobZapisu s : SposobZapisu.values()) {
+			sb.append(", ").append(s).append('=').append(String.format(Locale.ROOT, "%.0f", getKoszt(s)));
+		}
+		return sb.append(']').toString();
+	}
+
+}
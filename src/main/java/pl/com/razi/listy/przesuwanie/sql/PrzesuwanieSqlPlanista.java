@@ -0,0 +1,185 @@
+package pl.com.razi.listy.przesuwanie.sql;
+
+import pl.com.razi.listy.przesuwanie.wynik.PrzesuwaniePlan;
+
+/**
+ * Wybiera najtańszy sposób zapisania {@link PrzesuwaniePlan} w bazie danych na
+ * podstawie prostego modelu kosztów.
+ * <p>
+ * Model liczy koszt w umownych jednostkach (domyślne wagi odpowiadają
+ * w przybliżeniu mikrosekundom) z trzech składowych: liczby instrukcji
+ * wysyłanych do bazy, liczby operacji planu oraz liczby aktualizowanych
+ * wierszy:
+ * <ul>
+ * <li><b>CASE_WHEN</b> – jedna instrukcja; każdy wiersz w zakresie warunku
+ * sprawdzany jest kolejno z gałęziami {@code WHEN} (średnio z połową z nich),
+ * przesuwane wiersze aktualizowane są raz.</li>
+ * <li><b>PACZKA_JDBC</b> – {@link PrzesuwanieJdbcWykonawca}: jedna pozycja
+ * paczki na operację, paczki co {@link Builder#rozmiarPaczki(int)} operacji
+ * oraz instrukcja przywracająca; przesuwane wiersze aktualizowane są dwa
+ * razy.</li>
+ * <li><b>PELNE_PRZEPISANIE</b> – LP wszystkich wierszy w zakresie warunku
+ * zapisywane są od nowa jedną operacją masową (np. {@code UPDATE ... FROM}
+ * z listą identyfikatorów i LP po przesunięciu, wyznaczoną przez
+ * {@code przesunPelny}); koszt nie zależy od liczby operacji planu.</li>
+ * </ul>
+ * Wagi można dostosować do konkretnej bazy w {@link Builder}. Wynik wraz z
+ * oszacowaniami zwracany jest jako {@link PrzesuwanieSqlDecyzja}, którą można
+ * zalogować.
+ */
+public class PrzesuwanieSqlPlanista {
+
+	/**
+	 * Sposób zapisania planu w bazie danych.
+	 */
+	public enum SposobZapisu {
+		CASE_WHEN,
+		PACZKA_JDBC,
+		PELNE_PRZEPISANIE
+	}
+
+	private final double kosztInstrukcji;
+	private final double kosztPozycjiPaczki;
+	private final double kosztGaleziCase;
+	private final double kosztAktualizacjiWiersza;
+	private final double kosztWierszaPrzepisania;
+	private final int rozmiarPaczki;
+
+	private PrzesuwanieSqlPlanista(Builder builder) {
+		this.kosztInstrukcji = builder.kosztInstrukcji;
+		this.kosztPozycjiPaczki = builder.kosztPozycjiPaczki;
+		this.kosztGaleziCase = builder.kosztGaleziCase;
+		this.kosztAktualizacjiWiersza = builder.kosztAktualizacjiWiersza;
+		this.kosztWierszaPrzepisania = builder.kosztWierszaPrzepisania;
+		this.rozmiarPaczki = builder.rozmiarPaczki;
+	}
+
+	// ====================================================================
+	// ========================= BUILDER ==================================
+	// ====================================================================
+
+	public static class Builder {
+
+		private double kosztInstrukcji = 500;
+		private double kosztPozycjiPaczki = 20;
+		private double kosztGaleziCase = 0.02;
+		private double kosztAktualizacjiWiersza = 5;
+		private double kosztWierszaPrzepisania = 1;
+		private int rozmiarPaczki = PrzesuwanieJdbcWykonawca.DOMYSLNY_ROZMIAR_PACZKI;
+
+		/**
+		 * Stały koszt wysłania i wykonania jednej instrukcji (lub paczki). Domyślnie
+		 * 500.
+		 */
+		public Builder kosztInstrukcji(double kosztInstrukcji) {
+			this.kosztInstrukcji = kosztInstrukcji;
+			return this;
+		}
+
+		/**
+		 * Koszt jednej pozycji paczki JDBC (wiązanie parametrów, wyszukanie
+		 * zakresu w indeksie). Domyślnie 20.
+		 */
+		public Builder kosztPozycjiPaczki(double kosztPozycjiPaczki) {
+			this.kosztPozycjiPaczki = kosztPozycjiPaczki;
+			return this;
+		}
+
+		/**
+		 * Koszt sprawdzenia jednej gałęzi {@code WHEN} dla jednego wiersza.
+		 * Domyślnie 0,02.
+		 */
+		public Builder kosztGaleziCase(double kosztGaleziCase) {
+			this.kosztGaleziCase = kosztGaleziCase;
+			return this;
+		}
+
+		/**
+		 * Koszt aktualizacji jednego wiersza (zapis, indeksy). Domyślnie 5.
+		 */
+		public Builder kosztAktualizacjiWiersza(double kosztAktualizacjiWiersza) {
+			this.kosztAktualizacjiWiersza = kosztAktualizacjiWiersza;
+			return this;
+		}
+
+		/**
+		 * Dodatkowy koszt przekazania jednego wiersza przy pełnym przepisaniu.
+		 * Domyślnie 1.
+		 */
+		public Builder kosztWierszaPrzepisania(double kosztWierszaPrzepisania) {
+			this.kosztWierszaPrzepisania = kosztWierszaPrzepisania;
+			return this;
+		}
+
+		/**
+		 * Rozmiar paczki JDBC przyjmowany w oszacowaniu. Domyślnie
+		 * {@link PrzesuwanieJdbcWykonawca#DOMYSLNY_ROZMIAR_PACZKI}.
+		 */
+		public Builder rozmiarPaczki(int rozmiarPaczki) {
+			this.rozmiarPaczki = rozmiarPaczki;
+			return this;
+		}
+
+		public PrzesuwanieSqlPlanista build() {
+			if (rozmiarPaczki < 1) {
+				throw new IllegalStateException("Rozmiar paczki musi być dodatni.");
+			}
+			if (kosztInstrukcji < 0 || kosztPozycjiPaczki < 0 || kosztGaleziCase < 0 || kosztAktualizacjiWiersza < 0
+					|| kosztWierszaPrzepisania < 0) {
+				throw new IllegalStateException("Koszty nie mogą być ujemne.");
+			}
+			return new PrzesuwanieSqlPlanista(this);
+		}
+
+	}
+
+	// ====================================================================
+	// ========================= API ======================================
+	// ====================================================================
+
+	/**
+	 * Szacuje koszt każdego sposobu zapisu i wybiera najtańszy. Przy równych
+	 * kosztach wybierany jest sposób wcześniejszy w {@link SposobZapisu}.
+	 *
+	 * @param plan        Plan przesunięcia.
+	 * @param rozmiarListy Liczba wierszy w zakresie warunku (długość listy).
+	 * @return Decyzja wraz z oszacowaniami. Dla pustego planu wszystkie koszty są
+	 *         zerowe.
+	 */
+	public PrzesuwanieSqlDecyzja wybierz(PrzesuwaniePlan plan, int rozmiarListy) {
+
+		final int liczbaOperacji = plan.getLiczbaOperacji();
+
+		long liczbaWierszy = 0;
+		final PrzesuwaniePlan.Kursor op = plan.kursor();
+		while (op.nastepna()) {
+			liczbaWierszy += op.lpDo() - op.lpOd() + 1;
+		}
+
+		final double[] koszty = new double[SposobZapisu.values().length];
+
+		if (liczbaOperacji > 0) {
+
+			koszty[SposobZapisu.CASE_WHEN.ordinal()] = kosztInstrukcji
+					+ (double) rozmiarListy * (liczbaOperacji + 1) / 2.0 * kosztGaleziCase
+					+ liczbaWierszy * kosztAktualizacjiWiersza;
+
+			final long liczbaPaczek = (liczbaOperacji + (long) rozmiarPaczki - 1) / rozmiarPaczki;
+			koszty[SposobZapisu.PACZKA_JDBC.ordinal()] = (liczbaPaczek + 1) * kosztInstrukcji
+					+ liczbaOperacji * kosztPozycjiPaczki + 2.0 * liczbaWierszy * kosztAktualizacjiWiersza;
+
+			koszty[SposobZapisu.PELNE_PRZEPISANIE.ordinal()] = kosztInstrukcji
+					+ (double) rozmiarListy * (kosztAktualizacjiWiersza + kosztWierszaPrzepisania);
+		}
+
+		SposobZapisu wybrany = SposobZapisu.CASE_WHEN;
+		for (SposobZapisu sposob : SposobZapisu.values()) {
+			if (koszty[sposob.ordinal()] < koszty[wybrany.ordinal()]) {
+				wybrany = sposob;
+			}
+		}
+
+		return new PrzesuwanieSqlDecyzja(wybrany, rozmiarListy, liczbaOperacji, liczbaWierszy, koszty);
+	}
+
+}
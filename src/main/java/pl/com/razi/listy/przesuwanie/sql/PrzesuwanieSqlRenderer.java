@@ -0,0 +1,620 @@
+package pl.com.razi.listy.przesuwanie.sql;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import pl.com.razi.listy.przesuwanie.wynik.PrzesuwaniePlan;
+
+/**
+ * Strumieniowe generowanie SQL aktualizującego LP na podstawie
+ * {@link PrzesuwaniePlan}.
+ * <p>
+ * W odróżnieniu od {@link PrzesuwaniePlan#toSqlCaseWhenBloki(String, String, String)}
+ * instrukcje zapisywane są bezpośrednio do {@link Appendable} (np.
+ * {@link java.io.Writer}), bez budowania całego tekstu w pamięci, a plan może
+ * zostać podzielony na wiele instrukcji {@code UPDATE} ograniczonych liczbą
+ * gałęzi {@code WHEN} lub liczbą znaków.
+ * </p>
+ *
+ * <h3>Poprawność przy podziale</h3> Gdy plan mieści się w jednej instrukcji,
+ * wynik jest identyczny z {@code toSqlCaseWhenBloki}. Po podziale kolejne
+ * instrukcje zapisują nowe LP ze znakiem ujemnym ({@code -(lp + offset)}) –
+ * wiersz już przeniesiony nie pasuje więc do zakresów żadnej z kolejnych
+ * instrukcji, które dotyczą wyłącznie dodatnich LP. Ostatnia instrukcja
+ * przywraca znak: {@code SET lp = -lp WHERE lp < 0}. Wymaga to, aby LP w
+ * aktualizowanym zakresie były dodatnie.
+ *
+ * <h3>Indeks unikalny na LP</h3> Strategia
+ * {@link PrzesuwanieStrategiaSql#DWUFAZOWA} stosuje powyższy podział zawsze –
+ * również dla planu mieszczącego się w jednej instrukcji – dzięki czemu żaden
+ * stan pośredni nie narusza indeksu unikalnego sprawdzanego po każdym wierszu.
+ * Zamiast negacji przestrzenią tymczasową mogą być LP powiększone o stałą
+ * ({@link Builder#przestrzenTymczasowaPrzesuniecie(int)}), np. gdy kolumna
+ * nie dopuszcza wartości ujemnych.
+ *
+ * <h3>Dialekty</h3> Zamiast wyrażenia {@code CASE WHEN} plan może zostać
+ * zapisany jako złączenie z listą {@code VALUES} lub z tabelą tymczasową – zob.
+ * {@link PrzesuwanieDialektSql}. Limity instrukcji dotyczą wtedy liczby
+ * wierszy {@code VALUES}, a podział i przestrzeń tymczasowa działają tak samo.
+ *
+ * <pre>
+ * PrzesuwanieSqlRenderer renderer = new PrzesuwanieSqlRenderer.Builder()
+ *         .tabela("Dokumenty")
+ *         .kolumnaLp("lp")
+ *         .warunek("id_kategorii = 3")
+ *         .maksLiczbaWhen(500)
+ *         .build();
+ *
+ * try (Writer writer = Files.newBufferedWriter(plik)) {
+ *     renderer.renderuj(plan, writer);
+ * }
+ * </pre>
+ */
+public class PrzesuwanieSqlRenderer {
+
+	private final String tabela;
+	private final String kolumnaLp;
+	private final String warunek;
+	private final int maksLiczbaWhen;
+	private final int maksRozmiarInstrukcji;
+	private final PrzesuwanieStrategiaSql strategia;
+	private final int przesuniecieTymczasowe;
+	private final PrzesuwanieDialektSql dialekt;
+	private final String tabelaTymczasowa;
+
+	private PrzesuwanieSqlRenderer(Builder builder) {
+		this.tabela = builder.tabela;
+		this.kolumnaLp = builder.kolumnaLp;
+		this.warunek = builder.warunek == null || builder.warunek.isBlank() ? null : builder.warunek;
+		this.maksLiczbaWhen = builder.maksLiczbaWhen;
+		this.maksRozmiarInstrukcji = builder.maksRozmiarInstrukcji;
+		this.strategia = builder.strategia;
+		this.przesuniecieTymczasowe = builder.przesuniecieTymczasowe == null ? 0 : builder.przesuniecieTymczasowe;
+		this.dialekt = builder.dialekt;
+		this.tabelaTymczasowa = builder.tabelaTymczasowa;
+	}
+
+	// ====================================================================
+	// ========================= BUILDER ==================================
+	// ====================================================================
+
+	public static class Builder {
+
+		private String tabela;
+		private String kolumnaLp = "lp";
+		private String warunek;
+		private int maksLiczbaWhen = Integer.MAX_VALUE;
+		private int maksRozmiarInstrukcji = Integer.MAX_VALUE;
+		private PrzesuwanieStrategiaSql strategia = PrzesuwanieStrategiaSql.JEDNOFAZOWA;
+		private Integer przesuniecieTymczasowe;
+		private PrzesuwanieDialektSql dialekt = PrzesuwanieDialektSql.CASE_WHEN;
+		private String tabelaTymczasowa = "przesuwanie_plan";
+
+		public Builder tabela(String tabela) {
+			this.tabela = tabela;
+			return this;
+		}
+
+		/**
+		 * Nazwa kolumny LP. Domyślnie {@code lp}.
+		 */
+		public Builder kolumnaLp(String kolumnaLp) {
+			this.kolumnaLp = kolumnaLp;
+			return this;
+		}
+
+		/**
+		 * Warunek zawężający aktualizowane wiersze (bez słowa {@code WHERE}), np.
+		 * {@code id_kategorii = 3}. Wartość null lub pusta oznacza brak warunku.
+		 */
+		public Builder warunek(String warunek) {
+			this.warunek = warunek;
+			return this;
+		}
+
+		/**
+		 * Maksymalna liczba gałęzi {@code WHEN} (lub wierszy {@code VALUES}) w
+		 * jednej instrukcji. Domyślnie bez ograniczenia.
+		 */
+		public Builder maksLiczbaWhen(int maksLiczbaWhen) {
+			this.maksLiczbaWhen = maksLiczbaWhen;
+			return this;
+		}
+
+		/**
+		 * Maksymalna liczba znaków jednej instrukcji (dla SQL zapisanego w ASCII –
+		 * bajtów). Domyślnie bez ograniczenia. Instrukcja zawiera zawsze co
+		 * najmniej jedną gałąź {@code WHEN}, nawet jeśli przekracza ona limit.
+		 */
+		public Builder maksRozmiarInstrukcji(int maksRozmiarInstrukcji) {
+			this.maksRozmiarInstrukcji = maksRozmiarInstrukcji;
+			return this;
+		}
+
+		/**
+		 * Strategia aktualizacji. Domyślnie
+		 * {@link PrzesuwanieStrategiaSql#JEDNOFAZOWA}.
+		 */
+		public Builder strategia(PrzesuwanieStrategiaSql strategia) {
+			this.strategia = strategia;
+			return this;
+		}
+
+		/**
+		 * Przestrzenią tymczasową są LP ze znakiem ujemnym: {@code -(lp + offset)},
+		 * przywracane przez {@code SET lp = -lp WHERE lp < 0}. Wymaga dodatnich LP.
+		 * Ustawienie domyślne.
+		 */
+		public Builder przestrzenTymczasowaNegacja() {
+			this.przesuniecieTymczasowe = null;
+			return this;
+		}
+
+		/**
+		 * Przestrzenią tymczasową są LP powiększone o {@code k}:
+		 * {@code lp + offset + k}, przywracane przez
+		 * {@code SET lp = lp - k WHERE lp > k}. Wartość {@code k} musi być nie
+		 * mniejsza niż największe LP w zakresie warunku.
+		 */
+		public Builder przestrzenTymczasowaPrzesuniecie(int k) {
+			this.przesuniecieTymczasowe = k;
+			return this;
+		}
+
+		/**
+		 * Postać generowanych instrukcji. Domyślnie
+		 * {@link PrzesuwanieDialektSql#CASE_WHEN}.
+		 */
+		public Builder dialekt(PrzesuwanieDialektSql dialekt) {
+			this.dialekt = dialekt;
+			return this;
+		}
+
+		/**
+		 * Nazwa tabeli tymczasowej dla dialektu
+		 * {@link PrzesuwanieDialektSql#TABELA_TYMCZASOWA}. Domyślnie
+		 * {@code przesuwanie_plan}.
+		 */
+		public Builder tabelaTymczasowa(String tabelaTymczasowa) {
+			this.tabelaTymczasowa = tabelaTymczasowa;
+			return this;
+		}
+
+		public PrzesuwanieSqlRenderer build() {
+			if (tabela == null || tabela.isBlank() || kolumnaLp == null || kolumnaLp.isBlank()) {
+				throw new IllegalStateException("Nie podano nazwy tabeli lub kolumny LP.");
+			}
+			if (maksLiczbaWhen < 1 || maksRozmiarInstrukcji < 1) {
+				throw new IllegalStateException("Limity instrukcji muszą być dodatnie.");
+			}
+			if (strategia == null || dialekt == null) {
+				throw new IllegalStateException("Nie podano strategii aktualizacji lub dialektu.");
+			}
+			if (dialekt == PrzesuwanieDialektSql.TABELA_TYMCZASOWA
+					&& (tabelaTymczasowa == null || tabelaTymczasowa.isBlank())) {
+				throw new IllegalStateException("Nie podano nazwy tabeli tymczasowej.");
+			}
+			if (przesuniecieTymczasowe != null && przesuniecieTymczasowe < 1) {
+				throw new IllegalStateException("Przesunięcie przestrzeni tymczasowej musi być dodatnie.");
+			}
+			return new PrzesuwanieSqlRenderer(this);
+		}
+
+	}
+
+	// ====================================================================
+	// ========================= API ======================================
+	// ====================================================================
+
+	/**
+	 * Zapisuje instrukcje SQL realizujące plan. Kolejne instrukcje oddzielane są
+	 * znakiem nowej linii. Dla pustego planu nic nie jest zapisywane.
+	 *
+	 * @param plan Plan przesunięcia.
+	 * @param cel  Miejsce zapisu, np. {@link java.io.Writer} lub
+	 *             {@link StringBuilder}.
+	 * @return Liczba zapisanych instrukcji.
+	 * @throws IOException Błąd zapisu do {@code cel}.
+	 */
+	public int renderuj(PrzesuwaniePlan plan, Appendable cel) throws IOException {
+		return renderuj(plan, cel, null);
+	}
+
+	/**
+	 * Zwraca instrukcje SQL realizujące plan jako osobne teksty – np. do
+	 * wykonania kolejno przez {@link java.sql.Statement}. Każda instrukcja
+	 * spełnia skonfigurowane limity.
+	 */
+	public List<String> renderujInstrukcje(PrzesuwaniePlan plan) {
+
+		final List<String> instrukcje = new ArrayList<>();
+		final StringBuilder sb = new StringBuilder();
+
+		try {
+			renderuj(plan, sb, () -> {
+				instrukcje.add(sb.substring(sb.length() > 0 && sb.charAt(0) == '\n' ? 1 : 0));
+				sb.setLength(0);
+			});
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+
+		return instrukcje;
+	}
+
+	// ====================================================================
+	// ========================= POMOCNICZE ===============================
+	// ====================================================================
+
+	/**
+	 * Właściwe generowanie. Jeśli {@code poInstrukcji} nie jest null, wywoływane
+	 * jest po zapisaniu każdej instrukcji.
+	 */
+	private int renderuj(PrzesuwaniePlan plan, Appendable cel, Runnable poInstrukcji) throws IOException {
+
+		if (plan.czyPusty()) {
+			return 0;
+		}
+
+		switch (dialekt) {
+		case ZLACZENIE_VALUES:
+			return renderujZlaczenieValues(plan, cel, poInstrukcji);
+		case TABELA_TYMCZASOWA:
+			return renderujTabeleTymczasowa(plan, cel, poInstrukcji);
+		default:
+			return renderujCaseWhen(plan, cel, poInstrukcji);
+		}
+	}
+
+	private int renderujCaseWhen(PrzesuwaniePlan plan, Appendable cel, Runnable poInstrukcji) throws IOException {
+
+		final int liczbaOperacji = plan.getLiczbaOperacji();
+		final StringBuilder linia = new StringBuilder(64);
+
+		if (strategia == PrzesuwanieStrategiaSql.JEDNOFAZOWA && czyMiesciSieWJednej(plan, linia)) {
+			renderujJedna(plan, cel, linia);
+			zakonczInstrukcje(poInstrukcji);
+			return 1;
+		}
+
+		final String naglowek = naglowek();
+		final int rozmiarStalych = naglowek.length() + dlugoscStopki(-1_000_000_000, -1_000_000_000);
+
+		int liczbaInstrukcji = 0;
+		int i = 0;
+
+		while (i < liczbaOperacji) {
+
+			if (liczbaInstrukcji > 0) {
+				cel.append('\n');
+			}
+
+			cel.append(naglowek);
+
+			long rozmiar = rozmiarStalych;
+			int liczbaWhen = 0;
+			int lpMin = Integer.MAX_VALUE;
+			int lpMax = Integer.MIN_VALUE;
+
+			while (i < liczbaOperacji) {
+
+				linia.setLength(0);
+				dopiszWhen(linia, plan, i, true);
+
+				if (liczbaWhen > 0 && (liczbaWhen >= maksLiczbaWhen || rozmiar + linia.length() > maksRozmiarInstrukcji)) {
+					break;
+				}
+
+				cel.append(linia);
+				rozmiar += linia.length();
+				liczbaWhen++;
+				lpMin = Math.min(lpMin, plan.getLpOd(i));
+				lpMax = Math.max(lpMax, plan.getLpDo(i));
+				i++;
+			}
+
+			dopiszStopke(cel, lpMin, lpMax);
+			zakonczInstrukcje(poInstrukcji);
+			liczbaInstrukcji++;
+		}
+
+		cel.append('\n');
+		dopiszPrzywrocenie(cel);
+		zakonczInstrukcje(poInstrukcji);
+
+		return liczbaInstrukcji + 1;
+	}
+
+	/**
+	 * {@code UPDATE ... FROM (VALUES ...)}. Jeśli plan nie mieści się w jednej
+	 * instrukcji (lub wybrano strategię dwufazową), kolejne instrukcje zapisują
+	 * LP w przestrzeni tymczasowej, a ostatnia przenosi je na docelowe.
+	 */
+	private int renderujZlaczenieValues(PrzesuwaniePlan plan, Appendable cel, Runnable poInstrukcji)
+			throws IOException {
+
+		final StringBuilder linia = new StringBuilder(32);
+		final String stopka = "\n) AS plan(lp_od, lp_do, przesuniecie)\n" + warunekZlaczenia();
+
+		final boolean jedna = strategia == PrzesuwanieStrategiaSql.JEDNOFAZOWA
+				&& czyWierszeMieszczaSieWJednej(plan, naglowekValues(false).length() + stopka.length(), linia);
+
+		int liczbaInstrukcji = renderujWiersze(plan, cel, poInstrukcji, naglowekValues(!jedna), stopka, linia, 0);
+
+		if (!jedna) {
+			cel.append('\n');
+			dopiszPrzywrocenie(cel);
+			zakonczInstrukcje(poInstrukcji);
+			liczbaInstrukcji++;
+		}
+
+		return liczbaInstrukcji;
+	}
+
+	/**
+	 * Tabela tymczasowa ładowana instrukcjami {@code INSERT} (dzielonymi wg
+	 * limitów), jedna instrukcja {@code UPDATE ... FROM} i usunięcie tabeli. Dla
+	 * strategii dwufazowej aktualizacja przechodzi przez przestrzeń tymczasową.
+	 */
+	private int renderujTabeleTymczasowa(PrzesuwaniePlan plan, Appendable cel, Runnable poInstrukcji)
+			throws IOException {
+
+		final boolean dwufazowo = strategia == PrzesuwanieStrategiaSql.DWUFAZOWA;
+
+		cel.append("CREATE TEMPORARY TABLE ").append(tabelaTymczasowa)
+				.append(" (lp_od INT NOT NULL, lp_do INT NOT NULL, przesuniecie INT NOT NULL);");
+		zakonczInstrukcje(poInstrukcji);
+
+		int liczbaInstrukcji = renderujWiersze(plan, cel, poInstrukcji,
+				"INSERT INTO " + tabelaTymczasowa + " (lp_od, lp_do, przesuniecie) VALUES\n", ";", new StringBuilder(32),
+				1);
+
+		cel.append("\nUPDATE ").append(tabela).append("\nSET ").append(kolumnaLp).append(" = ")
+				.append(wyrazenieZlaczenia(dwufazowo)).append("\nFROM ").append(tabelaTymczasowa).append(" AS plan\n")
+				.append(warunekZlaczenia());
+		zakonczInstrukcje(poInstrukcji);
+		liczbaInstrukcji++;
+
+		if (dwufazowo) {
+			cel.append('\n');
+			dopiszPrzywrocenie(cel);
+			zakonczInstrukcje(poInstrukcji);
+			liczbaInstrukcji++;
+		}
+
+		cel.append("\nDROP TABLE ").append(tabelaTymczasowa).append(';');
+		zakonczInstrukcje(poInstrukcji);
+
+		return liczbaInstrukcji + 1;
+	}
+
+	/**
+	 * Zapisuje operacje planu jako wiersze {@code (lpOd, lpDo, offset)}
+	 * oddzielone przecinkami, dzieląc je na instrukcje zgodnie z limitami.
+	 *
+	 * @return Łączna liczba instrukcji – {@code liczbaInstrukcji} powiększona o
+	 *         zapisane.
+	 */
+	private int renderujWiersze(PrzesuwaniePlan plan, Appendable cel, Runnable poInstrukcji, String naglowek,
+			String stopka, StringBuilder linia, int liczbaInstrukcji) throws IOException {
+
+		final int liczbaOperacji = plan.getLiczbaOperacji();
+		final int rozmiarStalych = naglowek.length() + stopka.length();
+
+		int i = 0;
+
+		while (i < liczbaOperacji) {
+
+			if (liczbaInstrukcji > 0) {
+				cel.append('\n');
+			}
+
+			cel.append(naglowek);
+
+			long rozmiar = rozmiarStalych;
+			int liczbaWierszy = 0;
+
+			while (i < liczbaOperacji) {
+
+				linia.setLength(0);
+				dopiszWiersz(linia, plan, i);
+
+				if (liczbaWierszy > 0
+						&& (liczbaWierszy >= maksLiczbaWhen || rozmiar + linia.length() + 2 > maksRozmiarInstrukcji)) {
+					break;
+				}
+
+				if (liczbaWierszy > 0) {
+					cel.append(",\n");
+				}
+
+				cel.append(linia);
+				rozmiar += linia.length() + 2;
+				liczbaWierszy++;
+				i++;
+			}
+
+			cel.append(stopka);
+			zakonczInstrukcje(poInstrukcji);
+			liczbaInstrukcji++;
+		}
+
+		return liczbaInstrukcji;
+	}
+
+	private boolean czyWierszeMieszczaSieWJednej(PrzesuwaniePlan plan, int rozmiarStalych, StringBuilder linia) {
+
+		if (plan.getLiczbaOperacji() > maksLiczbaWhen) {
+			return false;
+		}
+
+		long rozmiar = rozmiarStalych;
+
+		for (int i = 0; i < plan.getLiczbaOperacji() && rozmiar <= maksRozmiarInstrukcji; i++) {
+			linia.setLength(0);
+			dopiszWiersz(linia, plan, i);
+			rozmiar += linia.length() + 2;
+		}
+
+		return rozmiar <= maksRozmiarInstrukcji;
+	}
+
+	private static void dopiszWiersz(StringBuilder sb, PrzesuwaniePlan plan, int i) {
+		sb.append("    (").append(plan.getLpOd(i)).append(", ").append(plan.getLpDo(i)).append(", ")
+				.append(plan.getOffset(i)).append(')');
+	}
+
+	private String naglowekValues(boolean tymczasowo) {
+		return "UPDATE " + tabela + "\nSET " + kolumnaLp + " = " + wyrazenieZlaczenia(tymczasowo) + "\nFROM (VALUES\n";
+	}
+
+	/**
+	 * {@code lp + plan.przesuniecie}, a w postaci tymczasowej
+	 * {@code -(lp + plan.przesuniecie)} lub {@code lp + plan.przesuniecie + k}.
+	 */
+	private String wyrazenieZlaczenia(boolean tymczasowo) {
+
+		final String wyrazenie = kolumnaLp + " + plan.przesuniecie";
+
+		if (!tymczasowo) {
+			return wyrazenie;
+		}
+
+		return przesuniecieTymczasowe == 0 ? "-(" + wyrazenie + ")" : wyrazenie + " + " + przesuniecieTymczasowe;
+	}
+
+	private String warunekZlaczenia() {
+		return "WHERE " + (warunek == null ? "" : "(" + warunek + ") AND ") + kolumnaLp
+				+ " BETWEEN plan.lp_od AND plan.lp_do;";
+	}
+
+	private static void zakonczInstrukcje(Runnable poInstrukcji) {
+		if (poInstrukcji != null) {
+			poInstrukcji.run();
+		}
+	}
+
+	private boolean czyMiesciSieWJednej(PrzesuwaniePlan plan, StringBuilder linia) {
+
+		if (plan.getLiczbaOperacji() > maksLiczbaWhen) {
+			return false;
+		}
+
+		long rozmiar = naglowek().length() + ("    ELSE " + kolumnaLp + "\nEND;").length()
+				+ (warunek == null ? 0 : "\nWHERE ".length() + warunek.length());
+
+		for (int i = 0; i < plan.getLiczbaOperacji() && rozmiar <= maksRozmiarInstrukcji; i++) {
+			linia.setLength(0);
+			dopiszWhen(linia, plan, i, false);
+			rozmiar += linia.length();
+		}
+
+		return rozmiar <= maksRozmiarInstrukcji;
+	}
+
+	/**
+	 * Pojedyncza instrukcja – w postaci zgodnej z
+	 * {@link PrzesuwaniePlan#toSqlCaseWhenBloki(String, String, String)}.
+	 */
+	private void renderujJedna(PrzesuwaniePlan plan, Appendable cel, StringBuilder linia) throws IOException {
+
+		cel.append(naglowek());
+
+		for (int i = 0; i < plan.getLiczbaOperacji(); i++) {
+			linia.setLength(0);
+			dopiszWhen(linia, plan, i, false);
+			cel.append(linia);
+		}
+
+		cel.append("    ELSE ").append(kolumnaLp).append("\n");
+		cel.append("END");
+
+		if (warunek != null) {
+			cel.append("\nWHERE ").append(warunek);
+		}
+
+		cel.append(";");
+	}
+
+	private String naglowek() {
+		return "UPDATE " + tabela + "\nSET " + kolumnaLp + " = CASE\n";
+	}
+
+	/**
+	 * {@code WHEN lp BETWEEN a AND b THEN lp + o}, a w postaci tymczasowej
+	 * {@code THEN -(lp + o)} lub {@code THEN lp + (o + k)}.
+	 */
+	private void dopiszWhen(StringBuilder sb, PrzesuwaniePlan plan, int i, boolean tymczasowo) {
+
+		final boolean negacja = tymczasowo && przesuniecieTymczasowe == 0;
+		final long offset = tymczasowo ? (long) plan.getOffset(i) + przesuniecieTymczasowe : plan.getOffset(i);
+
+		sb.append("    WHEN ").append(kolumnaLp).append(" BETWEEN ").append(plan.getLpOd(i)).append(" AND ")
+				.append(plan.getLpDo(i)).append(" THEN ");
+
+		if (negacja) {
+			sb.append("-(");
+		}
+
+		sb.append(kolumnaLp).append(offset > 0 ? " + " : " - ").append(Math.abs(offset));
+
+		if (negacja) {
+			sb.append(')');
+		}
+
+		sb.append('\n');
+	}
+
+	private void dopiszStopke(Appendable cel, int lpMin, int lpMax) throws IOException {
+
+		cel.append("    ELSE ").append(kolumnaLp).append("\nEND\nWHERE ");
+
+		if (warunek != null) {
+			cel.append('(').append(warunek).append(") AND ");
+		}
+
+		cel.append(kolumnaLp).append(" BETWEEN ").append(Integer.toString(lpMin)).append(" AND ")
+				.append(Integer.toString(lpMax)).append(';');
+	}
+
+	private int dlugoscStopki(int lpMin, int lpMax) {
+		StringBuilder sb = new StringBuilder();
+		try {
+			dopiszStopke(sb, lpMin, lpMax);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+		return sb.length();
+	}
+
+	/**
+	 * Instrukcja przenosząca wiersze z przestrzeni tymczasowej na docelowe LP.
+	 */
+	private void dopiszPrzywrocenie(Appendable cel) throws IOException {
+
+		final String k = Integer.toString(przesuniecieTymczasowe);
+
+		cel.append("UPDATE ").append(tabela).append("\nSET ").append(kolumnaLp);
+
+		if (przesuniecieTymczasowe == 0) {
+			cel.append(" = -").append(kolumnaLp);
+		} else {
+			cel.append(" = ").append(kolumnaLp).append(" - ").append(k);
+		}
+
+		cel.append("\nWHERE ");
+
+		if (warunek != null) {
+			cel.append('(').append(warunek).append(") AND ");
+		}
+
+		if (przesuniecieTymczasowe == 0) {
+			cel.append(kolumnaLp).append(" < 0;");
+		} else {
+			cel.append(kolumnaLp).append(" > ").append(k).append(';');
+		}
+	}
+
+}
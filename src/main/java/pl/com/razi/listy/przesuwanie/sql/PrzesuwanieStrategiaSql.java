@@ -0,0 +1,31 @@
+package pl.com.razi.listy.przesuwanie.sql;
+
+/**
+ * Sposób, w jaki {@link PrzesuwanieSqlRenderer} zamienia plan na instrukcje
+ * {@code UPDATE}.
+ */
+public enum PrzesuwanieStrategiaSql {
+
+	/**
+	 * Jedna instrukcja {@code CASE WHEN} ustawiająca od razu docelowe LP. Plan
+	 * dzielony jest na fazy tylko wtedy, gdy nie mieści się w limitach
+	 * instrukcji.
+	 * <p>
+	 * Wymaga, aby ewentualny indeks unikalny na LP był sprawdzany na koniec
+	 * instrukcji – bazy sprawdzające go po każdym wierszu (np. PostgreSQL bez
+	 * {@code DEFERRABLE}, MySQL) mogą zgłosić konflikt w trakcie aktualizacji.
+	 */
+	JEDNOFAZOWA,
+
+	/**
+	 * Zawsze dwie fazy. Najpierw wszystkie przesuwane zakresy trafiają do
+	 * rozłącznej przestrzeni tymczasowej (LP ujemne lub powiększone o stałą),
+	 * następnie jedna instrukcja przenosi je na docelowe LP.
+	 * <p>
+	 * Żaden stan pośredni nie zawiera powtórzonego LP, więc indeks unikalny nie
+	 * musi być wyłączany ani odraczany, a każdy wiersz aktualizowany jest co
+	 * najwyżej dwa razy.
+	 */
+	DWUFAZOWA
+
+}
@@ -1,7 +1,9 @@
 package pl.com.razi.listy.przesuwanie.wynik;
 
-import java.util.ArrayList;
+import java.util.AbstractList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.RandomAccess;
 
 /**
  * Reprezentuje plan przesunięć powstały w wyniku operacji przemieszczenia
@@ -12,8 +14,25 @@ import java.util.List;
  * zoptymalizowana do późniejszej aktualizacji danych, np. w bazie SQL przy
  * użyciu instrukcji {@code CASE WHEN}.
  * <p>
- * Klasa jest niemutowalna w części — lista operacji jest finalna, ale może
- * zostać uzupełniona przez wywołania metody {@link #dodaj(int, int, int)}.
+ * Operacje przechowywane są kolumnowo – w trzech tablicach {@code int}
+ * ({@code lpOd}, {@code lpDo}, {@code offset}) – bez osobnego obiektu na każdą
+ * operację. Do przeglądania planu służą akcesory indeksowe
+ * ({@link #getLpOd(int)} itd.) lub {@link Kursor}. Lista
+ * {@link PrzesuwanieOperacja} z {@link #getOperacje()} jest widokiem tylko do
+ * odczytu na kolumny, tworzącym obiekty operacji przy odczycie.
+ * <p>
+ * Klasa jest niemutowalna w części — operacje nie mogą być zmieniane ani
+ * usuwane, ale plan może zostać uzupełniony przez wywołania metody
+ * {@link #dodaj(int, int, int)} i uporządkowany przez {@link #normalizuj()}.
+ *
+ * <h3>Algebra planów</h3> Plan opisuje permutację LP: pozycje objęte
+ * operacjami przesuwane są o ich offset, pozostałe nie zmieniają się. Plany
+ * można składać ({@link #zloz(PrzesuwaniePlan, PrzesuwaniePlan)}) i odwracać
+ * ({@link #odwroc(PrzesuwaniePlan)}) bez wyznaczania permutacji całej listy –
+ * koszt zależy wyłącznie od liczby operacji. Wynikiem jest zawsze plan
+ * znormalizowany: operacje posortowane wg LP, bez stykających się operacji o
+ * tym samym offsecie – w tej samej postaci, w jakiej plan wyznaczają
+ * obliczenia przesunięcia.
  */
 public class PrzesuwaniePlan {
 
@@ -41,18 +60,414 @@ public class PrzesuwaniePlan {
 
 	}
 
-	private final List<PrzesuwanieOperacja> operacje = new ArrayList<>();
+	/**
+	 * Kursor przeglądający operacje planu w kolejności dodawania, bez tworzenia
+	 * obiektów dla poszczególnych operacji.
+	 *
+	 * <pre>
+	 * PrzesuwaniePlan.Kursor k = plan.kursor();
+	 * while (k.nastepna()) {
+	 *     ... k.lpOd(), k.lpDo(), k.offset() ...
+	 * }
+	 * </pre>
+	 */
+	public final class Kursor {
+
+		private int indeks = -1;
+
+		private Kursor() {
+		}
+
+		/**
+		 * Przechodzi do następnej operacji. Zwraca false, gdy operacji już nie ma.
+		 */
+		public boolean nastepna() {
+			if (indeks + 1 >= liczba) {
+				return false;
+			}
+			indeks++;
+			return true;
+		}
+
+		public int lpOd() {
+			return lpOd[indeks];
+		}
+
+		public int lpDo() {
+			return lpDo[indeks];
+		}
+
+		public int offset() {
+			return offset[indeks];
+		}
+
+	}
+
+	/**
+	 * Widok tylko do odczytu na kolumny planu zwracany przez
+	 * {@link PrzesuwaniePlan#getOperacje()}.
+	 */
+	private final class WidokOperacji extends AbstractList<PrzesuwanieOperacja> implements RandomAccess {
+
+		@Override
+		public PrzesuwanieOperacja get(int indeks) {
+			sprawdzIndeks(indeks);
+			return new PrzesuwanieOperacja(lpOd[indeks], lpDo[indeks], offset[indeks]);
+		}
+
+		@Override
+		public int size() {
+			return liczba;
+		}
+
+		void uniewaznij() {
+			modCount++;
+		}
+
+	}
+
+	private static final int POCZATKOWA_POJEMNOSC = 4;
+
+	private int[] lpOd = new int[POCZATKOWA_POJEMNOSC];
+	private int[] lpDo = new int[POCZATKOWA_POJEMNOSC];
+	private int[] offset = new int[POCZATKOWA_POJEMNOSC];
+	private int liczba;
+
+	private WidokOperacji operacje;
+
+	public PrzesuwaniePlan() {
+	}
+
+	private PrzesuwaniePlan(PrzesuwaniePlan wzor) {
+		this.lpOd = Arrays.copyOf(wzor.lpOd, Math.max(wzor.liczba, POCZATKOWA_POJEMNOSC));
+		this.lpDo = Arrays.copyOf(wzor.lpDo, Math.max(wzor.liczba, POCZATKOWA_POJEMNOSC));
+		this.offset = Arrays.copyOf(wzor.offset, Math.max(wzor.liczba, POCZATKOWA_POJEMNOSC));
+		this.liczba = wzor.liczba;
+	}
 
 	public void dodaj(int lpOd, int lpDo, int offset) {
 		if (lpOd <= lpDo && offset != 0) {
-			operacje.add(new PrzesuwanieOperacja(lpOd, lpDo, offset));
+
+			if (liczba == this.lpOd.length) {
+				int pojemnosc = liczba + (liczba >> 1) + 1;
+				this.lpOd = Arrays.copyOf(this.lpOd, pojemnosc);
+				this.lpDo = Arrays.copyOf(this.lpDo, pojemnosc);
+				this.offset = Arrays.copyOf(this.offset, pojemnosc);
+			}
+
+			this.lpOd[liczba] = lpOd;
+			this.lpDo[liczba] = lpDo;
+			this.offset[liczba] = offset;
+			liczba++;
+			uniewaznijOperacje();
 		}
 	}
 
+	/**
+	 * Zwraca liczbę operacji planu.
+	 */
+	public int getLiczbaOperacji() {
+		return liczba;
+	}
+
+	/**
+	 * Sprawdza, czy plan nie zawiera żadnej operacji.
+	 */
+	public boolean czyPusty() {
+		return liczba == 0;
+	}
+
+	/**
+	 * Początek zakresu (włącznie) operacji o podanym indeksie.
+	 */
+	public int getLpOd(int indeks) {
+		sprawdzIndeks(indeks);
+		return lpOd[indeks];
+	}
+
+	/**
+	 * Koniec zakresu (włącznie) operacji o podanym indeksie.
+	 */
+	public int getLpDo(int indeks) {
+		sprawdzIndeks(indeks);
+		return lpDo[indeks];
+	}
+
+	/**
+	 * Offset operacji o podanym indeksie.
+	 */
+	public int getOffset(int indeks) {
+		sprawdzIndeks(indeks);
+		return offset[indeks];
+	}
+
+	/**
+	 * Zwraca nowy kursor ustawiony przed pierwszą operacją.
+	 */
+	public Kursor kursor() {
+		return new Kursor();
+	}
+
+	/**
+	 * Zwraca operacje planu jako listę obiektów.
+	 * <p>
+	 * Lista jest widokiem tylko do odczytu (z dostępem swobodnym) na kolumny
+	 * planu, zapamiętywanym do najbliższej modyfikacji planu – próba jej zmiany
+	 * rzuca {@link UnsupportedOperationException}, a iteratory widoku pobranego
+	 * przed modyfikacją planu rzucają
+	 * {@link java.util.ConcurrentModificationException}. Obiekt operacji
+	 * tworzony jest przy każdym odczycie, dlatego przy dużych planach
+	 * korzystniejsze są akcesory indeksowe lub {@link #kursor()}.
+	 */
 	public List<PrzesuwanieOperacja> getOperacje() {
+		if (operacje == null) {
+			operacje = new WidokOperacji();
+		}
 		return operacje;
 	}
 
+	/**
+	 * Zwraca LP, na które plan przenosi element z podanego LP (LP spoza operacji
+	 * planu nie zmienia się). Wyszukiwanie binarne – plan musi być
+	 * znormalizowany ({@link #normalizuj()}), tak jak plany wyznaczane przez
+	 * obliczenia przesunięcia.
+	 */
+	public int lpDocelowe(int lp) {
+		final int k = pierwszaOperacjaKonczacaSieOd(lp);
+		return k < liczba && lpOd[k] <= lp ? lp + offset[k] : lp;
+	}
+
+	// ====================================================================
+	// ========================= ALGEBRA PLANÓW ===========================
+	// ====================================================================
+
+	/**
+	 * Porządkuje plan w miejscu: sortuje operacje wg LP i łączy stykające się
+	 * operacje o tym samym offsecie. Dla planu już posortowanego koszt jest
+	 * liniowy względem liczby operacji.
+	 *
+	 * @return Ten sam plan.
+	 * @throws IllegalStateException Jeżeli zakresy operacji nachodzą na siebie.
+	 */
+	public PrzesuwaniePlan normalizuj() {
+
+		uniewaznijOperacje();
+
+		if (!czyPosortowany()) {
+			sortujWgLp();
+		}
+
+		int zapisane = 0;
+
+		for (int i = 0; i < liczba; i++) {
+
+			if (zapisane > 0 && lpOd[i] <= lpDo[zapisane - 1]) {
+				throw new IllegalStateException("Zakresy operacji planu nachodzą na siebie: " + lpOd[zapisane - 1]
+						+ "-" + lpDo[zapisane - 1] + " i " + lpOd[i] + "-" + lpDo[i] + ".");
+			}
+
+			if (zapisane > 0 && lpOd[i] == lpDo[zapisane - 1] + 1 && offset[i] == offset[zapisane - 1]) {
+				lpDo[zapisane - 1] = lpDo[i];
+				continue;
+			}
+
+			lpOd[zapisane] = lpOd[i];
+			lpDo[zapisane] = lpDo[i];
+			offset[zapisane] = offset[i];
+			zapisane++;
+		}
+
+		liczba = zapisane;
+
+		return this;
+	}
+
+	/**
+	 * Składa dwa plany: wynik odpowiada wykonaniu najpierw planu
+	 * {@code pierwszy}, a następnie planu {@code drugi} (na wyniku pierwszego).
+	 * <p>
+	 * Przedziały źródłowe planu pierwszego (operacje i luki między nimi)
+	 * przechodzone są rosnąco, a ich obrazy dzielone granicami operacji planu
+	 * drugiego. Pozycje, które per saldo wracają na swoje miejsce, nie trafiają
+	 * do wyniku. Plany wejściowe nie są modyfikowane.
+	 *
+	 * @return Nowy, znormalizowany plan.
+	 */
+	public static PrzesuwaniePlan zloz(PrzesuwaniePlan pierwszy, PrzesuwaniePlan drugi) {
+
+		final PrzesuwaniePlan a = znormalizowany(pierwszy);
+		final PrzesuwaniePlan b = znormalizowany(drugi);
+
+		final PrzesuwaniePlan wynik = new PrzesuwaniePlan();
+
+		final int lpMaksDrugiego = b.liczba == 0 ? 0 : b.lpDo[b.liczba - 1];
+
+		int lp = 1;
+
+		for (int k = 0; k < a.liczba; k++) {
+			if (lp < a.lpOd[k]) {
+				wynik.zlozPrzedzial(lp, a.lpOd[k] - 1, 0, b);
+			}
+			wynik.zlozPrzedzial(a.lpOd[k], a.lpDo[k], a.offset[k], b);
+			lp = a.lpDo[k] + 1;
+		}
+
+		if (lp <= lpMaksDrugiego) {
+			wynik.zlozPrzedzial(lp, lpMaksDrugiego, 0, b);
+		}
+
+		return wynik;
+	}
+
+	/**
+	 * Wyznacza plan odwrotny – przywracający kolejność sprzed wykonania planu
+	 * (np. na potrzeby cofnięcia zmiany). Każda operacja
+	 * {@code [lpOd, lpDo] + offset} zamieniana jest na
+	 * {@code [lpOd + offset, lpDo + offset] - offset}, a wynik sortowany wg LP.
+	 *
+	 * @return Nowy, znormalizowany plan.
+	 */
+	public static PrzesuwaniePlan odwroc(PrzesuwaniePlan plan) {
+
+		final PrzesuwaniePlan wynik = new PrzesuwaniePlan();
+
+		for (int i = 0; i < plan.liczba; i++) {
+			wynik.dodaj(plan.lpOd[i] + plan.offset[i], plan.lpDo[i] + plan.offset[i], -plan.offset[i]);
+		}
+
+		return wynik.normalizuj();
+	}
+
+	/**
+	 * Zwraca plan, jeśli jest już znormalizowany, w przeciwnym razie jego
+	 * znormalizowaną kopię.
+	 */
+	private static PrzesuwaniePlan znormalizowany(PrzesuwaniePlan plan) {
+
+		for (int i = 1; i < plan.liczba; i++) {
+			if (plan.lpOd[i] <= plan.lpDo[i - 1]
+					|| (plan.lpOd[i] == plan.lpDo[i - 1] + 1 && plan.offset[i] == plan.offset[i - 1])) {
+				return new PrzesuwaniePlan(plan).normalizuj();
+			}
+		}
+
+		return plan;
+	}
+
+	/**
+	 * Dzieli obraz {@code [lpOd + przesuniecie, lpDo + przesuniecie]} granicami
+	 * operacji planu {@code drugi} i dopisuje powstałe przebiegi (w LP
+	 * źródłowych) na koniec tego planu.
+	 */
+	private void zlozPrzedzial(int lpOd, int lpDo, int przesuniecie, PrzesuwaniePlan drugi) {
+
+		final int celDo = lpDo + przesuniecie;
+
+		int cel = lpOd + przesuniecie;
+		int j = drugi.pierwszaOperacjaKonczacaSieOd(cel);
+
+		while (cel <= celDo) {
+
+			final int koniec;
+			final int offsetPrzebiegu;
+
+			if (j < drugi.liczba && drugi.lpOd[j] <= cel) {
+				koniec = Math.min(drugi.lpDo[j], celDo);
+				offsetPrzebiegu = przesuniecie + drugi.offset[j];
+				j++;
+			} else {
+				koniec = j < drugi.liczba ? Math.min(drugi.lpOd[j] - 1, celDo) : celDo;
+				offsetPrzebiegu = przesuniecie;
+			}
+
+			dopiszPrzebieg(cel - przesuniecie, koniec - przesuniecie, offsetPrzebiegu);
+			cel = koniec + 1;
+		}
+	}
+
+	/**
+	 * Dopisuje przebieg na koniec planu, przedłużając ostatnią operację, jeśli
+	 * przebieg się z nią styka i ma ten sam offset.
+	 */
+	private void dopiszPrzebieg(int lpStart, int lpKoniec, int offsetPrzebiegu) {
+
+		if (liczba > 0 && lpStart == lpDo[liczba - 1] + 1 && offsetPrzebiegu == offset[liczba - 1]) {
+			lpDo[liczba - 1] = lpKoniec;
+			uniewaznijOperacje();
+			return;
+		}
+
+		dodaj(lpStart, lpKoniec, offsetPrzebiegu);
+	}
+
+	/**
+	 * Indeks pierwszej operacji, której zakres kończy się na LP {@code >= lp}
+	 * (wyszukiwanie binarne; plan musi być posortowany).
+	 */
+	private int pierwszaOperacjaKonczacaSieOd(int lp) {
+		int lewy = 0;
+		int prawy = liczba;
+		while (lewy < prawy) {
+			final int srodek = (lewy + prawy) >>> 1;
+			if (lpDo[srodek] < lp) {
+				lewy = srodek + 1;
+			} else {
+				prawy = srodek;
+			}
+		}
+		return lewy;
+	}
+
+	private boolean czyPosortowany() {
+		for (int i = 1; i < liczba; i++) {
+			if (lpOd[i] < lpOd[i - 1]) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Sortuje kolumny wg {@code lpOd} – klucze sortowane są razem z indeksem
+	 * operacji w jednej tablicy {@code long}.
+	 */
+	private void sortujWgLp() {
+
+		final long[] klucze = new long[liczba];
+		for (int i = 0; i < liczba; i++) {
+			klucze[i] = ((long) lpOd[i] << 32) | i;
+		}
+		Arrays.sort(klucze);
+
+		final int[] noweLpOd = new int[lpOd.length];
+		final int[] noweLpDo = new int[lpDo.length];
+		final int[] nowyOffset = new int[offset.length];
+
+		for (int i = 0; i < liczba; i++) {
+			final int z = (int) klucze[i];
+			noweLpOd[i] = lpOd[z];
+			noweLpDo[i] = lpDo[z];
+			nowyOffset[i] = offset[z];
+		}
+
+		lpOd = noweLpOd;
+		lpDo = noweLpDo;
+		offset = nowyOffset;
+	}
+
+	private void uniewaznijOperacje() {
+		if (operacje != null) {
+			operacje.uniewaznij();
+			operacje = null;
+		}
+	}
+
+	private void sprawdzIndeks(int indeks) {
+		if (indeks < 0 || indeks >= liczba) {
+			throw new IndexOutOfBoundsException("Indeks: " + indeks + ", liczba operacji: " + liczba);
+		}
+	}
+
 	/**
 	 * Generuje SQL w postaci instrukcji UPDATE z użyciem konstrukcji
 	 * {@code CASE WHEN}, opisującej wszystkie przesunięcia bloków.
@@ -68,6 +483,10 @@ public class PrzesuwaniePlan {
 	 * END
 	 * WHERE id_kategorii = 3;
 	 * </pre>
+	 * <p>
+	 * Dla dużych planów – zapis strumieniowy i podział na instrukcje o
+	 * ograniczonym rozmiarze – patrz
+	 * {@link pl.com.razi.listy.przesuwanie.sql.PrzesuwanieSqlRenderer}.
 	 */
 	public String toSqlCaseWhenBloki(String tabela, String kolumnaLp, String where) {
 		StringBuilder sb = new StringBuilder();
@@ -75,15 +494,15 @@ public class PrzesuwaniePlan {
 		sb.append("UPDATE ").append(tabela).append("\n");
 		sb.append("SET ").append(kolumnaLp).append(" = CASE\n");
 
-		for (PrzesuwanieOperacja op : operacje) {
+		for (int i = 0; i < liczba; i++) {
 
-			sb.append("    WHEN ").append(kolumnaLp).append(" BETWEEN ").append(op.lpOd).append(" AND ").append(op.lpDo)
+			sb.append("    WHEN ").append(kolumnaLp).append(" BETWEEN ").append(lpOd[i]).append(" AND ").append(lpDo[i])
 					.append(" THEN ").append(kolumnaLp);
 
-			if (op.offset > 0) {
-				sb.append(" + ").append(op.offset);
+			if (offset[i] > 0) {
+				sb.append(" + ").append(offset[i]);
 			} else {
-				sb.append(" - ").append(-op.offset);
+				sb.append(" - ").append(-offset[i]);
 			}
 
 			sb.append("\n");
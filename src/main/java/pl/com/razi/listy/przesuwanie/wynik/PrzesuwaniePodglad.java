@@ -0,0 +1,113 @@
+package pl.com.razi.listy.przesuwanie.wynik;
+
+/**
+ * Podgląd skutków przesunięcia – wyznaczony z planu, bez zmiany listy.
+ * <p>
+ * Zawiera informacje:
+ * <ul>
+ * <li>zakres LP objęty zmianami (od pierwszej do ostatniej zmienionej
+ * pozycji),</li>
+ * <li>liczbę wierszy, których LP się zmieni,</li>
+ * <li>liczbę operacji planu – np. zakresów aktualizowanych w bazie danych,</li>
+ * <li>sam plan, który można od razu wykorzystać do zapisu.</li>
+ * </ul>
+ * Pozwala oszacować koszt aktualizacji przed jej wykonaniem.
+ */
+public class PrzesuwaniePodglad {
+
+	private final int przesuniecie;
+	private final PrzesuwaniePlan plan;
+
+	private final int lpOd;
+	private final int lpDo;
+	private final int liczbaWierszy;
+
+	/**
+	 * @param przesuniecie Przesunięcie rzeczywiste, dla którego wyznaczono plan.
+	 * @param plan         Plan przesunięcia (pusty, jeśli nie dojdzie do zmian).
+	 */
+	public PrzesuwaniePodglad(int przesuniecie, PrzesuwaniePlan plan) {
+		this.przesuniecie = przesuniecie;
+		this.plan = plan;
+
+		int min = Integer.MAX_VALUE;
+		int max = 0;
+		int wiersze = 0;
+
+		final PrzesuwaniePlan.Kursor op = plan.kursor();
+		while (op.nastepna()) {
+			min = Math.min(min, op.lpOd());
+			max = Math.max(max, op.lpDo());
+			wiersze += op.lpDo() - op.lpOd() + 1;
+		}
+
+		this.lpOd = plan.czyPusty() ? 0 : min;
+		this.lpDo = max;
+		this.liczbaWierszy = wiersze;
+	}
+
+	/**
+	 * Przesunięcie rzeczywiste – w trybie cyklicznym sprowadzone do rozmiaru
+	 * listy.
+	 */
+	public int getPrzesuniecie() {
+		return przesuniecie;
+	}
+
+	/**
+	 * Plan przesunięcia. Nie powinien być modyfikowany.
+	 */
+	public PrzesuwaniePlan getPlan() {
+		return plan;
+	}
+
+	/**
+	 * Określa, czy przesunięcie zmieni kolejność.
+	 */
+	public boolean czyDojdzie() {
+		return !plan.czyPusty();
+	}
+
+	/**
+	 * Pierwsze zmienione LP (0, jeśli nic się nie zmieni).
+	 */
+	public int getLpOd() {
+		return lpOd;
+	}
+
+	/**
+	 * Ostatnie zmienione LP (0, jeśli nic się nie zmieni).
+	 */
+	public int getLpDo() {
+		return lpDo;
+	}
+
+	/**
+	 * Liczba pozycji od pierwszej do ostatniej zmienionej – włącznie z
+	 * pozycjami, które w tym zakresie się nie zmienią.
+	 */
+	public int getRozmiarZakresu() {
+		return plan.czyPusty() ? 0 : lpDo - lpOd + 1;
+	}
+
+	/**
+	 * Liczba wierszy, których LP się zmieni.
+	 */
+	public int getLiczbaWierszy() {
+		return liczbaWierszy;
+	}
+
+	/**
+	 * Liczba operacji planu (spójnych zakresów o wspólnym przesunięciu).
+	 */
+	public int getLiczbaOperacji() {
+		return plan.getLiczbaOperacji();
+	}
+
+	@Override
+	public String toString() {
+		return "PrzesuwaniePodglad[przesuniecie=" + przesuniecie + ", lp=" + lpOd + ".." + lpDo + ", wiersze="
+				+ liczbaWierszy + ", operacje=" + plan.getLiczbaOperacji() + "]";
+	}
+
+}
@@ -0,0 +1,70 @@
+package pl.com.razi.listy.przesuwanie.wynik;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.RandomAccess;
+
+/**
+ * Widok listy po przesunięciu – tylko do odczytu – bez kopiowania elementów.
+ * <p>
+ * Widok przechowuje wyłącznie listę źródłową oraz plan odwrotny do planu
+ * przesunięcia. Element na pozycji {@code i} odczytywany jest ze źródła spod
+ * LP wyznaczonego przez plan odwrotny
+ * ({@link PrzesuwaniePlan#lpDocelowe(int)}) – koszt {@code get} to wyszukiwanie
+ * binarne wśród operacji planu. Pamięć wyniku zależy więc od liczby
+ * przesuniętych bloków, a nie od rozmiaru listy: przesunięcie 10 wierszy z 2
+ * mln nie kopiuje 2 mln referencji.
+ * <p>
+ * Lista źródłowa nie powinna być modyfikowana, dopóki widok jest używany. Gdy
+ * potrzebna jest samodzielna, modyfikowalna lista, należy wywołać
+ * {@link #materializuj()}.
+ *
+ * @param <T> typ elementów listy
+ */
+public final class PrzesuwanieWidokListy<T> extends AbstractList<T> implements RandomAccess {
+
+	private final List<T> zrodlo;
+	private final PrzesuwaniePlan planOdwrotny;
+
+	/**
+	 * @param zrodlo Lista sprzed przesunięcia. Lista bez dostępu swobodnego
+	 *               ({@link RandomAccess}) jest kopiowana.
+	 * @param plan   Znormalizowany plan przesunięcia.
+	 */
+	PrzesuwanieWidokListy(List<T> zrodlo, PrzesuwaniePlan plan) {
+		this.zrodlo = zrodlo instanceof RandomAccess ? zrodlo : new ArrayList<>(zrodlo);
+		this.planOdwrotny = PrzesuwaniePlan.odwroc(plan);
+	}
+
+	@Override
+	public T get(int indeks) {
+		Objects.checkIndex(indeks, zrodlo.size());
+		return zrodlo.get(planOdwrotny.lpDocelowe(indeks + 1) - 1);
+	}
+
+	@Override
+	public int size() {
+		return zrodlo.size();
+	}
+
+	/**
+	 * Tworzy nową, modyfikowalną listę o kolejności widoku – kopię źródła, na
+	 * której przepisywane są wyłącznie pozycje objęte planem.
+	 */
+	public List<T> materializuj() {
+
+		final List<T> lista = new ArrayList<>(zrodlo);
+
+		final PrzesuwaniePlan.Kursor op = planOdwrotny.kursor();
+		while (op.nastepna()) {
+			for (int lp = op.lpOd(); lp <= op.lpDo(); lp++) {
+				lista.set(lp - 1, zrodlo.get(lp + op.offset() - 1));
+			}
+		}
+
+		return lista;
+	}
+
+}
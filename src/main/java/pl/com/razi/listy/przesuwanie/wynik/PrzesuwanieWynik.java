@@ -3,6 +3,8 @@ package pl.com.razi.listy.przesuwanie.wynik;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.function.ObjIntConsumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * Reprezentuje wynik operacji przesunięcia elementów listy.
@@ -14,10 +16,26 @@ import java.util.function.ObjIntConsumer;
  * bazy danych).</li>
  * </ul>
  * <p>
+ * Lista wynikowa może być samodzielną kopią albo – w wyniku utworzonym przez
+ * {@link #widok(List, PrzesuwaniePlan)} – widokiem tylko do odczytu
+ * ({@link PrzesuwanieWidokListy}) na listę źródłową i plan, bez kopiowania
+ * elementów.
+ * <p>
  * Klasa jest niemutowalna — przechowuje finalne wyniki operacji przesuwania.
  */
 public class PrzesuwanieWynik<T> {
 
+	/**
+	 * Odbiorca zmiany numeru porządkowego elementu – otrzymuje element, jego LP
+	 * sprzed przesunięcia oraz nowe LP.
+	 */
+	@FunctionalInterface
+	public interface ZmianaLp<T> {
+
+		void accept(T element, int lpStare, int lpNowe);
+
+	}
+
     private final List<T> lista;
     private final PrzesuwaniePlan plan;
 
@@ -34,6 +52,18 @@ public class PrzesuwanieWynik<T> {
         return plan;
     }
 
+	/**
+	 * Zwraca listę wynikową jako samodzielną, modyfikowalną listę. Widok
+	 * ({@link PrzesuwanieWidokListy}) jest przy każdym wywołaniu materializowany
+	 * do nowej listy, lista samodzielna zwracana jest bez kopiowania.
+	 */
+	public List<T> getListaZmaterializowana() {
+		if (lista instanceof PrzesuwanieWidokListy) {
+			return ((PrzesuwanieWidokListy<T>) lista).materializuj();
+		}
+		return lista;
+	}
+
 	/**
 	 * Ustawia numery porządkowe (LP) zaczynając od 1.
 	 * <p>
@@ -62,8 +92,90 @@ public class PrzesuwanieWynik<T> {
 		}
 	}
 
+	/**
+	 * Ustawia numery porządkowe (LP) zaczynając od 1 wyłącznie elementom, których
+	 * LP zmieniło się w wyniku przesunięcia.
+	 * <p>
+	 * Patrz: {@link #ustawLpZmienione(int, ZmianaLp)}.
+	 */
+	public void ustawLpZmienione(ObjIntConsumer<T> setter) {
+		ustawLpZmienione(1, setter);
+	}
+
+	/**
+	 * Ustawia numery porządkowe (LP) zaczynając od przekazanej wartości
+	 * wyłącznie elementom, których LP zmieniło się w wyniku przesunięcia.
+	 * <p>
+	 * Patrz: {@link #ustawLpZmienione(int, ZmianaLp)}.
+	 */
+	public void ustawLpZmienione(int lpStart, ObjIntConsumer<T> setter) {
+		ustawLpZmienione(lpStart, (element, lpStare, lpNowe) -> setter.accept(element, lpNowe));
+	}
+
+	/**
+	 * Wariant {@link #ustawLp(int, ObjIntConsumer)} wywołujący setter wyłącznie
+	 * dla elementów, których LP zmieniło się w wyniku przesunięcia.
+	 * <p>
+	 * Przechodzone są jedynie zakresy planu, a nie cała lista – koszt zależy od
+	 * liczby przesuniętych wierszy. Po przesunięciu 3 wierszy listy miliona
+	 * encji JPA zmienione (i zapisywane przy {@code flush}) są tylko encje, których
+	 * pozycja faktycznie się zmieniła. Zakłada się, że pozostałe elementy mają już
+	 * LP zgodne z pozycją na liście sprzed przesunięcia.
+	 *
+	 * @param lpStart Numer porządkowy pierwszego elementu listy.
+	 * @param zmiana  Odbiorca otrzymujący element, jego poprzednie i nowe LP.
+	 */
+	public void ustawLpZmienione(int lpStart, ZmianaLp<T> zmiana) {
+		final PrzesuwaniePlan.Kursor op = plan.kursor();
+		while (op.nastepna()) {
+			for (int lp = op.lpOd(); lp <= op.lpDo(); lp++) {
+				final int lpNowe = lp + op.offset();
+				zmiana.accept(lista.get(lpNowe - 1), lpStart + lp - 1, lpStart + lpNowe - 1);
+			}
+		}
+	}
+
+	/**
+	 * Zwraca strumień zmian pozycji (LP liczone od 1).
+	 * <p>
+	 * Patrz: {@link #zmiany(int)}.
+	 */
+	public Stream<PrzesuwanieZmiana<T>> zmiany() {
+		return zmiany(1);
+	}
+
+	/**
+	 * Zwraca leniwy strumień zmian pozycji – element, jego poprzednie i nowe LP –
+	 * wyłącznie dla elementów, których LP zmieniło się w wyniku przesunięcia (np.
+	 * do unieważniania pamięci podręcznej lub dziennika zmian).
+	 * <p>
+	 * Zmiany wyznaczane są w trakcie przechodzenia zakresów planu, bez
+	 * porównywania list i bez pośredniej kolekcji. Strumień jest uporządkowany wg
+	 * poprzedniego LP, ma znany rozmiar i dzieli się na części po operacjach
+	 * planu, więc nadaje się do przetwarzania równoległego
+	 * ({@link Stream#parallel()}).
+	 *
+	 * @param lpStart Numer porządkowy pierwszego elementu listy.
+	 */
+	public Stream<PrzesuwanieZmiana<T>> zmiany(int lpStart) {
+		return StreamSupport.stream(new PrzesuwanieZmianySpliterator<>(lista, plan, lpStart), false);
+	}
+
 	public static <T> PrzesuwanieWynik<T> getInstancePusty(List<T> lista) {
 		return new PrzesuwanieWynik<T>(new ArrayList<>(lista), new PrzesuwaniePlan());
 	}
 
+	/**
+	 * Tworzy wynik, którego lista jest widokiem na listę źródłową sprzed
+	 * przesunięcia i plan ({@link PrzesuwanieWidokListy}) – pamięć wyniku zależy
+	 * od rozmiaru planu, a nie listy.
+	 *
+	 * @param zrodlo Lista sprzed przesunięcia. Nie powinna być modyfikowana,
+	 *               dopóki wynik jest używany.
+	 * @param plan   Znormalizowany plan przesunięcia (np. pusty).
+	 */
+	public static <T> PrzesuwanieWynik<T> widok(List<T> zrodlo, PrzesuwaniePlan plan) {
+		return new PrzesuwanieWynik<T>(new PrzesuwanieWidokListy<>(zrodlo, plan), plan);
+	}
+
 }
@@ -0,0 +1,38 @@
+package pl.com.razi.listy.przesuwanie.wynik;
+
+/**
+ * Reprezentuje wynik operacji przesunięcia elementów tablicy typu
+ * {@code int}.
+ * <p>
+ * Zawiera zarówno:
+ * <ul>
+ * <li>nową tablicę elementów po przemieszczeniu,</li>
+ * <li>plan przesunięć opisujący zmiany pozycji (przydatny np. do aktualizacji
+ * bazy danych).</li>
+ * </ul>
+ * <p>
+ * Odpowiednik {@link PrzesuwanieWynik} bez opakowywania elementów.
+ */
+public class PrzesuwanieWynikInt {
+
+	private final int[] tablica;
+	private final PrzesuwaniePlan plan;
+
+	public PrzesuwanieWynikInt(int[] tablica, PrzesuwaniePlan plan) {
+		this.tablica = tablica;
+		this.plan = plan;
+	}
+
+	public int[] getTablica() {
+		return tablica;
+	}
+
+	public PrzesuwaniePlan getPlan() {
+		return plan;
+	}
+
+	public static PrzesuwanieWynikInt getInstancePusty(int[] tablica) {
+		return new PrzesuwanieWynikInt(tablica.clone(), new PrzesuwaniePlan());
+	}
+
+}
@@ -0,0 +1,38 @@
+package pl.com.razi.listy.przesuwanie.wynik;
+
+/**
+ * Reprezentuje wynik operacji przesunięcia elementów tablicy typu
+ * {@code long}.
+ * <p>
+ * Zawiera zarówno:
+ * <ul>
+ * <li>nową tablicę elementów po przemieszczeniu,</li>
+ * <li>plan przesunięć opisujący zmiany pozycji (przydatny np. do aktualizacji
+ * bazy danych).</li>
+ * </ul>
+ * <p>
+ * Odpowiednik {@link PrzesuwanieWynik} bez opakowywania elementów.
+ */
+public class PrzesuwanieWynikLong {
+
+	private final long[] tablica;
+	private final PrzesuwaniePlan plan;
+
+	public PrzesuwanieWynikLong(long[] tablica, PrzesuwaniePlan plan) {
+		this.tablica = tablica;
+		this.plan = plan;
+	}
+
+	public long[] getTablica() {
+		return tablica;
+	}
+
+	public PrzesuwaniePlan getPlan() {
+		return plan;
+	}
+
+	public static PrzesuwanieWynikLong getInstancePusty(long[] tablica) {
+		return new PrzesuwanieWynikLong(tablica.clone(), new PrzesuwaniePlan());
+	}
+
+}
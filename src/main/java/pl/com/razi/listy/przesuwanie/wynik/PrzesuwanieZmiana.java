@@ -0,0 +1,32 @@
+package pl.com.razi.listy.przesuwanie.wynik;
+
+/**
+ * Zmiana pozycji pojedynczego elementu w wyniku przesunięcia.
+ * <p>
+ * Zawiera informacje:
+ * <ul>
+ * <li>{@code element} – przesunięty element,</li>
+ * <li>{@code lpStare} – numer porządkowy sprzed przesunięcia,</li>
+ * <li>{@code lpNowe} – numer porządkowy po przesunięciu.</li>
+ * </ul>
+ *
+ * @param <T> typ elementów listy
+ */
+public class PrzesuwanieZmiana<T> {
+
+	public final T element;
+	public final int lpStare;
+	public final int lpNowe;
+
+	public PrzesuwanieZmiana(T element, int lpStare, int lpNowe) {
+		this.element = element;
+		this.lpStare = lpStare;
+		this.lpNowe = lpNowe;
+	}
+
+	@Override
+	public String toString() {
+		return element + ": " + lpStare + " -> " + lpNowe;
+	}
+
+}
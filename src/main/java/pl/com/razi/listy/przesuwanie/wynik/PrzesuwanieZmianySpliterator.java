@@ -0,0 +1,153 @@
+package pl.com.razi.listy.przesuwanie.wynik;
+
+import java.util.List;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+
+/**
+ * Spliterator zmian pozycji elementów, przechodzący wyłącznie zakresy planu.
+ * <p>
+ * Stan to bieżąca pozycja {@code (operacja, lp)} oraz ostatnia pozycja
+ * {@code (operacjaOstatnia, lpOstatnie)} – bez żadnej pośredniej kolekcji.
+ * Podział następuje w połowie pozostałych operacji, a gdy została jedna – w
+ * połowie jej zakresu, dzięki czemu strumienie równoległe dzielą również plan
+ * złożony z jednego dużego bloku.
+ * <p>
+ * Lista musi zapewniać szybki dostęp swobodny – element odczytywany jest z jego
+ * pozycji po przesunięciu.
+ */
+final class PrzesuwanieZmianySpliterator<T> implements Spliterator<PrzesuwanieZmiana<T>> {
+
+	private final List<T> lista;
+	private final PrzesuwaniePlan plan;
+	private final int lpStart;
+
+	private int operacja;
+	private int lp;
+	private final int operacjaOstatnia;
+	private final int lpOstatnie;
+
+	private long pozostalo;
+
+	PrzesuwanieZmianySpliterator(List<T> lista, PrzesuwaniePlan plan, int lpStart) {
+		this(lista, plan, lpStart, 0, plan.czyPusty() ? 0 : plan.getLpOd(0), plan.getLiczbaOperacji() - 1,
+				plan.czyPusty() ? -1 : plan.getLpDo(plan.getLiczbaOperacji() - 1));
+	}
+
+	private PrzesuwanieZmianySpliterator(List<T> lista, PrzesuwaniePlan plan, int lpStart, int operacja, int lp,
+			int operacjaOstatnia, int lpOstatnie) {
+		this.lista = lista;
+		this.plan = plan;
+		this.lpStart = lpStart;
+		this.operacja = operacja;
+		this.lp = lp;
+		this.operacjaOstatnia = operacjaOstatnia;
+		this.lpOstatnie = lpOstatnie;
+		this.pozostalo = policz(plan, operacja, lp, operacjaOstatnia, lpOstatnie);
+	}
+
+	@Override
+	public boolean tryAdvance(Consumer<? super PrzesuwanieZmiana<T>> akcja) {
+
+		if (pozostalo == 0) {
+			return false;
+		}
+
+		final int lpNowe = lp + plan.getOffset(operacja);
+		akcja.accept(new PrzesuwanieZmiana<>(lista.get(lpNowe - 1), lpStart + lp - 1, lpStart + lpNowe - 1));
+
+		pozostalo--;
+		if (pozostalo > 0) {
+			if (lp == plan.getLpDo(operacja)) {
+				operacja++;
+				lp = plan.getLpOd(operacja);
+			} else {
+				lp++;
+			}
+		}
+
+		return true;
+	}
+
+	@Override
+	public void forEachRemaining(Consumer<? super PrzesuwanieZmiana<T>> akcja) {
+
+		while (pozostalo > 0) {
+
+			final int offset = plan.getOffset(operacja);
+			final int koniec = operacja == operacjaOstatnia ? lpOstatnie : plan.getLpDo(operacja);
+
+			for (int i = lp; i <= koniec; i++) {
+				akcja.accept(new PrzesuwanieZmiana<>(lista.get(i + offset - 1), lpStart + i - 1,
+						lpStart + i + offset - 1));
+			}
+
+			pozostalo -= koniec - lp + 1;
+			if (pozostalo > 0) {
+				operacja++;
+				lp = plan.getLpOd(operacja);
+			}
+		}
+	}
+
+	@Override
+	public Spliterator<PrzesuwanieZmiana<T>> trySplit() {
+
+		if (pozostalo < 2) {
+			return null;
+		}
+
+		final PrzesuwanieZmianySpliterator<T> poczatek;
+
+		if (operacja < operacjaOstatnia) {
+
+			final int srodek = (operacja + operacjaOstatnia) >>> 1;
+			poczatek = new PrzesuwanieZmianySpliterator<>(lista, plan, lpStart, operacja, lp, srodek,
+					plan.getLpDo(srodek));
+
+			operacja = srodek + 1;
+			lp = plan.getLpOd(operacja);
+
+		} else {
+
+			final int srodek = lp + (lpOstatnie - lp) / 2;
+			poczatek = new PrzesuwanieZmianySpliterator<>(lista, plan, lpStart, operacja, lp, operacja, srodek);
+
+			lp = srodek + 1;
+		}
+
+		pozostalo -= poczatek.pozostalo;
+		return poczatek;
+	}
+
+	@Override
+	public long estimateSize() {
+		return pozostalo;
+	}
+
+	@Override
+	public int characteristics() {
+		return ORDERED | SIZED | SUBSIZED | NONNULL | IMMUTABLE;
+	}
+
+	/**
+	 * Liczba pozycji od {@code (operacja, lp)} do
+	 * {@code (operacjaOstatnia, lpOstatnie)} włącznie.
+	 */
+	private static long policz(PrzesuwaniePlan plan, int operacja, int lp, int operacjaOstatnia, int lpOstatnie) {
+
+		if (operacja > operacjaOstatnia) {
+			return 0;
+		}
+		if (operacja == operacjaOstatnia) {
+			return lpOstatnie - lp + 1;
+		}
+
+		long liczba = plan.getLpDo(operacja) - lp + 1L;
+		for (int k = operacja + 1; k < operacjaOstatnia; k++) {
+			liczba += plan.getLpDo(k) - plan.getLpOd(k) + 1L;
+		}
+		return liczba + lpOstatnie - plan.getLpOd(operacjaOstatnia) + 1;
+	}
+
+}
@@ -0,0 +1,205 @@
+package pl.com.razi.listy.przesuwanie;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import pl.com.razi.listy.przesuwanie.PrzesuwanieObsluga.TrybPrzesuwania;
+import pl.com.razi.listy.przesuwanie.util.PrzesuwanieAssertions;
+import pl.com.razi.listy.przesuwanie.util.PrzesuwanieFactory;
+import pl.com.razi.listy.przesuwanie.util.PrzesuwanieLosowe;
+import pl.com.razi.listy.przesuwanie.util.PrzesuwanieScenariuszBrzegowy;
+import pl.com.razi.listy.przesuwanie.util.PrzesuwanieTestDane;
+import pl.com.razi.listy.przesuwanie.util.PrzesuwanieTestLogger;
+import pl.com.razi.listy.przesuwanie.wynik.PrzesuwaniePlan;
+
+public class PrzesuwanieHistoriaTest {
+
+	private final PrzesuwanieLosowe losowe = new PrzesuwanieLosowe();
+
+	private final PrzesuwanieAssertions assertions = new PrzesuwanieAssertions(new PrzesuwanieTestLogger(false));
+
+	@Test
+	void cofnijIPonow_odtwarzajaKolejneStany() throws Exception {
+
+		for (TrybPrzesuwania tryb : TrybPrzesuwania.values()) {
+
+			PrzesuwanieObsluga<Integer> obsluga = new PrzesuwanieObsluga.Builder<Integer>().trybPrzesuwania(tryb)
+					.build();
+
+			for (int proba = 0; proba < PrzesuwanieLosowe.LICZBA_PROB; proba++) {
+
+				int rozmiarListy = losowe.rozmiarListy(30);
+				List<Integer> lista = PrzesuwanieFactory.liczby(rozmiarListy);
+				if (proba % 2 != 0) {
+					lista = new LinkedList<>(lista);
+				}
+
+				PrzesuwanieHistoria historia = new PrzesuwanieHistoria();
+				List<List<Integer>> stany = new ArrayList<>();
+				stany.add(new ArrayList<>(lista));
+
+				for (int ruch = 0; ruch < 8; ruch++) {
+					PrzesuwaniePlan plan = obsluga.przesunWMiejscu(lista, losowe.indeksy(rozmiarListy, 5),
+							losowe.przesuniecie(3));
+					if (!plan.czyPusty()) {
+						historia.zapisz(plan);
+						stany.add(new ArrayList<>(lista));
+					}
+				}
+
+				String opis = tryb + ", próba " + proba;
+				assertEquals(stany.size() - 1, historia.getLiczbaKrokowDoCofniecia(), opis);
+
+				for (int krok = stany.size() - 2; krok >= 0; krok--) {
+					historia.cofnij(lista);
+					assertEquals(stany.get(krok), lista, opis);
+				}
+				assertFalse(historia.czyMoznaCofnac(), opis);
+				assertTrue(historia.cofnij(lista).czyPusty(), opis);
+
+				for (int krok = 1; krok < stany.size(); krok++) {
+					historia.ponow(lista);
+					assertEquals(stany.get(krok), lista, opis);
+				}
+				assertFalse(historia.czyMoznaPonowic(), opis);
+			}
+		}
+	}
+
+	@Test
+	void cofnijIPonow_przypadkiBrzegowe() throws Exception {
+
+		for (PrzesuwanieScenariuszBrzegowy scenariusz : PrzesuwanieScenariuszBrzegowy.values()) {
+
+			PrzesuwanieObsluga<PrzesuwanieTestDane> obsluga = new PrzesuwanieObsluga.Builder<PrzesuwanieTestDane>()
+					.trybPrzesuwania(scenariusz.getTryb()).build();
+			List<PrzesuwanieTestDane> lista = scenariusz.wszystkie();
+
+			PrzesuwanieHistoria historia = new PrzesuwanieHistoria();
+			historia.zapisz(obsluga.przesunWMiejscu(lista, scenariusz.indeksy(), scenariusz.getPrzesuniecie()));
+
+			String opis = scenariusz.opis();
+			assertions.assertLista(lista, scenariusz.oczekiwane());
+			// krok bez zmian nie trafia do historii
+			assertEquals(scenariusz.czyDojdzie(), historia.czyMoznaCofnac(), opis);
+
+			historia.cofnij(lista);
+			assertions.assertLista(lista, scenariusz.wszystkie());
+
+			historia.ponow(lista);
+			assertions.assertLista(lista, scenariusz.oczekiwane());
+		}
+	}
+
+	@Test
+	void cofnij_planPrzywracaKolejnoscSprzedKroku() throws Exception {
+
+		PrzesuwanieObsluga<Integer> obsluga = new PrzesuwanieObsluga.Builder<Integer>().build();
+		List<Integer> lista = new ArrayList<>(List.of(1, 2, 3, 4, 5, 6));
+
+		PrzesuwanieHistoria historia = new PrzesuwanieHistoria();
+		PrzesuwaniePlan plan = obsluga.przesunWMiejscu(lista, new int[] { 3, 4 }, -2);
+		historia.zapisz(plan);
+
+		PrzesuwaniePlan odwrotny = historia.cofnij();
+
+		assertEquals(PrzesuwanieObliczeniaTest.opis(PrzesuwaniePlan.odwroc(plan)),
+				PrzesuwanieObliczeniaTest.opis(odwrotny));
+		assertEquals(PrzesuwanieObliczeniaTest.opis(plan), PrzesuwanieObliczeniaTest.opis(historia.ponow()));
+		assertEquals(List.of(1, 4, 5, 2, 3, 6), lista);
+	}
+
+	@Test
+	void zapisz_poCofnieciu_usuwaKrokiDoPonowienia() throws Exception {
+
+		PrzesuwanieObsluga<Integer> obsluga = new PrzesuwanieObsluga.Builder<Integer>().build();
+		List<Integer> lista = new ArrayList<>(List.of(1, 2, 3, 4, 5));
+
+		PrzesuwanieHistoria historia = new PrzesuwanieHistoria();
+		historia.zapisz(obsluga.przesunWMiejscu(lista, new int[] { 4 }, -1));
+		historia.zapisz(obsluga.przesunWMiejscu(lista, new int[] { 0 }, 2));
+		historia.cofnij(lista);
+
+		historia.zapisz(obsluga.przesunWMiejscu(lista, new int[] { 1 }, 1));
+
+		assertFalse(historia.czyMoznaPonowic());
+		assertEquals(2, historia.getLiczbaKrokowDoCofniecia());
+		// każdy krok – element i sąsiad, nad którym przeskoczył
+		assertEquals(4, historia.getLiczbaOperacji());
+	}
+
+	@Test
+	void zapisz_limitOsiagnietyDokladnie_usuwaDopieroPrzyPrzekroczeniu() {
+
+		PrzesuwanieHistoria historia = new PrzesuwanieHistoria(4);
+
+		historia.zapisz(zamianaSasiednich(1));
+		historia.zapisz(zamianaSasiednich(3));
+
+		// dwa kroki po dwie operacje – dokładnie limit
+		assertEquals(2, historia.getLiczbaKrokowDoCofniecia());
+		assertEquals(4, historia.getLiczbaOperacji());
+
+		historia.zapisz(zamianaSasiednich(5));
+
+		assertEquals(2, historia.getLiczbaKrokowDoCofniecia());
+		assertEquals(4, historia.getLiczbaOperacji());
+		assertEquals(5, historia.cofnij().getLpOd(0));
+		assertEquals(3, historia.cofnij().getLpOd(0));
+		assertFalse(historia.czyMoznaCofnac());
+
+		PrzesuwanieHistoria jedenKrok = new PrzesuwanieHistoria(2);
+		jedenKrok.zapisz(zamianaSasiednich(1));
+
+		// krok równy limitowi mieści się w historii
+		assertTrue(jedenKrok.czyMoznaCofnac());
+		assertEquals(2, jedenKrok.getLiczbaOperacji());
+	}
+
+	@Test
+	void zapisz_przekroczonyLimit_usuwaNajstarszeKroki() {
+
+		PrzesuwanieHistoria historia = new PrzesuwanieHistoria(5);
+
+		for (int krok = 0; krok < 4; krok++) {
+			historia.zapisz(zamianaSasiednich(2 * krok + 1));
+		}
+
+		assertEquals(2, historia.getLiczbaKrokowDoCofniecia());
+		assertEquals(4, historia.getLiczbaOperacji());
+		// najnowszy krok zachowany
+		assertEquals(7, historia.cofnij().getLpOd(0));
+
+		PrzesuwaniePlan zaDuzy = new PrzesuwaniePlan();
+		for (int lp = 1; lp <= 6; lp++) {
+			zaDuzy.dodaj(2 * lp - 1, 2 * lp - 1, 1);
+		}
+		historia.zapisz(zaDuzy);
+
+		assertFalse(historia.czyMoznaCofnac());
+		assertFalse(historia.czyMoznaPonowic());
+		assertEquals(0, historia.getLiczbaOperacji());
+	}
+
+	// ============================================================
+	// POMOCNICZE
+	// ============================================================
+
+	/**
+	 * Zamiana pozycji {@code lp} i {@code lp + 1} – dwie operacje.
+	 */
+	private static PrzesuwaniePlan zamianaSasiednich(int lp) {
+		PrzesuwaniePlan plan = new PrzesuwaniePlan();
+		plan.dodaj(lp, lp, 1);
+		plan.dodaj(lp + 1, lp + 1, -1);
+		return plan;
+	}
+
+}
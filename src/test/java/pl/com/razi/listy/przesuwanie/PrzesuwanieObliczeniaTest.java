@@ -0,0 +1,399 @@
+package pl.com.razi.listy.przesuwanie;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.jupiter.api.Test;
+
+import pl.com.razi.listy.przesuwanie.PrzesuwanieObsluga.TrybPrzesuwania;
+import pl.com.razi.listy.przesuwanie.model.PrzesuwanieIndeksyBlok;
+import pl.com.razi.listy.przesuwanie.wynik.PrzesuwaniePlan;
+import pl.com.razi.listy.przesuwanie.wynik.PrzesuwaniePlan.PrzesuwanieOperacja;
+import pl.com.razi.listy.przesuwanie.wynik.PrzesuwanieWidokListy;
+import pl.com.razi.listy.przesuwanie.wynik.PrzesuwanieWynik;
+
+public class PrzesuwanieObliczeniaTest {
+
+	private static final int LICZBA_PROB = 3_000;
+
+	private final Random random = new Random(2024);
+
+	// ============================================================
+	// generujPlanZBlokow
+	// ============================================================
+
+	@Test
+	void generujPlanZBlokow_zgodnyZGenerujPlan_liniowe() {
+		porownajZPermutacja(TrybPrzesuwania.LINIOWE);
+	}
+
+	@Test
+	void generujPlanZBlokow_zgodnyZGenerujPlan_cykliczne() {
+		porownajZPermutacja(TrybPrzesuwania.CYKLICZNE);
+	}
+
+	@Test
+	void generujPlanZBlokow_zgodnyZGenerujPlan_dociskajace() {
+		porownajZPermutacja(TrybPrzesuwania.DOCISKAJACE);
+	}
+
+	private void porownajZPermutacja(TrybPrzesuwania tryb) {
+
+		for (int proba = 0; proba < LICZBA_PROB; proba++) {
+
+			int rozmiarListy = 1 + random.nextInt(40);
+			List<PrzesuwanieIndeksyBlok> bloki = losoweBloki(rozmiarListy);
+			int przesuniecie = PrzesuwanieWejscie.obliczRzeczywistePrzesuniecie(tryb,
+					random.nextInt(2 * rozmiarListy + 1) - rozmiarListy, rozmiarListy);
+
+			if (!PrzesuwanieObliczenia.czyDoPrzesunieciaDojdzie(tryb, bloki, rozmiarListy, przesuniecie)) {
+				continue;
+			}
+
+			int[] permutacja = PrzesuwanieObliczenia.obliczDocelowaPermutacje(tryb, bloki, rozmiarListy, przesuniecie);
+
+			PrzesuwaniePlan oczekiwany = PrzesuwanieObliczenia.generujPlan(permutacja, rozmiarListy);
+			PrzesuwaniePlan wynik = PrzesuwanieObliczenia.generujPlanZBlokow(tryb, bloki, rozmiarListy, przesuniecie);
+
+			assertEquals(opis(oczekiwany), opis(wynik),
+					tryb + ", n=" + rozmiarListy + ", przesunięcie=" + przesuniecie + ", bloki=" + opisBlokow(bloki));
+		}
+	}
+
+	// ============================================================
+	// wykonaj
+	// ============================================================
+
+	@Test
+	void wykonaj_zgodnyZPermutacja_wspolnyObszarRoboczy() {
+
+		PrzesuwanieObszarRoboczy obszar = new PrzesuwanieObszarRoboczy();
+
+		for (TrybPrzesuwania tryb : TrybPrzesuwania.values()) {
+			for (int proba = 0; proba < LICZBA_PROB; proba++) {
+
+				int rozmiarListy = 1 + random.nextInt(40);
+				List<PrzesuwanieIndeksyBlok> bloki = losoweBloki(rozmiarListy);
+				int przesuniecie = PrzesuwanieWejscie.obliczRzeczywistePrzesuniecie(tryb,
+						random.nextInt(2 * rozmiarListy + 1) - rozmiarListy, rozmiarListy);
+
+				if (!PrzesuwanieObliczenia.czyDoPrzesunieciaDojdzie(tryb, bloki, rozmiarListy, przesuniecie)) {
+					continue;
+				}
+
+				List<Integer> wszystkie = new ArrayList<>();
+				for (int i = 1; i <= rozmiarListy; i++) {
+					wszystkie.add(i);
+				}
+
+				int[] permutacja = PrzesuwanieObliczenia.obliczDocelowaPermutacje(tryb, bloki, rozmiarListy,
+						przesuniecie);
+				List<Integer> oczekiwana = PrzesuwanieObliczenia.przebudujListe(permutacja, wszystkie);
+
+				List<Integer> sekwencyjna = random.nextBoolean() ? wszystkie : new LinkedList<>(wszystkie);
+
+				assertEquals(oczekiwana, PrzesuwanieObliczenia.wykonaj(tryb, sekwencyjna, bloki, przesuniecie, null,
+						obszar).getLista(), tryb + ", n=" + rozmiarListy + ", przesunięcie=" + przesuniecie
+								+ ", bloki=" + opisBlokow(bloki));
+			}
+		}
+	}
+
+	@Test
+	void obszarRoboczy_duzyBuforPorzucanyPoUzyciu() {
+
+		PrzesuwanieObszarRoboczy obszar = new PrzesuwanieObszarRoboczy();
+
+		Object[] maly = obszar.bufor(100);
+		obszar.zwolnijBufor(100);
+		assertSame(maly, obszar.bufor(50));
+		obszar.zwolnijBufor(50);
+
+		Object[] duzy = obszar.bufor(PrzesuwanieObszarRoboczy.MAKS_ZACHOWANY_BUFOR + 1);
+		duzy[0] = "element";
+		obszar.zwolnijBufor(1);
+		assertTrue(obszar.bufor(1).length <= PrzesuwanieObszarRoboczy.MAKS_ZACHOWANY_BUFOR);
+	}
+
+	// ============================================================
+	// przesunWMiejscu
+	// ============================================================
+
+	@Test
+	void przesunWMiejscu_zgodnyZWykonaj() {
+
+		for (TrybPrzesuwania tryb : TrybPrzesuwania.values()) {
+			for (int proba = 0; proba < LICZBA_PROB; proba++) {
+
+				int rozmiarListy = 1 + random.nextInt(40);
+				List<PrzesuwanieIndeksyBlok> bloki = losoweBloki(rozmiarListy);
+				int przesuniecie = PrzesuwanieWejscie.obliczRzeczywistePrzesuniecie(tryb,
+						random.nextInt(2 * rozmiarListy + 1) - rozmiarListy, rozmiarListy);
+
+				List<Integer> wszystkie = new ArrayList<>();
+				for (int i = 1; i <= rozmiarListy; i++) {
+					wszystkie.add(i);
+				}
+
+				List<Integer> oczekiwana = PrzesuwanieObliczenia.wykonaj(tryb, wszystkie, bloki, przesuniecie)
+						.getLista();
+
+				List<Integer> wMiejscu = new ArrayList<>(wszystkie);
+				PrzesuwanieObliczenia.przesunWMiejscu(tryb, wMiejscu, bloki, przesuniecie);
+
+				assertEquals(oczekiwana, wMiejscu, tryb + ", n=" + rozmiarListy + ", przesunięcie=" + przesuniecie
+						+ ", bloki=" + opisBlokow(bloki));
+
+				// lista bez dostępu swobodnego
+				List<Integer> wMiejscuSekwencyjnie = new LinkedList<>(wszystkie);
+				PrzesuwanieObliczenia.przesunWMiejscu(tryb, wMiejscuSekwencyjnie, bloki, przesuniecie);
+
+				assertEquals(oczekiwana, wMiejscuSekwencyjnie, tryb + ", n=" + rozmiarListy + ", przesunięcie="
+						+ przesuniecie + ", bloki=" + opisBlokow(bloki));
+				assertEquals(oczekiwana, PrzesuwanieObliczenia.wykonaj(tryb, new LinkedList<>(wszystkie), bloki,
+						przesuniecie).getLista());
+			}
+		}
+	}
+
+	// ============================================================
+	// wynik jako widok
+	// ============================================================
+
+	@Test
+	void wynikJakoWidok_zgodnyZKopia() throws Exception {
+
+		for (TrybPrzesuwania tryb : TrybPrzesuwania.values()) {
+
+			PrzesuwanieObsluga<Integer> kopia = new PrzesuwanieObsluga.Builder<Integer>().trybPrzesuwania(tryb).build();
+			PrzesuwanieObsluga<Integer> widok = new PrzesuwanieObsluga.Builder<Integer>().trybPrzesuwania(tryb)
+					.wynikJakoWidok().build();
+
+			for (int proba = 0; proba < LICZBA_PROB; proba++) {
+
+				int rozmiarListy = 1 + random.nextInt(40);
+				List<Integer> wszystkie = proba % 2 == 0 ? new ArrayList<>() : new LinkedList<>();
+				for (int i = 1; i <= rozmiarListy; i++) {
+					wszystkie.add(i);
+				}
+
+				int[] indeksy = random.ints(0, rozmiarListy).limit(1 + random.nextInt(Math.min(rozmiarListy, 6)))
+						.distinct().sorted().toArray();
+				int przesuniecie = random.nextInt(2 * rozmiarListy + 1) - rozmiarListy;
+
+				PrzesuwanieWynik<Integer> oczekiwany = kopia.przesunPelny(wszystkie, indeksy, przesuniecie);
+				PrzesuwanieWynik<Integer> wynik = widok.przesunPelny(wszystkie, indeksy, przesuniecie);
+
+				String opis = tryb + ", n=" + rozmiarListy + ", przesunięcie=" + przesuniecie;
+				assertTrue(wynik.getLista() instanceof PrzesuwanieWidokListy, opis);
+				assertEquals(oczekiwany.getLista(), wynik.getLista(), opis);
+				assertEquals(opis(oczekiwany.getPlan()), opis(wynik.getPlan()), opis);
+
+				List<Integer> zmaterializowana = wynik.getListaZmaterializowana();
+				assertEquals(oczekiwany.getLista(), zmaterializowana, opis);
+				zmaterializowana.set(0, -1);
+				assertThrows(UnsupportedOperationException.class, () -> wynik.getLista().set(0, -1));
+			}
+		}
+	}
+
+	// ============================================================
+	// PrzesuwanieObliczeniaRownolegle
+	// ============================================================
+
+	@Test
+	void obliczDocelowaPermutacjeRownolegle_zgodnaZJednowatkowa() {
+
+		ForkJoinPool pula = new ForkJoinPool(4);
+
+		try {
+			for (TrybPrzesuwania tryb : TrybPrzesuwania.values()) {
+				for (int proba = 0; proba < LICZBA_PROB; proba++) {
+
+					int rozmiarListy = 1 + random.nextInt(40);
+					List<PrzesuwanieIndeksyBlok> bloki = losoweBloki(rozmiarListy);
+					int przesuniecie = PrzesuwanieWejscie.obliczRzeczywistePrzesuniecie(tryb,
+							random.nextInt(2 * rozmiarListy + 1) - rozmiarListy, rozmiarListy);
+
+					if (!PrzesuwanieObliczenia.czyDoPrzesunieciaDojdzie(tryb, bloki, rozmiarListy, przesuniecie)) {
+						continue;
+					}
+
+					int[] oczekiwana = PrzesuwanieObliczenia.obliczDocelowaPermutacje(tryb, bloki, rozmiarListy,
+							przesuniecie);
+					int[] wynik = PrzesuwanieObliczeniaRownolegle.obliczDocelowaPermutacje(tryb, bloki, rozmiarListy,
+							przesuniecie, pula, 1 + random.nextInt(5));
+
+					assertArrayEquals(oczekiwana, wynik, tryb + ", n=" + rozmiarListy + ", przesunięcie="
+							+ przesuniecie + ", bloki=" + opisBlokow(bloki));
+				}
+			}
+		} finally {
+			pula.shutdown();
+		}
+	}
+
+	@Test
+	void przepiszWgPlanuRownolegle_zgodneZJednowatkowym() {
+
+		ForkJoinPool pula = new ForkJoinPool(4);
+
+		try {
+			for (TrybPrzesuwania tryb : TrybPrzesuwania.values()) {
+				for (int proba = 0; proba < LICZBA_PROB; proba++) {
+
+					int rozmiarListy = 1 + random.nextInt(40);
+					List<PrzesuwanieIndeksyBlok> bloki = losoweBloki(rozmiarListy);
+					int przesuniecie = PrzesuwanieWejscie.obliczRzeczywistePrzesuniecie(tryb,
+							random.nextInt(2 * rozmiarListy + 1) - rozmiarListy, rozmiarListy);
+
+					List<Integer> wszystkie = new ArrayList<>();
+					for (int i = 1; i <= rozmiarListy; i++) {
+						wszystkie.add(i);
+					}
+
+					PrzesuwanieWynik<Integer> oczekiwany = PrzesuwanieObliczenia.wykonaj(tryb, wszystkie, bloki,
+							przesuniecie);
+
+					List<Integer> wynik = new ArrayList<>(wszystkie);
+					PrzesuwanieObliczeniaRownolegle.przepiszWgPlanu(wszystkie, wynik, oczekiwany.getPlan(), pula,
+							1 + random.nextInt(5));
+
+					assertEquals(oczekiwany.getLista(), wynik, tryb + ", n=" + rozmiarListy + ", przesunięcie="
+							+ przesuniecie + ", bloki=" + opisBlokow(bloki));
+					assertEquals(oczekiwany.getLista(),
+							PrzesuwanieObliczenia.wykonaj(tryb, wszystkie, bloki, przesuniecie, pula).getLista());
+				}
+			}
+		} finally {
+			pula.shutdown();
+		}
+	}
+
+	// ============================================================
+	// algebra planów
+	// ============================================================
+
+	@Test
+	void zlozIOdwroc_zgodneZGenerujPlan_losowePermutacje() {
+
+		for (int proba = 0; proba < LICZBA_PROB; proba++) {
+
+			int rozmiarListy = 1 + random.nextInt(40);
+			int[] pierwsza = losowaPermutacja(rozmiarListy);
+			int[] druga = losowaPermutacja(rozmiarListy);
+
+			int[] zlozona = new int[rozmiarListy];
+			int[] odwrotna = new int[rozmiarListy];
+			for (int i = 0; i < rozmiarListy; i++) {
+				zlozona[i] = druga[pierwsza[i] - 1];
+				odwrotna[pierwsza[i] - 1] = i + 1;
+			}
+
+			PrzesuwaniePlan planPierwszej = PrzesuwanieObliczenia.generujPlan(pierwsza, rozmiarListy);
+			PrzesuwaniePlan planDrugiej = PrzesuwanieObliczenia.generujPlan(druga, rozmiarListy);
+
+			assertEquals(opis(PrzesuwanieObliczenia.generujPlan(zlozona, rozmiarListy)),
+					opis(PrzesuwaniePlan.zloz(planPierwszej, planDrugiej)));
+			assertEquals(opis(PrzesuwanieObliczenia.generujPlan(odwrotna, rozmiarListy)),
+					opis(PrzesuwaniePlan.odwroc(planPierwszej)));
+			assertTrue(PrzesuwaniePlan.zloz(planPierwszej, PrzesuwaniePlan.odwroc(planPierwszej)).czyPusty());
+		}
+	}
+
+	@Test
+	void normalizuj_rozbityIPomieszanyPlan_zgodnyZGenerujPlan() {
+
+		for (int proba = 0; proba < LICZBA_PROB; proba++) {
+
+			int rozmiarListy = 1 + random.nextInt(40);
+			PrzesuwaniePlan oczekiwany = PrzesuwanieObliczenia.generujPlan(losowaPermutacja(rozmiarListy),
+					rozmiarListy);
+
+			// każda operacja rozbita na pojedyncze pozycje, w losowej kolejności
+			List<int[]> pozycje = new ArrayList<>();
+			for (PrzesuwanieOperacja o : oczekiwany.getOperacje()) {
+				for (int lp = o.lpOd; lp <= o.lpDo; lp++) {
+					pozycje.add(new int[] { lp, o.offset });
+				}
+			}
+			Collections.shuffle(pozycje, random);
+
+			PrzesuwaniePlan rozbity = new PrzesuwaniePlan();
+			for (int[] p : pozycje) {
+				rozbity.dodaj(p[0], p[0], p[1]);
+			}
+
+			assertEquals(opis(oczekiwany), opis(rozbity.normalizuj()));
+			// złożenie akceptuje plany nieznormalizowane
+			assertEquals(opis(oczekiwany), opis(PrzesuwaniePlan.zloz(new PrzesuwaniePlan(), rozbity)));
+		}
+	}
+
+	// ============================================================
+	// POMOCNICZE
+	// ============================================================
+
+	/**
+	 * Losowa permutacja LP (liczonych od 1): element {@code i} zawiera nowe LP
+	 * elementu ze starego LP {@code i + 1}.
+	 */
+	private int[] losowaPermutacja(int rozmiarListy) {
+		List<Integer> lp = new ArrayList<>();
+		for (int i = 1; i <= rozmiarListy; i++) {
+			lp.add(i);
+		}
+		// część permutacji z długimi przebiegami, jak po przesunięciu bloków
+		if (random.nextBoolean()) {
+			Collections.shuffle(lp, random);
+		} else {
+			Collections.rotate(lp.subList(random.nextInt(rozmiarListy), rozmiarListy), random.nextInt(5));
+		}
+		int[] wynik = new int[rozmiarListy];
+		for (int i = 0; i < rozmiarListy; i++) {
+			wynik[i] = lp.get(i);
+		}
+		return wynik;
+	}
+
+	private List<PrzesuwanieIndeksyBlok> losoweBloki(int rozmiarListy) {
+
+		List<PrzesuwanieIndeksyBlok> bloki = new ArrayList<>();
+
+		int lp = 1 + random.nextInt(3);
+		while (lp <= rozmiarListy) {
+			int koniec = Math.min(rozmiarListy, lp + random.nextInt(4));
+			bloki.add(new PrzesuwanieIndeksyBlok(lp, koniec));
+			lp = koniec + 2 + random.nextInt(5);
+		}
+
+		return bloki;
+	}
+
+	static String opis(PrzesuwaniePlan plan) {
+		StringBuilder sb = new StringBuilder();
+		for (PrzesuwanieOperacja o : plan.getOperacje()) {
+			sb.append('[').append(o.lpOd).append('-').append(o.lpDo).append(": ").append(o.offset).append(']');
+		}
+		return sb.toString();
+	}
+
+	private static String opisBlokow(List<PrzesuwanieIndeksyBlok> bloki) {
+		StringBuilder sb = new StringBuilder();
+		for (PrzesuwanieIndeksyBlok b : bloki) {
+			sb.append('[').append(b.start).append('-').append(b.end).append(']');
+		}
+		return sb.toString();
+	}
+
+}
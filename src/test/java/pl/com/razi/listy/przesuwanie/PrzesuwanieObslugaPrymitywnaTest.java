@@ -0,0 +1,143 @@
+package pl.com.razi.listy.przesuwanie;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import pl.com.razi.listy.przesuwanie.PrzesuwanieObsluga.TrybPrzesuwania;
+import pl.com.razi.listy.przesuwanie.util.PrzesuwanieLosowe;
+import pl.com.razi.listy.przesuwanie.util.PrzesuwanieScenariuszBrzegowy;
+import pl.com.razi.listy.przesuwanie.wyjatki.PrzesuwanieBrakElementuException;
+import pl.com.razi.listy.przesuwanie.wynik.PrzesuwanieWynik;
+import pl.com.razi.listy.przesuwanie.wynik.PrzesuwanieWynikInt;
+import pl.com.razi.listy.przesuwanie.wynik.PrzesuwanieWynikLong;
+
+public class PrzesuwanieObslugaPrymitywnaTest {
+
+	private final PrzesuwanieLosowe losowe = new PrzesuwanieLosowe();
+
+	@Test
+	void przesunPelny_zgodnyZObsluga() throws PrzesuwanieBrakElementuException {
+
+		for (TrybPrzesuwania tryb : TrybPrzesuwania.values()) {
+
+			PrzesuwanieObsluga<Long> obsluga = new PrzesuwanieObsluga.Builder<Long>().trybPrzesuwania(tryb).build();
+			PrzesuwanieObslugaPrymitywna prymitywna = new PrzesuwanieObslugaPrymitywna.Builder().trybPrzesuwania(tryb)
+					.build();
+
+			for (int proba = 0; proba < PrzesuwanieLosowe.LICZBA_PROB; proba++) {
+
+				int rozmiarListy = losowe.rozmiarListy(30);
+				int przesuniecie = losowe.przesuniecie(rozmiarListy);
+
+				// identyfikatory rozrzucone – również ujemne i przekraczające zakres int
+				long[] wszystkie = new long[rozmiarListy];
+				List<Long> wszystkieLista = new ArrayList<>();
+				for (int i = 0; i < rozmiarListy; i++) {
+					wszystkie[i] = (i - 5) * 3_000_000_007L;
+					wszystkieLista.add(wszystkie[i]);
+				}
+
+				List<Long> wybraneLista = losowe.wybrane(wszystkieLista);
+				long[] wybrane = new long[wybraneLista.size()];
+				for (int i = 0; i < wybrane.length; i++) {
+					wybrane[i] = wybraneLista.get(i);
+				}
+
+				String opis = tryb + ", n=" + rozmiarListy + ", przesunięcie=" + przesuniecie + ", wybrane="
+						+ wybraneLista;
+
+				PrzesuwanieWynik<Long> oczekiwany = obsluga.przesunPelny(wszystkieLista, wybraneLista, przesuniecie);
+				PrzesuwanieWynikLong wynik = prymitywna.przesunPelny(wszystkie, wybrane, przesuniecie);
+
+				assertEquals(oczekiwany.getLista(), jakoLista(wynik.getTablica()), opis);
+				assertEquals(PrzesuwanieObliczeniaTest.opis(oczekiwany.getPlan()),
+						PrzesuwanieObliczeniaTest.opis(wynik.getPlan()), opis);
+				assertEquals(obsluga.czyDoPrzesunieciaDojdzie(wszystkieLista, wybraneLista, przesuniecie),
+						prymitywna.czyDoPrzesunieciaDojdzie(wszystkie, wybrane, przesuniecie), opis);
+			}
+		}
+	}
+
+	@Test
+	void przesunPelny_int() throws PrzesuwanieBrakElementuException {
+
+		PrzesuwanieObslugaPrymitywna prymitywna = new PrzesuwanieObslugaPrymitywna.Builder().build();
+
+		int[] wszystkie = { 10, 20, 30, 40, 50 };
+
+		PrzesuwanieWynikInt wynik = prymitywna.przesunPelny(wszystkie, new int[] { 40, 30 }, -2);
+
+		assertArrayEquals(new int[] { 30, 40, 10, 20, 50 }, wynik.getTablica());
+		assertArrayEquals(new int[] { 10, 20, 30, 40, 50 }, wszystkie);
+		assertTrue(prymitywna.czyDoPrzesunieciaDojdzie(wszystkie, new int[] { 40, 30 }, -2));
+	}
+
+	@Test
+	void przesunPelny_przypadkiBrzegowe() throws PrzesuwanieBrakElementuException {
+
+		for (PrzesuwanieScenariuszBrzegowy scenariusz : PrzesuwanieScenariuszBrzegowy.values()) {
+
+			PrzesuwanieObslugaPrymitywna prymitywna = new PrzesuwanieObslugaPrymitywna.Builder()
+					.trybPrzesuwania(scenariusz.getTryb()).build();
+
+			PrzesuwanieWynikInt wynik = prymitywna.przesunPelny(scenariusz.getLpWszystkich(),
+					scenariusz.getLpWybranych(), scenariusz.getPrzesuniecie());
+
+			assertArrayEquals(scenariusz.getLpOczekiwane(), wynik.getTablica(), scenariusz.opis());
+			assertEquals(scenariusz.czyDojdzie(), !wynik.getPlan().czyPusty(), scenariusz.opis());
+			assertEquals(scenariusz.czyDojdzie(), prymitywna.czyDoPrzesunieciaDojdzie(scenariusz.getLpWszystkich(),
+					scenariusz.getLpWybranych(), scenariusz.getPrzesuniecie()), scenariusz.opis());
+		}
+	}
+
+	@Test
+	void przesunPelny_brakWybranego_wyjatek() {
+
+		PrzesuwanieObslugaPrymitywna prymitywna = new PrzesuwanieObslugaPrymitywna.Builder().build();
+
+		assertThrows(PrzesuwanieBrakElementuException.class,
+				() -> prymitywna.przesunPelny(new int[] { 1, 2, 3 }, new int[] { 2, 99 }, 1));
+		assertThrows(PrzesuwanieBrakElementuException.class,
+				() -> prymitywna.przesunPelny((long[]) null, new long[] { 1 }, 1));
+	}
+
+	@Test
+	void przesunPelny_powtorzoneWartosci_kolejneWystapienia() throws PrzesuwanieBrakElementuException {
+
+		PrzesuwanieObslugaPrymitywna prymitywna = new PrzesuwanieObslugaPrymitywna.Builder().build();
+
+		int[] wszystkie = { 1, 2, 3, 1, 4 };
+
+		assertArrayEquals(new int[] { 2, 1, 3, 4, 1 },
+				prymitywna.przesunPelny(wszystkie, new int[] { 1, 1 }, 1).getTablica());
+		assertArrayEquals(new int[] { 2, 1, 3, 1, 4 },
+				prymitywna.przesunPelny(wszystkie, new int[] { 1 }, 1).getTablica());
+	}
+
+	@Test
+	void mapaLong_zbytWieleKluczy_wyjatek() {
+
+		PrzesuwanieMapaLong mala = new PrzesuwanieMapaLong(0);
+		assertEquals(-1, mala.wstaw(7L, 0));
+		assertEquals(0, mala.pobierz(7L));
+
+		assertThrows(IllegalArgumentException.class, () -> new PrzesuwanieMapaLong((1 << 29) + 1));
+		assertThrows(IllegalArgumentException.class, () -> new PrzesuwanieMapaLong(Integer.MAX_VALUE));
+	}
+
+	private static List<Long> jakoLista(long[] tablica) {
+		List<Long> lista = new ArrayList<>();
+		for (long wartosc : tablica) {
+			lista.add(wartosc);
+		}
+		return lista;
+	}
+
+}
@@ -1,13 +1,21 @@
 package pl.com.razi.listy.przesuwanie;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedList;
 import java.util.List;
+import java.util.stream.Collectors;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
 import pl.com.razi.listy.przesuwanie.PrzesuwanieObliczenia.Kierunek;
 import pl.com.razi.listy.przesuwanie.PrzesuwanieObsluga.TrybPrzesuwania;
+import pl.com.razi.listy.przesuwanie.model.PrzesuwanieIndeksyBlok;
 import pl.com.razi.listy.przesuwanie.util.PrzesuwanieAssertions;
 import pl.com.razi.listy.przesuwanie.util.PrzesuwanieFactory;
 import pl.com.razi.listy.przesuwanie.util.PrzesuwanieTestDane;
@@ -99,6 +107,21 @@ abstract class PrzesuwanieObslugaTest {
 			return PrzesuwanieFactory.elementy(lpWybranych);
 		}
 
+		public int[] indeksy() {
+			return Arrays.stream(lpWybranych).map(lp -> lp - 1).toArray();
+		}
+
+		/**
+		 * Zakresy LP po jednym na każdy wybrany element, w odwrotnej kolejności –
+		 * sprawdzają również normalizację zakresów.
+		 */
+		public List<PrzesuwanieIndeksyBlok> zakresyLp() {
+			List<PrzesuwanieIndeksyBlok> zakresy = Arrays.stream(lpWybranych)
+					.mapToObj(lp -> new PrzesuwanieIndeksyBlok(lp, lp)).collect(Collectors.toList());
+			Collections.reverse(zakresy);
+			return zakresy;
+		}
+
 		public String opis() {
 			String lp = Arrays.toString(lpWybranych);
 			return kierunek.name() + " — o " + przesuniecie + " pozycje, wybrane " + lp;
@@ -222,6 +245,40 @@ abstract class PrzesuwanieObslugaTest {
 		wykonaj(Scenariusz.DOL_O_TRZY_INDEKSY_1_3_4_7_8);
 	}
 
+	// ====================================================================
+	// POWTÓRZONE ELEMENTY
+	// ====================================================================
+
+	@Test
+	final void test_powtorzone_elementy_kolejne_wystapienia() throws Exception {
+
+		PrzesuwanieObsluga<String> obslugaTekstow = new PrzesuwanieObsluga.Builder<String>()
+				.trybPrzesuwania(pobierzTryb()).build();
+
+		List<String> wszystkie = Arrays.asList("A", "B", "C", "A", "D");
+
+		assertEquals(Arrays.asList("B", "A", "C", "D", "A"),
+				obslugaTekstow.przesunPelny(wszystkie, Arrays.asList("A", "A"), 1).getLista());
+		assertEquals(Arrays.asList("B", "A", "C", "A", "D"),
+				obslugaTekstow.przesunPelny(wszystkie, Arrays.asList("A"), 1).getLista());
+	}
+
+	// ====================================================================
+	// BUILDER
+	// ====================================================================
+
+	@Test
+	final void test_builder_ujemny_prog_rownoleglosci() {
+		assertThrows(IllegalStateException.class, () -> new PrzesuwanieObsluga.Builder<PrzesuwanieTestDane>()
+				.trybPrzesuwania(pobierzTryb()).progRownoleglosci(-1).build());
+	}
+
+	@Test
+	final void test_builder_brak_funkcji_klucza() {
+		assertThrows(IllegalArgumentException.class,
+				() -> new PrzesuwanieObsluga.Builder<PrzesuwanieTestDane>().wyszukiwanieWgKlucza(null));
+	}
+
 	// ====================================================================
 	// TEST
 	// ====================================================================
@@ -244,6 +301,82 @@ abstract class PrzesuwanieObslugaTest {
 		logger.logEmpty();
 		logger.log("Sprawdzenie danych przesunięcia:");
 		assertions.assertDanePrzesuniecia(wynik.getPlan(), getOczekiwanePlan(scenariusz));
+
+		List<PrzesuwanieTestDane> wybraneOdwrotnie = new ArrayList<>(wybrane);
+		Collections.reverse(wybraneOdwrotnie);
+		PrzesuwanieWynik<PrzesuwanieTestDane> wynikOdwrotnie = obsluga.przesunPelny(wszystkie, wybraneOdwrotnie,
+				scenariusz.getPrzesuniecie());
+
+		logger.logEmpty();
+		logger.log("Sprawdzenie wybranych w odwrotnej kolejności:");
+		assertions.assertLista(wynikOdwrotnie.getLista(), getOczekiwaneLista(scenariusz));
+		assertions.assertDanePrzesuniecia(wynikOdwrotnie.getPlan(), getOczekiwanePlan(scenariusz));
+
+		PrzesuwanieWynik<PrzesuwanieTestDane> wynikIndeksy = obsluga.przesunPelny(wszystkie, scenariusz.indeksy(),
+				scenariusz.getPrzesuniecie());
+
+		logger.logEmpty();
+		logger.log("Sprawdzenie wariantu z indeksami wierszy:");
+		assertions.assertLista(wynikIndeksy.getLista(), getOczekiwaneLista(scenariusz));
+		assertions.assertDanePrzesuniecia(wynikIndeksy.getPlan(), getOczekiwanePlan(scenariusz));
+
+		PrzesuwanieObsluga<PrzesuwanieTestDane> obslugaWgKlucza = new PrzesuwanieObsluga.Builder<PrzesuwanieTestDane>()
+				.trybPrzesuwania(pobierzTryb()).wyszukiwanieWgKlucza(PrzesuwanieTestDane::getId).build();
+		PrzesuwanieWynik<PrzesuwanieTestDane> wynikWgKlucza = obslugaWgKlucza.przesunPelny(wszystkie, wybrane,
+				scenariusz.getPrzesuniecie());
+
+		logger.logEmpty();
+		logger.log("Sprawdzenie wyszukiwania wg klucza:");
+		assertions.assertLista(wynikWgKlucza.getLista(), getOczekiwaneLista(scenariusz));
+		assertions.assertDanePrzesuniecia(wynikWgKlucza.getPlan(), getOczekiwanePlan(scenariusz));
+
+		PrzesuwanieObsluga<PrzesuwanieTestDane> obslugaRownolegla = new PrzesuwanieObsluga.Builder<PrzesuwanieTestDane>()
+				.trybPrzesuwania(pobierzTryb()).rownolegle().progRownoleglosci(0).build();
+		PrzesuwanieWynik<PrzesuwanieTestDane> wynikRownolegly = obslugaRownolegla.przesunPelny(wszystkie, wybrane,
+				scenariusz.getPrzesuniecie());
+
+		logger.logEmpty();
+		logger.log("Sprawdzenie obliczeń wielowątkowych:");
+		assertions.assertLista(wynikRownolegly.getLista(), getOczekiwaneLista(scenariusz));
+		assertions.assertDanePrzesuniecia(wynikRownolegly.getPlan(), getOczekiwanePlan(scenariusz));
+
+		PrzesuwanieObsluga<PrzesuwanieTestDane> obslugaWgTozsamosci = new PrzesuwanieObsluga.Builder<PrzesuwanieTestDane>()
+				.trybPrzesuwania(pobierzTryb()).wyszukiwanieWgTozsamosci().build();
+		List<PrzesuwanieTestDane> wybraneInstancje = new ArrayList<>();
+		for (int indeks : scenariusz.indeksy()) {
+			wybraneInstancje.add(wszystkie.get(indeks));
+		}
+		PrzesuwanieWynik<PrzesuwanieTestDane> wynikWgTozsamosci = obslugaWgTozsamosci.przesunPelny(wszystkie,
+				wybraneInstancje, scenariusz.getPrzesuniecie());
+
+		logger.logEmpty();
+		logger.log("Sprawdzenie wyszukiwania wg tożsamości:");
+		assertions.assertLista(wynikWgTozsamosci.getLista(), getOczekiwaneLista(scenariusz));
+		assertions.assertDanePrzesuniecia(wynikWgTozsamosci.getPlan(), getOczekiwanePlan(scenariusz));
+
+		PrzesuwaniePlan planBezListy = obsluga.przesunPlan(wszystkie.size(), scenariusz.zakresyLp(),
+				scenariusz.getPrzesuniecie());
+
+		logger.logEmpty();
+		logger.log("Sprawdzenie planu wyznaczonego bez listy elementów:");
+		assertions.assertDanePrzesuniecia(planBezListy, getOczekiwanePlan(scenariusz));
+
+		List<PrzesuwanieTestDane> listaWMiejscu = new LinkedList<>(wszystkie);
+		PrzesuwaniePlan planWMiejscu = obsluga.przesunWMiejscu(listaWMiejscu, wybrane, scenariusz.getPrzesuniecie());
+
+		logger.logEmpty();
+		logger.log("Sprawdzenie przesunięcia w miejscu (lista):");
+		assertions.assertLista(listaWMiejscu, getOczekiwaneLista(scenariusz));
+		assertions.assertDanePrzesuniecia(planWMiejscu, getOczekiwanePlan(scenariusz));
+
+		PrzesuwanieTestDane[] tablica = wszystkie.toArray(new PrzesuwanieTestDane[0]);
+		PrzesuwaniePlan planTablica = obsluga.przesunWMiejscu(tablica, scenariusz.indeksy(),
+				scenariusz.getPrzesuniecie());
+
+		logger.logEmpty();
+		logger.log("Sprawdzenie przesunięcia w miejscu (tablica):");
+		assertions.assertLista(Arrays.asList(tablica), getOczekiwaneLista(scenariusz));
+		assertions.assertDanePrzesuniecia(planTablica, getOczekiwanePlan(scenariusz));
 	}
 
 }
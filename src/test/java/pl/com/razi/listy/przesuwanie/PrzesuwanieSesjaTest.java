@@ -0,0 +1,155 @@
+package pl.com.razi.listy.przesuwanie;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import pl.com.razi.listy.przesuwanie.PrzesuwanieObsluga.TrybPrzesuwania;
+import pl.com.razi.listy.przesuwanie.util.PrzesuwanieAssertions;
+import pl.com.razi.listy.przesuwanie.util.PrzesuwanieFactory;
+import pl.com.razi.listy.przesuwanie.util.PrzesuwanieLosowe;
+import pl.com.razi.listy.przesuwanie.util.PrzesuwanieScenariuszBrzegowy;
+import pl.com.razi.listy.przesuwanie.util.PrzesuwanieTestDane;
+import pl.com.razi.listy.przesuwanie.util.PrzesuwanieTestLogger;
+import pl.com.razi.listy.przesuwanie.wyjatki.PrzesuwanieBrakElementuException;
+import pl.com.razi.listy.przesuwanie.wynik.PrzesuwaniePlan;
+
+public class PrzesuwanieSesjaTest {
+
+	private final PrzesuwanieLosowe losowe = new PrzesuwanieLosowe();
+
+	private final PrzesuwanieAssertions assertions = new PrzesuwanieAssertions(new PrzesuwanieTestLogger(false));
+
+	@Test
+	void przesun_zgodnyZPrzesunPelny_planOczekujacyPerSaldo() throws Exception {
+
+		for (TrybPrzesuwania tryb : TrybPrzesuwania.values()) {
+
+			PrzesuwanieObsluga<Integer> obsluga = new PrzesuwanieObsluga.Builder<Integer>().trybPrzesuwania(tryb)
+					.build();
+
+			for (int proba = 0; proba < PrzesuwanieLosowe.LICZBA_PROB; proba++) {
+
+				List<Integer> biezaca = PrzesuwanieFactory.liczby(losowe.rozmiarListy(30));
+
+				PrzesuwanieSesja<Integer> sesja = obsluga.otworzSesje(biezaca);
+				List<Integer> wybrane = losowe.wybrane(biezaca);
+				sesja.zaznacz(wybrane);
+
+				List<Integer> zatwierdzona = new ArrayList<>(biezaca);
+
+				for (int ruch = 0; ruch < 10; ruch++) {
+
+					int przesuniecie = losowe.przesuniecie(3);
+
+					assertEquals(obsluga.czyDoPrzesunieciaDojdzie(biezaca, wybrane, przesuniecie),
+							sesja.czyDoPrzesunieciaDojdzie(przesuniecie));
+
+					PrzesuwaniePlan oczekiwanyPlan = obsluga.przesunPelny(biezaca, wybrane, przesuniecie).getPlan();
+					biezaca = obsluga.przesunPelny(biezaca, wybrane, przesuniecie).getLista();
+
+					PrzesuwaniePlan plan = sesja.przesun(przesuniecie);
+
+					String opis = tryb + ", ruch " + ruch + ", przesunięcie=" + przesuniecie;
+					assertEquals(PrzesuwanieObliczeniaTest.opis(oczekiwanyPlan), PrzesuwanieObliczeniaTest.opis(plan),
+							opis);
+					assertEquals(biezaca, sesja.getLista(), opis);
+					assertArrayEquals(posortowane(PrzesuwanieWejscie.indeksyWgEquals(biezaca, wybrane)),
+							sesja.getIndeksyWybranych(), opis);
+
+					// plan oczekujący prowadzi od stanu zatwierdzonego do bieżącego
+					assertEquals(PrzesuwanieObliczeniaTest.opis(planPerSaldo(zatwierdzona, biezaca)),
+							PrzesuwanieObliczeniaTest.opis(sesja.getOczekujacyPlan()), opis);
+
+					if (losowe.liczba(4) == 0) {
+						sesja.zatwierdz();
+						zatwierdzona = new ArrayList<>(biezaca);
+						assertFalse(sesja.czySaOczekujaceZmiany());
+					}
+				}
+			}
+		}
+	}
+
+	@Test
+	void zatwierdz_tamIZPowrotem_pustyPlan() throws Exception {
+
+		PrzesuwanieObsluga<String> obsluga = new PrzesuwanieObsluga.Builder<String>().build();
+		PrzesuwanieSesja<String> sesja = obsluga.otworzSesje(List.of("a", "b", "c", "d", "e"));
+
+		sesja.zaznacz(List.of("b", "c"));
+
+		sesja.przesun(1);
+		sesja.przesun(1);
+		assertEquals(List.of("a", "d", "e", "b", "c"), sesja.getLista());
+		assertEquals(List.of("b", "c"), sesja.getWybrane());
+		assertTrue(sesja.czySaOczekujaceZmiany());
+
+		sesja.przesun(-2);
+		assertEquals(List.of("a", "b", "c", "d", "e"), sesja.getLista());
+		assertFalse(sesja.czySaOczekujaceZmiany());
+		assertTrue(sesja.zatwierdz().czyPusty());
+	}
+
+	@Test
+	void przesun_przypadkiBrzegowe() throws Exception {
+
+		for (PrzesuwanieScenariuszBrzegowy scenariusz : PrzesuwanieScenariuszBrzegowy.values()) {
+
+			PrzesuwanieSesja<PrzesuwanieTestDane> sesja = new PrzesuwanieObsluga.Builder<PrzesuwanieTestDane>()
+					.trybPrzesuwania(scenariusz.getTryb()).build().otworzSesje(scenariusz.wszystkie());
+			sesja.zaznacz(scenariusz.wybrane());
+
+			String opis = scenariusz.opis();
+			assertEquals(scenariusz.czyDojdzie(), sesja.czyDoPrzesunieciaDojdzie(scenariusz.getPrzesuniecie()), opis);
+
+			PrzesuwaniePlan plan = sesja.przesun(scenariusz.getPrzesuniecie());
+
+			assertions.assertLista(sesja.getLista(), scenariusz.oczekiwane());
+			assertEquals(scenariusz.czyDojdzie(), !plan.czyPusty(), opis);
+			assertEquals(scenariusz.czyDojdzie(), sesja.czySaOczekujaceZmiany(), opis);
+			// zaznaczenie podąża za elementami – w kolejności listy po przesunięciu
+			List<PrzesuwanieTestDane> wybrane = scenariusz.wybrane();
+			assertEquals(scenariusz.oczekiwane().stream().filter(wybrane::contains).toList(), sesja.getWybrane(),
+					opis);
+		}
+	}
+
+	@Test
+	void zaznacz_brakElementu_wyjatek() {
+
+		PrzesuwanieSesja<String> sesja = new PrzesuwanieObsluga.Builder<String>().build()
+				.otworzSesje(List.of("a", "b"));
+
+		assertThrows(PrzesuwanieBrakElementuException.class, () -> sesja.zaznacz(List.of("x")));
+		assertThrows(PrzesuwanieBrakElementuException.class, () -> sesja.zaznacz(new int[] { 2 }));
+		assertTrue(sesja.przesun(1).czyPusty());
+	}
+
+	// ============================================================
+	// POMOCNICZE
+	// ============================================================
+
+	private static int[] posortowane(int[] tablica) {
+		int[] kopia = tablica.clone();
+		Arrays.sort(kopia);
+		return kopia;
+	}
+
+	private static PrzesuwaniePlan planPerSaldo(List<Integer> przed, List<Integer> po) throws Exception {
+		int[] permutacja = PrzesuwanieWejscie.indeksyWgEquals(po, przed);
+		for (int i = 0; i < permutacja.length; i++) {
+			permutacja[i]++;
+		}
+		return PrzesuwanieObliczenia.generujPlan(permutacja, przed.size());
+	}
+
+}
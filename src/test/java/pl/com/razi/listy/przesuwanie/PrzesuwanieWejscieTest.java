@@ -1,5 +1,6 @@
 package pl.com.razi.listy.przesuwanie;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
@@ -8,6 +9,7 @@ import static org.junit.jupiter.api.Assertions.assertTrue;
 import static pl.com.razi.listy.przesuwanie.util.PrzesuwanieFactory.blok;
 
 import java.util.Arrays;
+import java.util.BitSet;
 import java.util.List;
 
 import org.junit.jupiter.api.MethodOrderer;
@@ -15,6 +17,8 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.TestMethodOrder;
 
 import pl.com.razi.listy.przesuwanie.model.PrzesuwanieIndeksyBlok;
+import pl.com.razi.listy.przesuwanie.util.PrzesuwanieFactory;
+import pl.com.razi.listy.przesuwanie.util.PrzesuwanieTestDane;
 import pl.com.razi.listy.przesuwanie.wyjatki.PrzesuwanieBrakElementuException;
 
 @TestMethodOrder(MethodOrderer.MethodName.class)
@@ -132,6 +136,16 @@ public class PrzesuwanieWejscieTest {
 		assertEquals(blok(2, 4), bloki.get(0));
 	}
 
+	@Test
+	void zbudujBlokiWybranych_dowolnaKolejnoscWybranych() {
+		List<Integer> wszystkie = Arrays.asList(10, 20, 30, 40, 50, 60);
+		List<Integer> wybrane = Arrays.asList(50, 30, 20);
+
+		List<PrzesuwanieIndeksyBlok> bloki = PrzesuwanieWejscie.zbudujBlokiWybranych(wszystkie, wybrane);
+
+		assertEquals(Arrays.asList(blok(2, 3), blok(5, 5)), bloki);
+	}
+
 	@Test
 	void zbudujBlokiWybranych_wybranePuste() {
 		List<PrzesuwanieIndeksyBlok> bloki = PrzesuwanieWejscie.zbudujBlokiWybranych(Arrays.asList(1, 2, 3),
@@ -161,4 +175,169 @@ public class PrzesuwanieWejscieTest {
 		assertTrue(bloki.isEmpty());
 	}
 
+	// ============================================================
+	// indeksyWgEquals / indeksyWgTozsamosci / indeksyWgKlucza
+	// ============================================================
+
+	@Test
+	void indeksyWgEquals_odnajdujeIWaliduje() throws Exception {
+		List<Integer> wszystkie = Arrays.asList(10, 20, 30, 40);
+
+		assertArrayEquals(new int[] { 3, 0 }, PrzesuwanieWejscie.indeksyWgEquals(wszystkie, Arrays.asList(40, 10)));
+		assertThrows(PrzesuwanieBrakElementuException.class,
+				() -> PrzesuwanieWejscie.indeksyWgEquals(wszystkie, Arrays.asList(20, 99)));
+		assertThrows(PrzesuwanieBrakElementuException.class,
+				() -> PrzesuwanieWejscie.indeksyWgEquals(null, Arrays.asList(1)));
+	}
+
+	@Test
+	void indeksyWgEquals_powtorzenia_kolejneWystapienia() throws Exception {
+		List<String> wszystkie = Arrays.asList("A", "B", "C", "A", "D");
+
+		assertArrayEquals(new int[] { 0, 3 }, PrzesuwanieWejscie.indeksyWgEquals(wszystkie, Arrays.asList("A", "A")));
+		assertArrayEquals(new int[] { 0, 1, 3, 3 },
+				PrzesuwanieWejscie.indeksyWgEquals(wszystkie, Arrays.asList("A", "B", "A", "A")));
+		assertEquals(Arrays.asList(blok(1, 1), blok(4, 4)),
+				PrzesuwanieWejscie.zbudujBlokiWybranych(wszystkie, Arrays.asList("A", "A")));
+	}
+
+	@Test
+	void indeksyWgTozsamosci_rownyLeczInnyObiekt_wyjatek() throws Exception {
+		List<PrzesuwanieTestDane> wszystkie = PrzesuwanieFactory.listaPelna(4);
+
+		assertArrayEquals(new int[] { 3, 1 },
+				PrzesuwanieWejscie.indeksyWgTozsamosci(wszystkie, Arrays.asList(wszystkie.get(3), wszystkie.get(1))));
+		assertThrows(PrzesuwanieBrakElementuException.class, () -> PrzesuwanieWejscie.indeksyWgTozsamosci(wszystkie,
+				Arrays.asList(new PrzesuwanieTestDane(2))));
+	}
+
+	@Test
+	void indeksyWgTozsamosci_indeksyWgKlucza_powtorzenia_kolejneWystapienia() throws Exception {
+		PrzesuwanieTestDane a = new PrzesuwanieTestDane(1);
+		List<PrzesuwanieTestDane> wszystkie = Arrays.asList(a, new PrzesuwanieTestDane(2), a,
+				new PrzesuwanieTestDane(1));
+
+		assertArrayEquals(new int[] { 0, 2, 2 },
+				PrzesuwanieWejscie.indeksyWgTozsamosci(wszystkie, Arrays.asList(a, a, a)));
+		assertArrayEquals(new int[] { 0, 2, 3 }, PrzesuwanieWejscie.indeksyWgKlucza(wszystkie,
+				PrzesuwanieFactory.elementy(1, 1, 1), PrzesuwanieTestDane::getId));
+	}
+
+	@Test
+	void indeksyWgKlucza_odnajdujeIWaliduje() throws Exception {
+		List<PrzesuwanieTestDane> wszystkie = PrzesuwanieFactory.listaPelna(4);
+
+		assertArrayEquals(new int[] { 1, 2 }, PrzesuwanieWejscie.indeksyWgKlucza(wszystkie,
+				PrzesuwanieFactory.elementy(2, 3), PrzesuwanieTestDane::getId));
+		assertThrows(PrzesuwanieBrakElementuException.class, () -> PrzesuwanieWejscie.indeksyWgKlucza(wszystkie,
+				PrzesuwanieFactory.elementy(5), PrzesuwanieTestDane::getId));
+		assertThrows(PrzesuwanieBrakElementuException.class, () -> PrzesuwanieWejscie.indeksyWgKlucza(null,
+				PrzesuwanieFactory.elementy(1), PrzesuwanieTestDane::getId));
+	}
+
+	// ============================================================
+	// walidacjaIndeksow
+	// ============================================================
+
+	@Test
+	void walidacjaIndeksow_wZakresie() {
+		assertDoesNotThrow(() -> PrzesuwanieWejscie.walidacjaIndeksow(4, new int[] { 0, 3 }));
+	}
+
+	@Test
+	void walidacjaIndeksow_null() {
+		assertDoesNotThrow(() -> PrzesuwanieWejscie.walidacjaIndeksow(0, (int[]) null));
+	}
+
+	@Test
+	void walidacjaIndeksow_pozaZakresem_wyjatek() {
+		assertThrows(PrzesuwanieBrakElementuException.class,
+				() -> PrzesuwanieWejscie.walidacjaIndeksow(4, new int[] { 1, 4 }));
+		assertThrows(PrzesuwanieBrakElementuException.class,
+				() -> PrzesuwanieWejscie.walidacjaIndeksow(4, new int[] { -1 }));
+	}
+
+	@Test
+	void walidacjaIndeksow_bitSetPozaZakresem_wyjatek() {
+		BitSet indeksy = new BitSet();
+		indeksy.set(4);
+
+		assertThrows(PrzesuwanieBrakElementuException.class, () -> PrzesuwanieWejscie.walidacjaIndeksow(4, indeksy));
+	}
+
+	// ============================================================
+	// zbudujBlokiZIndeksow
+	// ============================================================
+
+	@Test
+	void zbudujBlokiZIndeksow_prosteBloki() {
+		List<PrzesuwanieIndeksyBlok> bloki = PrzesuwanieWejscie.zbudujBlokiZIndeksow(new int[] { 1, 2, 4 });
+
+		assertEquals(Arrays.asList(blok(2, 3), blok(5, 5)), bloki);
+	}
+
+	@Test
+	void zbudujBlokiZIndeksow_nieposortowaneZPowtorzeniami() {
+		int[] indeksy = { 6, 0, 2, 1, 2, 9 };
+
+		List<PrzesuwanieIndeksyBlok> bloki = PrzesuwanieWejscie.zbudujBlokiZIndeksow(indeksy);
+
+		assertEquals(Arrays.asList(blok(1, 3), blok(7, 7), blok(10, 10)), bloki);
+		assertEquals(6, indeksy[0], "Tablica wejściowa nie może zostać zmieniona.");
+	}
+
+	@Test
+	void zbudujBlokiZIndeksow_bitSet() {
+		BitSet indeksy = new BitSet();
+		indeksy.set(0, 3);
+		indeksy.set(6);
+		indeksy.set(9, 11);
+
+		List<PrzesuwanieIndeksyBlok> bloki = PrzesuwanieWejscie.zbudujBlokiZIndeksow(indeksy);
+
+		assertEquals(Arrays.asList(blok(1, 3), blok(7, 7), blok(10, 11)), bloki);
+	}
+
+	@Test
+	void zbudujBlokiZIndeksow_puste() {
+		assertTrue(PrzesuwanieWejscie.zbudujBlokiZIndeksow(new int[0]).isEmpty());
+		assertTrue(PrzesuwanieWejscie.zbudujBlokiZIndeksow(new BitSet()).isEmpty());
+		assertTrue(PrzesuwanieWejscie.zbudujBlokiZIndeksow((int[]) null).isEmpty());
+	}
+
+	// ============================================================
+	// walidacjaZakresowLp / normalizujZakresyLp
+	// ============================================================
+
+	@Test
+	void walidacjaZakresowLp_wZakresie() {
+		assertDoesNotThrow(() -> PrzesuwanieWejscie.walidacjaZakresowLp(10, Arrays.asList(blok(1, 3), blok(10, 10))));
+	}
+
+	@Test
+	void walidacjaZakresowLp_pozaZakresem_wyjatek() {
+		assertThrows(PrzesuwanieBrakElementuException.class,
+				() -> PrzesuwanieWejscie.walidacjaZakresowLp(10, Arrays.asList(blok(9, 11))));
+		assertThrows(PrzesuwanieBrakElementuException.class,
+				() -> PrzesuwanieWejscie.walidacjaZakresowLp(10, Arrays.asList(blok(0, 2))));
+		assertThrows(PrzesuwanieBrakElementuException.class,
+				() -> PrzesuwanieWejscie.walidacjaZakresowLp(10, Arrays.asList(blok(5, 4))));
+	}
+
+	@Test
+	void normalizujZakresyLp_juzZnormalizowane_bezKopii() {
+		List<PrzesuwanieIndeksyBlok> zakresy = Arrays.asList(blok(1, 2), blok(5, 7));
+
+		assertTrue(zakresy == PrzesuwanieWejscie.normalizujZakresyLp(zakresy));
+	}
+
+	@Test
+	void normalizujZakresyLp_nieposortowaneNachodzaceSasiednie() {
+		List<PrzesuwanieIndeksyBlok> zakresy = Arrays.asList(blok(8, 9), blok(1, 2), blok(3, 3), blok(2, 4),
+				blok(10, 10), blok(20, 21));
+
+		assertEquals(Arrays.asList(blok(1, 4), blok(8, 10), blok(20, 21)),
+				PrzesuwanieWejscie.normalizujZakresyLp(zakresy));
+	}
+
 }
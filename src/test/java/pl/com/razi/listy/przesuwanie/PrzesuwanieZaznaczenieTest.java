@@ -0,0 +1,273 @@
+package pl.com.razi.listy.przesuwanie;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import pl.com.razi.listy.przesuwanie.PrzesuwanieObsluga.TrybPrzesuwania;
+import pl.com.razi.listy.przesuwanie.model.PrzesuwanieIndeksyBlok;
+import pl.com.razi.listy.przesuwanie.util.PrzesuwanieFactory;
+import pl.com.razi.listy.przesuwanie.util.PrzesuwanieLosowe;
+import pl.com.razi.listy.przesuwanie.util.PrzesuwanieScenariuszBrzegowy;
+import pl.com.razi.listy.przesuwanie.util.PrzesuwanieTestDane;
+import pl.com.razi.listy.przesuwanie.wyjatki.PrzesuwanieBrakElementuException;
+import pl.com.razi.listy.przesuwanie.wynik.PrzesuwaniePodglad;
+
+public class PrzesuwanieZaznaczenieTest {
+
+	private final PrzesuwanieLosowe losowe = new PrzesuwanieLosowe();
+
+	@Test
+	void czyDoPrzesunieciaDojdzie_zgodneZObsluga_wszystkieTryby() throws Exception {
+
+		PrzesuwanieObsluga<Integer> obsluga = new PrzesuwanieObsluga.Builder<Integer>().build();
+
+		for (int proba = 0; proba < PrzesuwanieLosowe.LICZBA_PROB; proba++) {
+
+			int rozmiarListy = losowe.rozmiarListy(30);
+			List<Integer> wszystkie = PrzesuwanieFactory.liczby(rozmiarListy);
+
+			int[] indeksy = losowe.indeksyZPowtorzeniami(rozmiarListy, 6);
+			List<Integer> wybrane = new ArrayList<>();
+			BitSet bity = new BitSet();
+			for (int indeks : indeksy) {
+				wybrane.add(wszystkie.get(indeks));
+				bity.set(indeks);
+			}
+
+			PrzesuwanieZaznaczenie wgElementow = obsluga.przygotujZaznaczenie(wszystkie, wybrane);
+			PrzesuwanieZaznaczenie wgIndeksow = obsluga.przygotujZaznaczenie(wszystkie, indeksy);
+			PrzesuwanieZaznaczenie wgBitow = obsluga.przygotujZaznaczenie(wszystkie, bity);
+
+			assertEquals(bity.cardinality(), wgIndeksow.getLiczbaWybranych());
+
+			for (TrybPrzesuwania tryb : TrybPrzesuwania.values()) {
+
+				obsluga.ustawTrybPrzesuwania(tryb);
+
+				for (int przesuniecie = -rozmiarListy - 2; przesuniecie <= rozmiarListy + 2; przesuniecie++) {
+
+					boolean oczekiwane = obsluga.czyDoPrzesunieciaDojdzie(wszystkie, indeksy, przesuniecie);
+					String opis = tryb + ", n=" + rozmiarListy + ", przesunięcie=" + przesuniecie;
+
+					assertEquals(oczekiwane, wgElementow.czyDoPrzesunieciaDojdzie(przesuniecie), opis);
+					assertEquals(oczekiwane, wgIndeksow.czyDoPrzesunieciaDojdzie(tryb, przesuniecie), opis);
+					assertEquals(oczekiwane, wgBitow.czyDoPrzesunieciaDojdzie(przesuniecie), opis);
+
+					if (przesuniecie > 0) {
+						assertEquals(oczekiwane, wgIndeksow.czyMoznaPrzesunacWDol(przesuniecie), opis);
+					} else if (przesuniecie < 0) {
+						assertEquals(oczekiwane, wgIndeksow.czyMoznaPrzesunacWGore(-przesuniecie), opis);
+					}
+				}
+			}
+		}
+	}
+
+	@Test
+	void czyDoPrzesunieciaDojdzie_przypadkiBrzegowe() throws Exception {
+
+		for (PrzesuwanieScenariuszBrzegowy scenariusz : PrzesuwanieScenariuszBrzegowy.values()) {
+
+			PrzesuwanieObsluga<PrzesuwanieTestDane> obsluga = new PrzesuwanieObsluga.Builder<PrzesuwanieTestDane>()
+					.trybPrzesuwania(scenariusz.getTryb()).build();
+
+			PrzesuwanieZaznaczenie wgElementow = obsluga.przygotujZaznaczenie(scenariusz.wszystkie(),
+					scenariusz.wybrane());
+			PrzesuwanieZaznaczenie wgIndeksow = obsluga.przygotujZaznaczenie(scenariusz.wszystkie(),
+					scenariusz.indeksy());
+
+			String opis = scenariusz.opis();
+			assertEquals(scenariusz.wybrane().isEmpty(), wgElementow.czyPuste(), opis);
+			assertEquals(scenariusz.czyDojdzie(), wgElementow.czyDoPrzesunieciaDojdzie(scenariusz.getPrzesuniecie()),
+					opis);
+			assertEquals(scenariusz.czyDojdzie(), wgIndeksow.czyDoPrzesunieciaDojdzie(scenariusz.getPrzesuniecie()),
+					opis);
+		}
+	}
+
+	@Test
+	void maksymalnePrzesuniecie_granicaZmianWyniku_wszystkieTryby() throws Exception {
+
+		PrzesuwanieObsluga<Integer> obsluga = new PrzesuwanieObsluga.Builder<Integer>().build();
+
+		for (int proba = 0; proba < PrzesuwanieLosowe.LICZBA_PROB; proba++) {
+
+			int rozmiarListy = losowe.rozmiarListy(30);
+			int[] indeksy = losowe.indeksy(rozmiarListy, 6);
+
+			PrzesuwanieZaznaczenie zaznaczenie = obsluga.przygotujZaznaczenie(
+					Collections.nCopies(rozmiarListy, 0), indeksy);
+
+			for (TrybPrzesuwania tryb : TrybPrzesuwania.values()) {
+				for (int kierunek : new int[] { -1, 1 }) {
+
+					int maks = kierunek < 0 ? zaznaczenie.getMaksymalnePrzesuniecieWGore(tryb)
+							: zaznaczenie.getMaksymalnePrzesuniecieWDol(tryb);
+					String opis = tryb + ", n=" + rozmiarListy + ", kierunek=" + kierunek + ", maks=" + maks;
+
+					assertEquals(maks > 0, zaznaczenie.czyDoPrzesunieciaDojdzie(tryb, kierunek), opis);
+
+					if (maks == 0) {
+						continue;
+					}
+
+					PrzesuwaniePodglad podgladMaks = zaznaczenie.podglad(tryb, kierunek * maks);
+					PrzesuwaniePodglad podgladZaDuzy = zaznaczenie.podglad(tryb, kierunek * (maks + 1));
+
+					switch (tryb) {
+					case LINIOWE:
+						assertTrue(zaznaczenie.czyDoPrzesunieciaDojdzie(tryb, kierunek * maks), opis);
+						assertFalse(zaznaczenie.czyDoPrzesunieciaDojdzie(tryb, kierunek * (maks + 1)), opis);
+						break;
+					case DOCISKAJACE:
+						assertEquals(PrzesuwanieObliczeniaTest.opis(podgladMaks.getPlan()),
+								PrzesuwanieObliczeniaTest.opis(podgladZaDuzy.getPlan()), opis);
+						assertNotEquals(PrzesuwanieObliczeniaTest.opis(podgladMaks.getPlan()), PrzesuwanieObliczeniaTest
+								.opis(zaznaczenie.podglad(tryb, kierunek * (maks - 1)).getPlan()), opis);
+						break;
+					case CYKLICZNE:
+						assertEquals(rozmiarListy - 1, maks, opis);
+						assertTrue(podgladMaks.czyDojdzie(), opis);
+						// pełny obrót listy
+						assertFalse(podgladZaDuzy.czyDojdzie(), opis);
+						break;
+					}
+				}
+			}
+		}
+	}
+
+	@Test
+	void podglad_zgodnyZPorownaniemList() throws Exception {
+
+		PrzesuwanieObsluga<Integer> obsluga = new PrzesuwanieObsluga.Builder<Integer>().build();
+
+		for (int proba = 0; proba < PrzesuwanieLosowe.LICZBA_PROB; proba++) {
+
+			int rozmiarListy = losowe.rozmiarListy(30);
+			List<Integer> wszystkie = PrzesuwanieFactory.liczby(rozmiarListy);
+			int[] indeksy = losowe.indeksy(rozmiarListy, 6);
+			int przesuniecie = losowe.przesuniecie(rozmiarListy);
+
+			for (TrybPrzesuwania tryb : TrybPrzesuwania.values()) {
+
+				obsluga.ustawTrybPrzesuwania(tryb);
+
+				PrzesuwaniePodglad podglad = obsluga.przygotujZaznaczenie(wszystkie, indeksy).podglad(przesuniecie);
+				List<Integer> po = obsluga.przesunPelny(wszystkie, indeksy, przesuniecie).getLista();
+
+				int lpOd = 0;
+				int lpDo = 0;
+				int liczbaWierszy = 0;
+				for (int i = 0; i < rozmiarListy; i++) {
+					if (!po.get(i).equals(wszystkie.get(i))) {
+						lpOd = lpOd == 0 ? i + 1 : lpOd;
+						lpDo = i + 1;
+						liczbaWierszy++;
+					}
+				}
+
+				String opis = tryb + ", n=" + rozmiarListy + ", przesunięcie=" + przesuniecie + ", " + podglad;
+				assertEquals(liczbaWierszy > 0, podglad.czyDojdzie(), opis);
+				assertEquals(lpOd, podglad.getLpOd(), opis);
+				assertEquals(lpDo, podglad.getLpDo(), opis);
+				assertEquals(liczbaWierszy, podglad.getLiczbaWierszy(), opis);
+			}
+		}
+	}
+
+	@Test
+	void podglad_przypadkiBrzegowe() throws Exception {
+
+		for (PrzesuwanieScenariuszBrzegowy scenariusz : PrzesuwanieScenariuszBrzegowy.values()) {
+
+			TrybPrzesuwania tryb = scenariusz.getTryb();
+			PrzesuwanieZaznaczenie zaznaczenie = new PrzesuwanieObsluga.Builder<PrzesuwanieTestDane>()
+					.trybPrzesuwania(tryb).build().przygotujZaznaczenie(scenariusz.wszystkie(), scenariusz.indeksy());
+
+			PrzesuwaniePodglad podglad = zaznaczenie.podglad(scenariusz.getPrzesuniecie());
+			int[] lpOczekiwane = scenariusz.getLpOczekiwane();
+			int lpOd = 0;
+			int lpDo = 0;
+			for (int lp = 1; lp <= lpOczekiwane.length; lp++) {
+				if (lpOczekiwane[lp - 1] != lp) {
+					lpOd = lpOd == 0 ? lp : lpOd;
+					lpDo = lp;
+				}
+			}
+
+			String opis = scenariusz.opis() + ", " + podglad;
+			assertEquals(scenariusz.czyDojdzie(), podglad.czyDojdzie(), opis);
+			assertEquals(scenariusz.getLiczbaZmienionych(), podglad.getLiczbaWierszy(), opis);
+			assertEquals(lpOd, podglad.getLpOd(), opis);
+			assertEquals(lpDo, podglad.getLpDo(), opis);
+
+			int maks = scenariusz.getPrzesuniecie() < 0 ? zaznaczenie.getMaksymalnePrzesuniecieWGore()
+					: zaznaczenie.getMaksymalnePrzesuniecieWDol();
+
+			if (!scenariusz.czyDojdzie()) {
+				assertEquals(0, maks, opis);
+			} else if (tryb == TrybPrzesuwania.DOCISKAJACE) {
+				// przesunięcie poza koniec listy – ten sam efekt co przesunięcie maksymalne
+				assertTrue(maks < Math.abs(scenariusz.getPrzesuniecie()), opis);
+				assertEquals(PrzesuwanieObliczeniaTest.opis(podglad.getPlan()), PrzesuwanieObliczeniaTest
+						.opis(zaznaczenie.podglad(Integer.signum(scenariusz.getPrzesuniecie()) * maks).getPlan()),
+						opis);
+			}
+		}
+	}
+
+	@Test
+	void przygotujZaznaczenie_zZakresowLp() throws Exception {
+
+		PrzesuwanieObsluga<Integer> obsluga = new PrzesuwanieObsluga.Builder<Integer>()
+				.trybPrzesuwania(TrybPrzesuwania.DOCISKAJACE).build();
+
+		PrzesuwanieZaznaczenie zaznaczenie = obsluga.przygotujZaznaczenie(1_000_000,
+				List.of(new PrzesuwanieIndeksyBlok(500_000, 500_002), new PrzesuwanieIndeksyBlok(10, 11)));
+
+		assertEquals(2, zaznaczenie.getLiczbaBlokow());
+		// dociśnięcie: ostatni blok na LP 3 (za dwoma wierszami pierwszego)
+		assertEquals(499_997, zaznaczenie.getMaksymalnePrzesuniecieWGore());
+		assertEquals(999_986, zaznaczenie.getMaksymalnePrzesuniecieWDol());
+		assertEquals(9, zaznaczenie.getMaksymalnePrzesuniecieWGore(TrybPrzesuwania.LINIOWE));
+		assertEquals(499_998, zaznaczenie.getMaksymalnePrzesuniecieWDol(TrybPrzesuwania.LINIOWE));
+
+		PrzesuwaniePodglad podglad = zaznaczenie.podglad(-1);
+		assertEquals(9, podglad.getLpOd());
+		assertEquals(500_002, podglad.getLpDo());
+		assertEquals(2 + 1 + 3 + 1, podglad.getLiczbaWierszy());
+		assertEquals(4, podglad.getLiczbaOperacji());
+		assertThrows(PrzesuwanieBrakElementuException.class,
+				() -> obsluga.przygotujZaznaczenie(10, List.of(new PrzesuwanieIndeksyBlok(5, 11))));
+	}
+
+	@Test
+	void przygotujZaznaczenie_puste_bledneIndeksy() throws Exception {
+
+		PrzesuwanieObsluga<Integer> obsluga = new PrzesuwanieObsluga.Builder<Integer>()
+				.trybPrzesuwania(TrybPrzesuwania.CYKLICZNE).build();
+		List<Integer> wszystkie = List.of(1, 2, 3);
+
+		PrzesuwanieZaznaczenie puste = obsluga.przygotujZaznaczenie(wszystkie, new int[0]);
+
+		assertTrue(puste.czyPuste());
+		assertFalse(puste.czyMoznaPrzesunacWGore(1));
+		assertFalse(obsluga.przygotujZaznaczenie(wszystkie, new int[] { 0 }).czyMoznaPrzesunacWDol(0));
+		assertThrows(PrzesuwanieBrakElementuException.class,
+				() -> obsluga.przygotujZaznaczenie(wszystkie, new int[] { 3 }));
+		assertThrows(PrzesuwanieBrakElementuException.class,
+				() -> obsluga.przygotujZaznaczenie(wszystkie, List.of(4)));
+	}
+
+}
@@ -23,6 +23,7 @@ import javax.swing.table.DefaultTableModel;
 
 import pl.com.razi.listy.przesuwanie.PrzesuwanieObsluga;
 import pl.com.razi.listy.przesuwanie.PrzesuwanieObsluga.TrybPrzesuwania;
+import pl.com.razi.listy.przesuwanie.PrzesuwanieZaznaczenie;
 import pl.com.razi.listy.przesuwanie.wynik.PrzesuwanieWynik;
 
 public class PrzesuwanieSwingTest {
@@ -69,6 +70,9 @@ public class PrzesuwanieSwingTest {
 	// Listener zapamiętany, aby można było go wyłączyć
 	private ListSelectionListener selectionListener;
 
+	// Zaznaczenie przygotowywane przy jego zmianie – sprawdzanie przycisków w O(1)
+	private PrzesuwanieZaznaczenie zaznaczenie;
+
 	public static void main(String[] args) {
 		SwingUtilities.invokeLater(() -> new PrzesuwanieSwingTest().start());
 	}
@@ -108,6 +112,7 @@ public class PrzesuwanieSwingTest {
 		// ============================
 		selectionListener = e -> {
 			if (!e.getValueIsAdjusting()) {
+				przygotujZaznaczenie();
 				aktualizujAktywnoscPrzyciskow();
 			}
 		};
@@ -164,6 +169,7 @@ public class PrzesuwanieSwingTest {
 			System.out.println(wynik.getPlan().toSqlCaseWhenBloki("Tabela", "kolumna", null));
 
 			odswiezTabele(aktualnaLista, wybrane);
+			przygotujZaznaczenie();
 			aktualizujAktywnoscPrzyciskow();
 
 		} catch (Exception ex) {
@@ -220,26 +226,29 @@ public class PrzesuwanieSwingTest {
 	// ============================
 	// AKTYWACJA PRZYCISKÓW
 	// ============================
-	private void aktualizujAktywnoscPrzyciskow() {
-
+	private void przygotujZaznaczenie() {
 		try {
-			List<Integer> wybrane = pobierzWybrane();
+			zaznaczenie = obsluga.przygotujZaznaczenie(aktualnaLista, table.getSelectedRows());
+		} catch (Exception e) {
+			zaznaczenie = null;
+		}
+	}
 
-			if (wybrane.isEmpty()) {
-				ustawAktywnosc(false, false);
-				return;
-			}
+	private void aktualizujAktywnoscPrzyciskow() {
 
-			int przes = pobierzPrzesuniecie();
+		if (zaznaczenie == null || zaznaczenie.czyPuste()) {
+			ustawAktywnosc(false, false);
+			return;
+		}
 
-			boolean gora = obsluga.czyDoPrzesunieciaDojdzie(aktualnaLista, wybrane, -przes);
-			boolean dol = obsluga.czyDoPrzesunieciaDojdzie(aktualnaLista, wybrane, +przes);
+		int przes = pobierzPrzesuniecie();
 
-			ustawAktywnosc(gora, dol);
+		// tryb pobierany z obsługi przy każdym pytaniu – zmiana w comboTryb nie
+		// wymaga ponownego przygotowania zaznaczenia
+		boolean gora = zaznaczenie.czyDoPrzesunieciaDojdzie(-przes);
+		boolean dol = zaznaczenie.czyDoPrzesunieciaDojdzie(+przes);
 
-		} catch (Exception e) {
-			ustawAktywnosc(false, false);
-		}
+		ustawAktywnosc(gora, dol);
 	}
 
 	private void ustawAktywnosc(boolean gora, boolean dol) {
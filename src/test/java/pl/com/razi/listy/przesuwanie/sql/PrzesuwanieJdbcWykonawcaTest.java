@@ -0,0 +1,394 @@
+package pl.com.razi.listy.przesuwanie.sql;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+import pl.com.razi.listy.przesuwanie.PrzesuwanieObsluga;
+import pl.com.razi.listy.przesuwanie.PrzesuwanieObsluga.TrybPrzesuwania;
+import pl.com.razi.listy.przesuwanie.model.PrzesuwanieIndeksyBlok;
+import pl.com.razi.listy.przesuwanie.wynik.PrzesuwaniePlan;
+
+public class PrzesuwanieJdbcWykonawcaTest {
+
+	private static final int LICZBA_PROB = 500;
+
+	private final Random random = new Random(2024);
+
+	@Test
+	void wykonaj_losowePlany_wynikZgodnyZPlanem() throws Exception {
+
+		for (int proba = 0; proba < LICZBA_PROB; proba++) {
+
+			int rozmiarListy = 1 + random.nextInt(100);
+			PrzesuwaniePlan plan = losowyPlan(rozmiarListy);
+			int rozmiarPaczki = 1 + random.nextInt(4);
+
+			PrzesuwanieJdbcWykonawca.Builder builder = new PrzesuwanieJdbcWykonawca.Builder().tabela("t")
+					.warunek("id_kategorii = ?", 3).rozmiarPaczki(rozmiarPaczki);
+			if (random.nextBoolean()) {
+				builder.przestrzenTymczasowaPrzesuniecie(rozmiarListy + random.nextInt(1000));
+			}
+			PrzesuwanieJdbcWykonawca wykonawca = builder.build();
+
+			FakeBaza baza = new FakeBaza(wykonawca, rozmiarListy);
+
+			int liczbaWierszy = wykonawca.wykonaj(plan, baza.polaczenie());
+
+			assertArrayEquals(oczekiwaneLp(plan, rozmiarListy), baza.lp(3));
+			// wiersze innej kategorii pozostają nietknięte
+			assertArrayEquals(oczekiwaneLp(new PrzesuwaniePlan(), rozmiarListy), baza.lp(4));
+			assertEquals(baza.liczbaZmienionych(), liczbaWierszy);
+
+			if (!plan.czyPusty()) {
+				assertEquals(2, baza.przygotowane.size());
+				assertEquals((plan.getLiczbaOperacji() + rozmiarPaczki - 1) / rozmiarPaczki, baza.liczbaPaczek);
+				assertEquals(1, baza.liczbaZatwierdzen);
+				assertTrue(baza.autoCommit);
+			} else {
+				assertEquals(0, baza.przygotowane.size());
+			}
+		}
+	}
+
+	@Test
+	void wykonaj_tekstSqlNiezaleznyOdPlanu() throws Exception {
+
+		PrzesuwanieJdbcWykonawca wykonawca = new PrzesuwanieJdbcWykonawca.Builder().tabela("Dokumenty")
+				.warunek("id_kategorii = ?", 3).build();
+
+		assertEquals("UPDATE Dokumenty SET lp = -(lp + ?) WHERE lp BETWEEN ? AND ? AND (id_kategorii = ?)",
+				wykonawca.getSqlPrzeniesienia());
+		assertEquals("UPDATE Dokumenty SET lp = -lp WHERE lp < 0 AND (id_kategorii = ?)",
+				wykonawca.getSqlPrzywrocenia());
+
+		PrzesuwaniePlan pierwszy = new PrzesuwaniePlan();
+		pierwszy.dodaj(5, 7, 1);
+		pierwszy.dodaj(8, 8, -3);
+
+		PrzesuwaniePlan drugi = new PrzesuwaniePlan();
+		drugi.dodaj(1, 1, 9);
+		drugi.dodaj(2, 10, -1);
+
+		FakeBaza baza = new FakeBaza(wykonawca, 10);
+		wykonawca.wykonaj(pierwszy, baza.polaczenie());
+		wykonawca.wykonaj(drugi, baza.polaczenie());
+
+		assertEquals(List.of(wykonawca.getSqlPrzeniesienia(), wykonawca.getSqlPrzywrocenia(),
+				wykonawca.getSqlPrzeniesienia(), wykonawca.getSqlPrzywrocenia()), baza.przygotowane);
+	}
+
+	@Test
+	void wykonaj_przestrzenTymczasowaPrzesuniecie_bezWartosciUjemnych() throws Exception {
+
+		PrzesuwanieJdbcWykonawca wykonawca = new PrzesuwanieJdbcWykonawca.Builder().tabela("t")
+				.warunek("id_kategorii = ?", 3).przestrzenTymczasowaPrzesuniecie(1000).build();
+
+		assertEquals("UPDATE t SET lp = lp + ? WHERE lp BETWEEN ? AND ? AND (id_kategorii = ?)",
+				wykonawca.getSqlPrzeniesienia());
+		assertEquals("UPDATE t SET lp = lp - ? WHERE lp > ? AND (id_kategorii = ?)", wykonawca.getSqlPrzywrocenia());
+
+		PrzesuwaniePlan plan = new PrzesuwaniePlan();
+		plan.dodaj(1, 2, 1);
+		plan.dodaj(3, 3, -2);
+
+		FakeBaza baza = new FakeBaza(wykonawca, 3);
+
+		assertEquals(3, wykonawca.wykonaj(plan, baza.polaczenie()));
+		assertArrayEquals(new int[] { 2, 3, 1 }, baza.lp(3));
+		assertTrue(baza.minimalneLp > 0);
+	}
+
+	@Test
+	void wykonaj_bladBazy_transakcjaWycofana() throws Exception {
+
+		PrzesuwanieJdbcWykonawca wykonawca = new PrzesuwanieJdbcWykonawca.Builder().tabela("t")
+				.warunek("id_kategorii = ?", 3).build();
+
+		PrzesuwaniePlan plan = new PrzesuwaniePlan();
+		plan.dodaj(1, 2, 1);
+		plan.dodaj(3, 3, -2);
+
+		FakeBaza baza = new FakeBaza(wykonawca, 3);
+		baza.bladPrzywrocenia = true;
+
+		assertThrows(SQLException.class, () -> wykonawca.wykonaj(plan, baza.polaczenie()));
+		assertEquals(1, baza.liczbaWycofan);
+		assertEquals(0, baza.liczbaZatwierdzen);
+		assertTrue(baza.autoCommit);
+	}
+
+	@Test
+	void wykonaj_bladWycofania_dolaczonyDoBleduPierwotnego() throws Exception {
+
+		PrzesuwanieJdbcWykonawca wykonawca = new PrzesuwanieJdbcWykonawca.Builder().tabela("t")
+				.warunek("id_kategorii = ?", 3).build();
+
+		PrzesuwaniePlan plan = new PrzesuwaniePlan();
+		plan.dodaj(1, 2, 1);
+		plan.dodaj(3, 3, -2);
+
+		FakeBaza baza = new FakeBaza(wykonawca, 3);
+		baza.bladPrzywrocenia = true;
+		baza.bladWycofania = true;
+		baza.bladAutoCommit = true;
+
+		SQLException blad = assertThrows(SQLException.class, () -> wykonawca.wykonaj(plan, baza.polaczenie()));
+
+		assertEquals("Symulowany błąd bazy.", blad.getMessage());
+		assertEquals(2, blad.getSuppressed().length);
+		assertEquals("Symulowany błąd wycofania.", blad.getSuppressed()[0].getMessage());
+		assertEquals("Symulowany błąd trybu autoCommit.", blad.getSuppressed()[1].getMessage());
+	}
+
+	@Test
+	void wykonaj_przestrzenTymczasowaPozaZakresemInt_wyjatekBezZmian() throws Exception {
+
+		PrzesuwanieJdbcWykonawca wykonawca = new PrzesuwanieJdbcWykonawca.Builder().tabela("t")
+				.warunek("id_kategorii = ?", 3).przestrzenTymczasowaPrzesuniecie(Integer.MAX_VALUE - 5).build();
+
+		// najwyższe LP tymczasowe: 2 + 3 + (Integer.MAX_VALUE - 5) = Integer.MAX_VALUE
+		PrzesuwaniePlan miesci = new PrzesuwaniePlan();
+		miesci.dodaj(1, 2, 3);
+		miesci.dodaj(3, 5, -2);
+
+		PrzesuwaniePlan przekracza = new PrzesuwaniePlan();
+		przekracza.dodaj(1, 3, 3);
+
+		FakeBaza baza = new FakeBaza(wykonawca, 3);
+
+		assertThrows(IllegalArgumentException.class, () -> wykonawca.wykonaj(przekracza, baza.polaczenie()));
+		assertEquals(0, baza.przygotowane.size());
+		assertTrue(baza.autoCommit);
+
+		FakeBaza bazaPieciu = new FakeBaza(wykonawca, 5);
+		assertEquals(5, wykonawca.wykonaj(miesci, bazaPieciu.polaczenie()));
+		assertArrayEquals(new int[] { 4, 5, 1, 2, 3 }, bazaPieciu.lp(3));
+	}
+
+	@Test
+	void build_bezTabeli_wyjatek() {
+		assertThrows(IllegalStateException.class, () -> new PrzesuwanieJdbcWykonawca.Builder().build());
+		assertThrows(IllegalStateException.class,
+				() -> new PrzesuwanieJdbcWykonawca.Builder().tabela("t").rozmiarPaczki(0).build());
+	}
+
+	// ============================================================
+	// POMOCNICZE
+	// ============================================================
+
+	private PrzesuwaniePlan losowyPlan(int rozmiarListy) throws Exception {
+
+		TrybPrzesuwania tryb = TrybPrzesuwania.values()[random.nextInt(TrybPrzesuwania.values().length)];
+		PrzesuwanieObsluga<Object> obsluga = new PrzesuwanieObsluga.Builder<Object>().trybPrzesuwania(tryb).build();
+
+		List<PrzesuwanieIndeksyBlok> zakresy = new ArrayList<>();
+		int lp = 1 + random.nextInt(3);
+		while (lp <= rozmiarListy) {
+			int koniec = Math.min(rozmiarListy, lp + random.nextInt(4));
+			zakresy.add(new PrzesuwanieIndeksyBlok(lp, koniec));
+			lp = koniec + 2 + random.nextInt(8);
+		}
+
+		return obsluga.przesunPlan(rozmiarListy, zakresy, random.nextInt(2 * rozmiarListy + 1) - rozmiarListy);
+	}
+
+	private static int[] oczekiwaneLp(PrzesuwaniePlan plan, int rozmiarListy) {
+		int[] lp = new int[rozmiarListy];
+		for (int i = 0; i < rozmiarListy; i++) {
+			lp[i] = i + 1;
+		}
+		for (int k = 0; k < plan.getLiczbaOperacji(); k++) {
+			for (int i = plan.getLpOd(k); i <= plan.getLpDo(k); i++) {
+				lp[i - 1] = i + plan.getOffset(k);
+			}
+		}
+		return lp;
+	}
+
+	/**
+	 * Tabela w pamięci z dwiema kategoriami po {@code rozmiarListy} wierszy,
+	 * dostępna przez połączenie zbudowane na {@link Proxy}. Rozumie wyłącznie
+	 * dwie instrukcje wykonawcy i po każdej sprawdza unikalność LP w kategorii.
+	 */
+	private static final class FakeBaza {
+
+		private final PrzesuwanieJdbcWykonawca wykonawca;
+		private final int rozmiarListy;
+		private final int[] kategoria;
+		private final int[] lp;
+
+		final List<String> przygotowane = new ArrayList<>();
+		int liczbaPaczek;
+		int liczbaZatwierdzen;
+		int liczbaWycofan;
+		boolean autoCommit = true;
+		boolean bladPrzywrocenia;
+		boolean bladWycofania;
+		boolean bladAutoCommit;
+		int minimalneLp = Integer.MAX_VALUE;
+
+		FakeBaza(PrzesuwanieJdbcWykonawca wykonawca, int rozmiarListy) {
+			this.wykonawca = wykonawca;
+			this.rozmiarListy = rozmiarListy;
+			this.kategoria = new int[2 * rozmiarListy];
+			this.lp = new int[2 * rozmiarListy];
+			for (int i = 0; i < 2 * rozmiarListy; i++) {
+				kategoria[i] = i < rozmiarListy ? 3 : 4;
+				lp[i] = i % rozmiarListy + 1;
+			}
+		}
+
+		int[] lp(int idKategorii) {
+			int poczatek = idKategorii == 3 ? 0 : rozmiarListy;
+			int[] wynik = new int[rozmiarListy];
+			System.arraycopy(lp, poczatek, wynik, 0, rozmiarListy);
+			return wynik;
+		}
+
+		int liczbaZmienionych() {
+			int liczba = 0;
+			for (int i = 0; i < 2 * rozmiarListy; i++) {
+				if (lp[i] != i % rozmiarListy + 1) {
+					liczba++;
+				}
+			}
+			return liczba;
+		}
+
+		Connection polaczenie() {
+			return (Connection) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[] { Connection.class },
+					(proxy, metoda, argumenty) -> {
+						switch (metoda.getName()) {
+						case "getAutoCommit":
+							return autoCommit;
+						case "setAutoCommit":
+							if (bladAutoCommit && (Boolean) argumenty[0]) {
+								throw new SQLException("Symulowany błąd trybu autoCommit.");
+							}
+							autoCommit = (Boolean) argumenty[0];
+							return null;
+						case "commit":
+							liczbaZatwierdzen++;
+							return null;
+						case "rollback":
+							if (bladWycofania) {
+								throw new SQLException("Symulowany błąd wycofania.");
+							}
+							liczbaWycofan++;
+							return null;
+						case "prepareStatement":
+							przygotowane.add((String) argumenty[0]);
+							return instrukcja((String) argumenty[0]);
+						default:
+							throw new UnsupportedOperationException(metoda.getName());
+						}
+					});
+		}
+
+		private PreparedStatement instrukcja(String sql) {
+
+			final Object[] parametry = new Object[4];
+			final List<Object[]> paczka = new ArrayList<>();
+
+			return (PreparedStatement) Proxy.newProxyInstance(getClass().getClassLoader(),
+					new Class<?>[] { PreparedStatement.class }, (proxy, metoda, argumenty) -> {
+						switch (metoda.getName()) {
+						case "setInt":
+						case "setObject":
+							parametry[(Integer) argumenty[0] - 1] = argumenty[1];
+							return null;
+						case "addBatch":
+							paczka.add(parametry.clone());
+							return null;
+						case "executeBatch":
+							liczbaPaczek++;
+							int[] wyniki = new int[paczka.size()];
+							for (int i = 0; i < paczka.size(); i++) {
+								wyniki[i] = przenies(sql, paczka.get(i));
+							}
+							paczka.clear();
+							return wyniki;
+						case "executeUpdate":
+							if (bladPrzywrocenia) {
+								throw new SQLException("Symulowany błąd bazy.");
+							}
+							return przywrocZnak(sql, parametry);
+						case "close":
+							return null;
+						default:
+							throw new UnsupportedOperationException(metoda.getName());
+						}
+					});
+		}
+
+		private int przenies(String sql, Object[] parametry) {
+
+			assertEquals(wykonawca.getSqlPrzeniesienia(), sql);
+
+			boolean negacja = sql.contains("= -(");
+			int offset = (Integer) parametry[0];
+			int lpOd = (Integer) parametry[1];
+			int lpDo = (Integer) parametry[2];
+			int idKategorii = (Integer) parametry[3];
+
+			int liczba = 0;
+			for (int i = 0; i < lp.length; i++) {
+				if (kategoria[i] == idKategorii && lp[i] >= lpOd && lp[i] <= lpDo) {
+					lp[i] = negacja ? -(lp[i] + offset) : lp[i] + offset;
+					liczba++;
+				}
+			}
+			sprawdzUnikalnosc(sql);
+			return liczba;
+		}
+
+		private int przywrocZnak(String sql, Object[] parametry) {
+
+			assertEquals(wykonawca.getSqlPrzywrocenia(), sql);
+
+			boolean negacja = sql.contains("< 0");
+			int idKategorii = (Integer) parametry[negacja ? 0 : 2];
+
+			int liczba = 0;
+			for (int i = 0; i < lp.length; i++) {
+				if (kategoria[i] != idKategorii) {
+					continue;
+				}
+				if (negacja && lp[i] < 0) {
+					lp[i] = -lp[i];
+					liczba++;
+				} else if (!negacja && lp[i] > (Integer) parametry[1]) {
+					lp[i] -= (Integer) parametry[0];
+					liczba++;
+				}
+			}
+			sprawdzUnikalnosc(sql);
+			return liczba;
+		}
+
+		private void sprawdzUnikalnosc(String sql) {
+			Set<Long> unikalne = new HashSet<>();
+			for (int i = 0; i < lp.length; i++) {
+				minimalneLp = Math.min(minimalneLp, lp[i]);
+				long klucz = ((long) kategoria[i] << 32) ^ (lp[i] & 0xFFFFFFFFL);
+				assertTrue(unikalne.add(klucz), "Powtórzone LP " + lp[i] + " po instrukcji: " + sql);
+			}
+		}
+
+	}
+
+}
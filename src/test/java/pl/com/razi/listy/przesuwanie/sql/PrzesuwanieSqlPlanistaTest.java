@@ -0,0 +1,93 @@
+package pl.com.razi.listy.przesuwanie.sql;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+import pl.com.razi.listy.przesuwanie.sql.PrzesuwanieSqlPlanista.SposobZapisu;
+import pl.com.razi.listy.przesuwanie.wynik.PrzesuwaniePlan;
+
+public class PrzesuwanieSqlPlanistaTest {
+
+	private final PrzesuwanieSqlPlanista planista = new PrzesuwanieSqlPlanista.Builder().build();
+
+	@Test
+	void wybierz_maloZakresow_caseWhen() {
+
+		PrzesuwaniePlan plan = new PrzesuwaniePlan();
+		plan.dodaj(5, 7, 1);
+		plan.dodaj(8, 8, -3);
+
+		PrzesuwanieSqlDecyzja decyzja = planista.wybierz(plan, 1_000);
+
+		assertEquals(SposobZapisu.CASE_WHEN, decyzja.getSposob());
+		assertEquals(2, decyzja.getLiczbaOperacji());
+		assertEquals(4, decyzja.getLiczbaWierszy());
+		assertEquals(0.004, decyzja.getUdzialWierszy(), 1e-9);
+		assertTrue(decyzja.toString().startsWith("PrzesuwanieSqlDecyzja[CASE_WHEN; operacji=2, wierszy=4/1000"),
+				decyzja.toString());
+	}
+
+	@Test
+	void wybierz_wieleRozproszonychZakresow_paczkaJdbc() {
+
+		// co dwudziesty wiersz przesuwany o jeden – 5000 zakresów, 10% wierszy
+		PrzesuwaniePlan plan = new PrzesuwaniePlan();
+		for (int lp = 1; lp + 1 <= 100_000; lp += 20) {
+			plan.dodaj(lp, lp, 1);
+			plan.dodaj(lp + 1, lp + 1, -1);
+		}
+
+		PrzesuwanieSqlDecyzja decyzja = planista.wybierz(plan, 100_000);
+
+		assertEquals(SposobZapisu.PACZKA_JDBC, decyzja.getSposob(), decyzja.toString());
+		assertEquals(10_000, decyzja.getLiczbaWierszy());
+	}
+
+	@Test
+	void wybierz_wiekszoscListyWieleZakresow_pelnePrzepisanie() {
+
+		// cała lista podzielona na zamieniane pary
+		PrzesuwaniePlan plan = new PrzesuwaniePlan();
+		for (int lp = 1; lp + 1 <= 30_000; lp += 2) {
+			plan.dodaj(lp, lp, 1);
+			plan.dodaj(lp + 1, lp + 1, -1);
+		}
+
+		PrzesuwanieSqlDecyzja decyzja = planista.wybierz(plan, 30_000);
+
+		assertEquals(SposobZapisu.PELNE_PRZEPISANIE, decyzja.getSposob(), decyzja.toString());
+		assertEquals(1.0, decyzja.getUdzialWierszy(), 1e-9);
+		for (SposobZapisu sposob : SposobZapisu.values()) {
+			assertTrue(decyzja.getKoszt(decyzja.getSposob()) <= decyzja.getKoszt(sposob));
+		}
+	}
+
+	@Test
+	void wybierz_maksymalnyRozmiarPaczki_jednaPaczka() {
+
+		PrzesuwanieSqlPlanista planistaJednejPaczki = new PrzesuwanieSqlPlanista.Builder().kosztInstrukcji(100)
+				.kosztPozycjiPaczki(1).kosztAktualizacjiWiersza(1).rozmiarPaczki(Integer.MAX_VALUE).build();
+
+		PrzesuwaniePlan plan = new PrzesuwaniePlan();
+		plan.dodaj(5, 7, 1);
+		plan.dodaj(8, 8, -3);
+
+		// jedna paczka + instrukcja przygotowująca, 2 pozycje, 4 wiersze zapisywane dwukrotnie
+		assertEquals(2 * 100 + 2 + 8,
+				planistaJednejPaczki.wybierz(plan, 1_000).getKoszt(SposobZapisu.PACZKA_JDBC), 1e-9);
+	}
+
+	@Test
+	void wybierz_pustyPlan_zeroweKoszty() {
+
+		PrzesuwanieSqlDecyzja decyzja = planista.wybierz(new PrzesuwaniePlan(), 100);
+
+		assertEquals(SposobZapisu.CASE_WHEN, decyzja.getSposob());
+		for (SposobZapisu sposob : SposobZapisu.values()) {
+			assertEquals(0.0, decyzja.getKoszt(sposob));
+		}
+	}
+
+}
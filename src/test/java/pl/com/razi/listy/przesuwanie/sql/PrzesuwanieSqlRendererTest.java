@@ -0,0 +1,445 @@
+package pl.com.razi.listy.przesuwanie.sql;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.junit.jupiter.api.Test;
+
+import pl.com.razi.listy.przesuwanie.PrzesuwanieObsluga;
+import pl.com.razi.listy.przesuwanie.PrzesuwanieObsluga.TrybPrzesuwania;
+import pl.com.razi.listy.przesuwanie.model.PrzesuwanieIndeksyBlok;
+import pl.com.razi.listy.przesuwanie.wynik.PrzesuwaniePlan;
+
+public class PrzesuwanieSqlRendererTest {
+
+	private static final int LICZBA_PROB = 500;
+
+	private static final Pattern WHEN = Pattern
+			.compile("WHEN lp BETWEEN (\\d+) AND (\\d+) THEN (-\\()?lp ([+-]) (\\d+)");
+	private static final Pattern PRZYWROCENIE_K = Pattern.compile("SET lp = lp - (\\d+)\n");
+	private static final Pattern WIERSZ = Pattern.compile("\\((-?\\d+), (-?\\d+), (-?\\d+)\\)");
+	private static final Pattern PRZESUNIECIE_K = Pattern.compile("plan\\.przesuniecie \\+ (\\d+)");
+	private static final Pattern ZAKRES = Pattern
+			.compile("AND lp BETWEEN (\\d+) AND (\\d+);$|^WHERE lp BETWEEN (\\d+) AND (\\d+);$", Pattern.MULTILINE);
+
+	private final Random random = new Random(2024);
+
+	// ============================================================
+	// jedna instrukcja
+	// ============================================================
+
+	@Test
+	void renderuj_bezLimitow_zgodnyZToSqlCaseWhenBloki() throws Exception {
+
+		PrzesuwaniePlan plan = new PrzesuwaniePlan();
+		plan.dodaj(5, 7, 1);
+		plan.dodaj(8, 8, -3);
+
+		PrzesuwanieSqlRenderer renderer = new PrzesuwanieSqlRenderer.Builder().tabela("Dokumenty")
+				.warunek("id_kategorii = 3").build();
+
+		StringWriter writer = new StringWriter();
+
+		assertEquals(1, renderer.renderuj(plan, writer));
+		assertEquals(plan.toSqlCaseWhenBloki("Dokumenty", "lp", "id_kategorii = 3"), writer.toString());
+	}
+
+	@Test
+	void renderuj_pustyPlan_nicNieZapisuje() throws Exception {
+
+		StringBuilder sb = new StringBuilder();
+
+		assertEquals(0, new PrzesuwanieSqlRenderer.Builder().tabela("t").build().renderuj(new PrzesuwaniePlan(), sb));
+		assertEquals(0, sb.length());
+	}
+
+	// ============================================================
+	// podział
+	// ============================================================
+
+	@Test
+	void renderujInstrukcje_podzialWgLiczbyWhen() {
+
+		PrzesuwaniePlan plan = new PrzesuwaniePlan();
+		for (int i = 0; i < 7; i++) {
+			plan.dodaj(10 * i + 1, 10 * i + 5, i % 2 == 0 ? 5 : -5);
+		}
+
+		List<String> instrukcje = new PrzesuwanieSqlRenderer.Builder().tabela("t").warunek("k = 1").maksLiczbaWhen(3)
+				.build().renderujInstrukcje(plan);
+
+		// 3 + 3 + 1 gałęzi oraz przywrócenie znaku
+		assertEquals(4, instrukcje.size());
+		assertEquals("UPDATE t\nSET lp = -lp\nWHERE (k = 1) AND lp < 0;", instrukcje.get(3));
+		for (String instrukcja : instrukcje.subList(0, 3)) {
+			assertTrue(liczbaWhen(instrukcja) <= 3, instrukcja);
+			assertTrue(instrukcja.contains("WHERE (k = 1) AND lp BETWEEN "), instrukcja);
+		}
+	}
+
+	@Test
+	void renderuj_losowePlany_limitySpelnioneIWynikZgodny() throws Exception {
+
+		for (int proba = 0; proba < LICZBA_PROB; proba++) {
+
+			int rozmiarListy = 1 + random.nextInt(200);
+			PrzesuwaniePlan plan = losowyPlan(rozmiarListy);
+
+			int maksLiczbaWhen = 1 + random.nextInt(5);
+			int maksRozmiar = 120 + random.nextInt(300);
+
+			PrzesuwanieSqlRenderer renderer = new PrzesuwanieSqlRenderer.Builder().tabela("t")
+					.maksLiczbaWhen(maksLiczbaWhen).maksRozmiarInstrukcji(maksRozmiar).build();
+
+			List<String> instrukcje = renderer.renderujInstrukcje(plan);
+
+			StringBuilder strumien = new StringBuilder();
+			assertEquals(instrukcje.size(), renderer.renderuj(plan, strumien));
+			assertEquals(String.join("\n", instrukcje), strumien.toString());
+
+			for (String instrukcja : instrukcje) {
+				assertTrue(liczbaWhen(instrukcja) <= maksLiczbaWhen, instrukcja);
+				assertTrue(instrukcja.length() <= maksRozmiar, instrukcja);
+			}
+
+			assertArrayEquals(oczekiwaneLp(plan, rozmiarListy), wykonaj(instrukcje, rozmiarListy, null));
+		}
+	}
+
+	// ============================================================
+	// strategia dwufazowa
+	// ============================================================
+
+	@Test
+	void renderuj_dwufazowa_zawszeDwieFazy() {
+
+		PrzesuwaniePlan plan = new PrzesuwaniePlan();
+		plan.dodaj(5, 7, 1);
+		plan.dodaj(8, 8, -3);
+
+		List<String> instrukcje = new PrzesuwanieSqlRenderer.Builder().tabela("t").warunek("k = 1")
+				.strategia(PrzesuwanieStrategiaSql.DWUFAZOWA).build().renderujInstrukcje(plan);
+
+		assertEquals(List.of("UPDATE t\nSET lp = CASE\n" //
+				+ "    WHEN lp BETWEEN 5 AND 7 THEN -(lp + 1)\n" //
+				+ "    WHEN lp BETWEEN 8 AND 8 THEN -(lp - 3)\n" //
+				+ "    ELSE lp\nEND\nWHERE (k = 1) AND lp BETWEEN 5 AND 8;", //
+				"UPDATE t\nSET lp = -lp\nWHERE (k = 1) AND lp < 0;"), instrukcje);
+
+		List<String> zPrzesunieciem = new PrzesuwanieSqlRenderer.Builder().tabela("t")
+				.strategia(PrzesuwanieStrategiaSql.DWUFAZOWA).przestrzenTymczasowaPrzesuniecie(1000).build()
+				.renderujInstrukcje(plan);
+
+		assertEquals(List.of("UPDATE t\nSET lp = CASE\n" //
+				+ "    WHEN lp BETWEEN 5 AND 7 THEN lp + 1001\n" //
+				+ "    WHEN lp BETWEEN 8 AND 8 THEN lp + 997\n" //
+				+ "    ELSE lp\nEND\nWHERE lp BETWEEN 5 AND 8;", //
+				"UPDATE t\nSET lp = lp - 1000\nWHERE lp > 1000;"), zPrzesunieciem);
+	}
+
+	@Test
+	void renderuj_dwufazowa_unikalnoscPoKazdymWierszu() throws Exception {
+
+		for (int proba = 0; proba < LICZBA_PROB; proba++) {
+
+			int rozmiarListy = 1 + random.nextInt(200);
+			PrzesuwaniePlan plan = losowyPlan(rozmiarListy);
+
+			PrzesuwanieSqlRenderer.Builder builder = new PrzesuwanieSqlRenderer.Builder().tabela("t")
+					.strategia(PrzesuwanieStrategiaSql.DWUFAZOWA).maksLiczbaWhen(1 + random.nextInt(10));
+			if (random.nextBoolean()) {
+				builder.przestrzenTymczasowaPrzesuniecie(rozmiarListy + random.nextInt(1000));
+			}
+
+			List<String> instrukcje = builder.build().renderujInstrukcje(plan);
+
+			// każdy wiersz zmieniany co najwyżej dwa razy: raz w pierwszej fazie, raz w drugiej
+			assertEquals(plan.czyPusty() ? 0 : 1, instrukcje.stream().filter(i -> !i.contains("CASE")).count());
+			assertArrayEquals(oczekiwaneLp(plan, rozmiarListy), wykonaj(instrukcje, rozmiarListy, random));
+		}
+	}
+
+	// ============================================================
+	// dialekty
+	// ============================================================
+
+	@Test
+	void renderuj_zlaczenieValues() {
+
+		PrzesuwaniePlan plan = new PrzesuwaniePlan();
+		plan.dodaj(5, 7, 1);
+		plan.dodaj(8, 8, -3);
+
+		PrzesuwanieSqlRenderer.Builder builder = new PrzesuwanieSqlRenderer.Builder().tabela("t").warunek("k = 1")
+				.dialekt(PrzesuwanieDialektSql.ZLACZENIE_VALUES);
+
+		assertEquals(List.of("UPDATE t\nSET lp = lp + plan.przesuniecie\nFROM (VALUES\n" //
+				+ "    (5, 7, 1),\n" //
+				+ "    (8, 8, -3)\n" //
+				+ ") AS plan(lp_od, lp_do, przesuniecie)\n" //
+				+ "WHERE (k = 1) AND lp BETWEEN plan.lp_od AND plan.lp_do;"), builder.build().renderujInstrukcje(plan));
+
+		assertEquals(List.of("UPDATE t\nSET lp = -(lp + plan.przesuniecie)\nFROM (VALUES\n" //
+				+ "    (5, 7, 1)\n" //
+				+ ") AS plan(lp_od, lp_do, przesuniecie)\n" //
+				+ "WHERE (k = 1) AND lp BETWEEN plan.lp_od AND plan.lp_do;", //
+				"UPDATE t\nSET lp = -(lp + plan.przesuniecie)\nFROM (VALUES\n" //
+						+ "    (8, 8, -3)\n" //
+						+ ") AS plan(lp_od, lp_do, przesuniecie)\n" //
+						+ "WHERE (k = 1) AND lp BETWEEN plan.lp_od AND plan.lp_do;", //
+				"UPDATE t\nSET lp = -lp\nWHERE (k = 1) AND lp < 0;"),
+				builder.maksLiczbaWhen(1).build().renderujInstrukcje(plan));
+	}
+
+	@Test
+	void renderuj_tabelaTymczasowa() {
+
+		PrzesuwaniePlan plan = new PrzesuwaniePlan();
+		plan.dodaj(5, 7, 1);
+		plan.dodaj(8, 8, -3);
+
+		List<String> instrukcje = new PrzesuwanieSqlRenderer.Builder().tabela("t").warunek("k = 1")
+				.dialekt(PrzesuwanieDialektSql.TABELA_TYMCZASOWA).tabelaTymczasowa("tmp_plan").build()
+				.renderujInstrukcje(plan);
+
+		assertEquals(List.of(
+				"CREATE TEMPORARY TABLE tmp_plan (lp_od INT NOT NULL, lp_do INT NOT NULL, przesuniecie INT NOT NULL);",
+				"INSERT INTO tmp_plan (lp_od, lp_do, przesuniecie) VALUES\n    (5, 7, 1),\n    (8, 8, -3);",
+				"UPDATE t\nSET lp = lp + plan.przesuniecie\nFROM tmp_plan AS plan\n"
+						+ "WHERE (k = 1) AND lp BETWEEN plan.lp_od AND plan.lp_do;",
+				"DROP TABLE tmp_plan;"), instrukcje);
+	}
+
+	@Test
+	void renderuj_dialektyZlaczenia_losowePlany() throws Exception {
+
+		PrzesuwanieDialektSql[] dialekty = { PrzesuwanieDialektSql.ZLACZENIE_VALUES,
+				PrzesuwanieDialektSql.TABELA_TYMCZASOWA };
+
+		for (int proba = 0; proba < LICZBA_PROB; proba++) {
+
+			int rozmiarListy = 1 + random.nextInt(200);
+			PrzesuwaniePlan plan = losowyPlan(rozmiarListy);
+
+			boolean dwufazowo = random.nextBoolean();
+			int maksLiczbaWierszy = 1 + random.nextInt(8);
+			int maksRozmiar = 120 + random.nextInt(300);
+
+			PrzesuwanieSqlRenderer.Builder builder = new PrzesuwanieSqlRenderer.Builder().tabela("t")
+					.dialekt(dialekty[random.nextInt(dialekty.length)]).maksLiczbaWhen(maksLiczbaWierszy)
+					.maksRozmiarInstrukcji(maksRozmiar)
+					.strategia(dwufazowo ? PrzesuwanieStrategiaSql.DWUFAZOWA : PrzesuwanieStrategiaSql.JEDNOFAZOWA);
+			if (random.nextBoolean()) {
+				builder.przestrzenTymczasowaPrzesuniecie(rozmiarListy + random.nextInt(1000));
+			}
+
+			PrzesuwanieSqlRenderer renderer = builder.build();
+			List<String> instrukcje = renderer.renderujInstrukcje(plan);
+
+			StringBuilder strumien = new StringBuilder();
+			assertEquals(instrukcje.size(), renderer.renderuj(plan, strumien));
+			assertEquals(String.join("\n", instrukcje), strumien.toString());
+
+			for (String instrukcja : instrukcje) {
+				long liczbaWierszy = WIERSZ.matcher(instrukcja).results().count();
+				assertTrue(liczbaWierszy <= maksLiczbaWierszy, instrukcja);
+				// instrukcja z jednym wierszem może przekroczyć limit rozmiaru
+				assertTrue(liczbaWierszy <= 1 || instrukcja.length() <= maksRozmiar, instrukcja);
+			}
+
+			assertArrayEquals(oczekiwaneLp(plan, rozmiarListy),
+					wykonaj(instrukcje, rozmiarListy, dwufazowo ? random : null));
+		}
+	}
+
+	@Test
+	void build_niepoprawnePrzesuniecieTymczasowe_wyjatek() {
+		assertThrows(IllegalStateException.class,
+				() -> new PrzesuwanieSqlRenderer.Builder().tabela("t").przestrzenTymczasowaPrzesuniecie(0).build());
+	}
+
+	// ============================================================
+	// POMOCNICZE
+	// ============================================================
+
+	private PrzesuwaniePlan losowyPlan(int rozmiarListy) throws Exception {
+
+		TrybPrzesuwania tryb = TrybPrzesuwania.values()[random.nextInt(TrybPrzesuwania.values().length)];
+		PrzesuwanieObsluga<Object> obsluga = new PrzesuwanieObsluga.Builder<Object>().trybPrzesuwania(tryb).build();
+
+		List<PrzesuwanieIndeksyBlok> zakresy = new ArrayList<>();
+		int lp = 1 + random.nextInt(3);
+		while (lp <= rozmiarListy) {
+			int koniec = Math.min(rozmiarListy, lp + random.nextInt(4));
+			zakresy.add(new PrzesuwanieIndeksyBlok(lp, koniec));
+			lp = koniec + 2 + random.nextInt(8);
+		}
+
+		return obsluga.przesunPlan(rozmiarListy, zakresy, random.nextInt(2 * rozmiarListy + 1) - rozmiarListy);
+	}
+
+	private static int[] oczekiwaneLp(PrzesuwaniePlan plan, int rozmiarListy) {
+		int[] lp = new int[rozmiarListy];
+		for (int i = 0; i < rozmiarListy; i++) {
+			lp[i] = i + 1;
+		}
+		for (int k = 0; k < plan.getLiczbaOperacji(); k++) {
+			for (int i = plan.getLpOd(k); i <= plan.getLpDo(k); i++) {
+				lp[i - 1] = i + plan.getOffset(k);
+			}
+		}
+		return lp;
+	}
+
+	/**
+	 * Minimalny interpreter generowanych instrukcji. Po każdej instrukcji
+	 * sprawdza unikalność LP, jak indeks unikalny sprawdzany na koniec
+	 * instrukcji. Jeśli podano {@code kolejnosc}, wiersze aktualizowane są w
+	 * losowej kolejności, a unikalność sprawdzana jest po każdym wierszu.
+	 */
+	private static int[] wykonaj(List<String> instrukcje, int rozmiarListy, Random kolejnosc) {
+
+		int[] lp = new int[rozmiarListy];
+		for (int i = 0; i < rozmiarListy; i++) {
+			lp[i] = i + 1;
+		}
+
+		List<int[]> tabelaTymczasowa = new ArrayList<>();
+
+		for (String instrukcja : instrukcje) {
+
+			if (instrukcja.startsWith("CREATE") || instrukcja.startsWith("DROP")) {
+				tabelaTymczasowa.clear();
+				continue;
+			}
+			if (instrukcja.startsWith("INSERT")) {
+				tabelaTymczasowa.addAll(wiersze(instrukcja, 0, 1));
+				continue;
+			}
+
+			int[] wiersze = kolejnoscWierszy(rozmiarListy, kolejnosc);
+
+			Matcher k = PRZYWROCENIE_K.matcher(instrukcja);
+			if (instrukcja.contains("SET lp = -lp") || k.find()) {
+				int przesuniecie = instrukcja.contains("SET lp = -lp") ? 0 : Integer.parseInt(k.group(1));
+				for (int i : wiersze) {
+					if (przesuniecie == 0 && lp[i] < 0) {
+						lp[i] = -lp[i];
+					} else if (przesuniecie > 0 && lp[i] > przesuniecie) {
+						lp[i] -= przesuniecie;
+					}
+					sprawdzUnikalnosc(lp, instrukcja, kolejnosc != null);
+				}
+				sprawdzUnikalnosc(lp, instrukcja, true);
+				continue;
+			}
+
+			List<int[]> galezie = new ArrayList<>();
+			Matcher m = WHEN.matcher(instrukcja);
+			if (instrukcja.contains("plan.przesuniecie")) {
+				Matcher pk = PRZESUNIECIE_K.matcher(instrukcja);
+				int przesuniecie = pk.find() ? Integer.parseInt(pk.group(1)) : 0;
+				int znak = instrukcja.contains("-(lp + plan.przesuniecie)") ? -1 : 1;
+				galezie.addAll(instrukcja.contains("FROM (VALUES") ? wiersze(instrukcja, przesuniecie, znak)
+						: przeksztalc(tabelaTymczasowa, przesuniecie, znak));
+			}
+			while (m.find()) {
+				int offset = Integer.parseInt(m.group(5)) * ("+".equals(m.group(4)) ? 1 : -1);
+				galezie.add(new int[] { Integer.parseInt(m.group(1)), Integer.parseInt(m.group(2)), offset,
+						m.group(3) != null ? -1 : 1 });
+			}
+
+			int zakresOd = Integer.MIN_VALUE;
+			int zakresDo = Integer.MAX_VALUE;
+			Matcher z = ZAKRES.matcher(instrukcja);
+			if (z.find()) {
+				zakresOd = Integer.parseInt(z.group(1) != null ? z.group(1) : z.group(3));
+				zakresDo = Integer.parseInt(z.group(2) != null ? z.group(2) : z.group(4));
+			}
+
+			for (int i : wiersze) {
+				if (lp[i] < zakresOd || lp[i] > zakresDo) {
+					continue;
+				}
+				for (int[] g : galezie) {
+					if (lp[i] >= g[0] && lp[i] <= g[1]) {
+						lp[i] = g[3] * (lp[i] + g[2]);
+						break;
+					}
+				}
+				sprawdzUnikalnosc(lp, instrukcja, kolejnosc != null);
+			}
+
+			sprawdzUnikalnosc(lp, instrukcja, true);
+		}
+
+		return lp;
+	}
+
+	/**
+	 * Wiersze {@code (lpOd, lpDo, offset)} instrukcji jako gałęzie interpretera.
+	 */
+	private static List<int[]> wiersze(String instrukcja, int przesuniecie, int znak) {
+		List<int[]> wynik = new ArrayList<>();
+		Matcher w = WIERSZ.matcher(instrukcja);
+		while (w.find()) {
+			wynik.add(new int[] { Integer.parseInt(w.group(1)), Integer.parseInt(w.group(2)),
+					Integer.parseInt(w.group(3)) + przesuniecie, znak });
+		}
+		return wynik;
+	}
+
+	private static List<int[]> przeksztalc(List<int[]> tabela, int przesuniecie, int znak) {
+		List<int[]> wynik = new ArrayList<>();
+		for (int[] w : tabela) {
+			wynik.add(new int[] { w[0], w[1], w[2] + przesuniecie, znak });
+		}
+		return wynik;
+	}
+
+	private static int[] kolejnoscWierszy(int rozmiarListy, Random kolejnosc) {
+		int[] wiersze = new int[rozmiarListy];
+		for (int i = 0; i < rozmiarListy; i++) {
+			wiersze[i] = i;
+		}
+		if (kolejnosc != null) {
+			for (int i = rozmiarListy - 1; i > 0; i--) {
+				int j = kolejnosc.nextInt(i + 1);
+				int tmp = wiersze[i];
+				wiersze[i] = wiersze[j];
+				wiersze[j] = tmp;
+			}
+		}
+		return wiersze;
+	}
+
+	private static void sprawdzUnikalnosc(int[] lp, String instrukcja, boolean sprawdzaj) {
+		if (!sprawdzaj) {
+			return;
+		}
+		Set<Integer> unikalne = new HashSet<>();
+		for (int wartosc : lp) {
+			assertTrue(unikalne.add(wartosc), "Powtórzone LP " + wartosc + " w trakcie instrukcji:\n" + instrukcja);
+		}
+	}
+
+	private static int liczbaWhen(String instrukcja) {
+		int liczba = 0;
+		for (int i = instrukcja.indexOf("WHEN"); i >= 0; i = instrukcja.indexOf("WHEN", i + 1)) {
+			liczba++;
+		}
+		return liczba;
+	}
+
+}
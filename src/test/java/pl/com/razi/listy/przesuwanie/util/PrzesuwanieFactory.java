@@ -29,6 +29,17 @@ public class PrzesuwanieFactory {
 		return wynik;
 	}
 
+	/**
+	 * Tworzy modyfikowalną listę liczb od 1 do n.
+	 */
+	public static List<Integer> liczby(int n) {
+		List<Integer> wynik = new ArrayList<>();
+		for (int i = 1; i <= n; i++) {
+			wynik.add(i);
+		}
+		return wynik;
+	}
+
 	/**
 	 * Tworzy listę elementów na podstawie przekazanych identyfikatorów (ID/LP), w
 	 * dokładnie takiej kolejności, jak podano.
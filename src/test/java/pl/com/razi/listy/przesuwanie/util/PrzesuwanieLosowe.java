@@ -0,0 +1,76 @@
+package pl.com.razi.listy.przesuwanie.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Losowe dane wejściowe dla testów porównujących wynik z obliczeniami
+ * referencyjnymi. Ziarno jest stałe, więc każde uruchomienie testu jest
+ * powtarzalne.
+ */
+public class PrzesuwanieLosowe {
+
+	/**
+	 * Liczba prób w testach losowych.
+	 */
+	public static final int LICZBA_PROB = 1_000;
+
+	private static final long ZIARNO = 2024;
+
+	private final Random random = new Random(ZIARNO);
+
+	/**
+	 * Liczba z zakresu {@code 0..zakres-1}.
+	 */
+	public int liczba(int zakres) {
+		return random.nextInt(zakres);
+	}
+
+	/**
+	 * Rozmiar listy z zakresu {@code 1..maks}.
+	 */
+	public int rozmiarListy(int maks) {
+		return 1 + random.nextInt(maks);
+	}
+
+	/**
+	 * Przesunięcie z zakresu {@code -zakres..zakres}.
+	 */
+	public int przesuniecie(int zakres) {
+		return random.nextInt(2 * zakres + 1) - zakres;
+	}
+
+	/**
+	 * Od 1 do {@code maks} różnych indeksów listy o podanym rozmiarze, rosnąco.
+	 */
+	public int[] indeksy(int rozmiarListy, int maks) {
+		return random.ints(0, rozmiarListy).limit(1 + random.nextInt(Math.min(rozmiarListy, maks))).distinct()
+				.sorted().toArray();
+	}
+
+	/**
+	 * Od 0 do {@code maks} indeksów listy o podanym rozmiarze, w przypadkowej
+	 * kolejności i z możliwymi powtórzeniami.
+	 */
+	public int[] indeksyZPowtorzeniami(int rozmiarListy, int maks) {
+		return random.ints(0, rozmiarListy).limit(random.nextInt(Math.min(rozmiarListy, maks) + 1)).toArray();
+	}
+
+	/**
+	 * Średnio co trzeci element listy (co najmniej jeden), w kolejności listy.
+	 */
+	public <T> List<T> wybrane(List<T> wszystkie) {
+		List<T> wybrane = new ArrayList<>();
+		for (T element : wszystkie) {
+			if (random.nextInt(3) == 0) {
+				wybrane.add(element);
+			}
+		}
+		if (wybrane.isEmpty()) {
+			wybrane.add(wszystkie.get(random.nextInt(wszystkie.size())));
+		}
+		return wybrane;
+	}
+
+}
@@ -0,0 +1,109 @@
+package pl.com.razi.listy.przesuwanie.util;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import pl.com.razi.listy.przesuwanie.PrzesuwanieObsluga.TrybPrzesuwania;
+
+/**
+ * Przypadki brzegowe wspólne dla funkcji zbudowanych na obliczeniach
+ * przesunięcia (sesja, historia, zaznaczenie, wynik, obsługa tablic
+ * prostych). Lista źródłowa to {@link PrzesuwanieFactory#listaPelna(int)} o
+ * rozmiarze {@link #ROZMIAR_LISTY} – identyfikatory elementów są równe ich LP.
+ */
+public enum PrzesuwanieScenariuszBrzegowy {
+
+	PUSTE_ZAZNACZENIE(TrybPrzesuwania.LINIOWE, 1, lp(), lp(1, 2, 3, 4, 5, 6, 7, 8, 9, 10)),
+
+	CALA_LISTA_LINIOWE(TrybPrzesuwania.LINIOWE, 1, lp(1, 2, 3, 4, 5, 6, 7, 8, 9, 10),
+			lp(1, 2, 3, 4, 5, 6, 7, 8, 9, 10)),
+	// cała lista jednym blokiem – obrót listy
+	CALA_LISTA_CYKLICZNE(TrybPrzesuwania.CYKLICZNE, 3, lp(1, 2, 3, 4, 5, 6, 7, 8, 9, 10),
+			lp(8, 9, 10, 1, 2, 3, 4, 5, 6, 7)),
+	CALA_LISTA_DOCISKAJACE(TrybPrzesuwania.DOCISKAJACE, -2, lp(1, 2, 3, 4, 5, 6, 7, 8, 9, 10),
+			lp(1, 2, 3, 4, 5, 6, 7, 8, 9, 10)),
+
+	DOCISKAJACE_ZA_KONIEC(TrybPrzesuwania.DOCISKAJACE, 20, lp(2, 5, 6), lp(1, 3, 4, 7, 8, 9, 10, 2, 5, 6)),
+	DOCISKAJACE_PRZED_POCZATEK(TrybPrzesuwania.DOCISKAJACE, -20, lp(3, 6), lp(3, 6, 1, 2, 4, 5, 7, 8, 9, 10));
+
+	public static final int ROZMIAR_LISTY = 10;
+
+	private final TrybPrzesuwania tryb;
+	private final int przesuniecie;
+	private final int[] lpWybranych;
+	private final int[] lpOczekiwane;
+
+	private PrzesuwanieScenariuszBrzegowy(TrybPrzesuwania tryb, int przesuniecie, int[] lpWybranych,
+			int[] lpOczekiwane) {
+		this.tryb = tryb;
+		this.przesuniecie = przesuniecie;
+		this.lpWybranych = lpWybranych;
+		this.lpOczekiwane = lpOczekiwane;
+	}
+
+	private static int[] lp(int... lp) {
+		return lp;
+	}
+
+	public TrybPrzesuwania getTryb() {
+		return tryb;
+	}
+
+	public int getPrzesuniecie() {
+		return przesuniecie;
+	}
+
+	public List<PrzesuwanieTestDane> wszystkie() {
+		return PrzesuwanieFactory.listaPelna(ROZMIAR_LISTY);
+	}
+
+	public List<PrzesuwanieTestDane> wybrane() {
+		return PrzesuwanieFactory.elementy(lpWybranych);
+	}
+
+	public int[] indeksy() {
+		return Arrays.stream(lpWybranych).map(lp -> lp - 1).toArray();
+	}
+
+	/**
+	 * Identyfikatory (LP) wszystkich elementów – dla obsługi tablic prostych.
+	 */
+	public int[] getLpWszystkich() {
+		return IntStream.rangeClosed(1, ROZMIAR_LISTY).toArray();
+	}
+
+	public int[] getLpWybranych() {
+		return lpWybranych.clone();
+	}
+
+	public List<PrzesuwanieTestDane> oczekiwane() {
+		return PrzesuwanieFactory.elementy(lpOczekiwane);
+	}
+
+	public int[] getLpOczekiwane() {
+		return lpOczekiwane.clone();
+	}
+
+	/**
+	 * Liczba elementów, których LP zmienia się w wyniku przesunięcia.
+	 */
+	public int getLiczbaZmienionych() {
+		int liczba = 0;
+		for (int i = 0; i < ROZMIAR_LISTY; i++) {
+			if (lpOczekiwane[i] != i + 1) {
+				liczba++;
+			}
+		}
+		return liczba;
+	}
+
+	public boolean czyDojdzie() {
+		return getLiczbaZmienionych() > 0;
+	}
+
+	public String opis() {
+		return tryb + " — o " + przesuniecie + ", wybrane " + Arrays.toString(lpWybranych);
+	}
+
+}
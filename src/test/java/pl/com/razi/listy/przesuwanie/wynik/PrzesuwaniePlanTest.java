@@ -0,0 +1,165 @@
+package pl.com.razi.listy.przesuwanie.wynik;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.List;
+import java.util.RandomAccess;
+
+import org.junit.jupiter.api.Test;
+
+import pl.com.razi.listy.przesuwanie.wynik.PrzesuwaniePlan.PrzesuwanieOperacja;
+
+public class PrzesuwaniePlanTest {
+
+	// ============================================================
+	// dodaj / akcesory
+	// ============================================================
+
+	@Test
+	void dodaj_pomijaPusteIZeroweOperacje() {
+		PrzesuwaniePlan plan = new PrzesuwaniePlan();
+
+		plan.dodaj(5, 4, 1);
+		plan.dodaj(1, 3, 0);
+
+		assertTrue(plan.czyPusty());
+		assertEquals(0, plan.getLiczbaOperacji());
+	}
+
+	@Test
+	void dodaj_powiekszaKolumny() {
+		PrzesuwaniePlan plan = new PrzesuwaniePlan();
+
+		for (int i = 1; i <= 100; i++) {
+			plan.dodaj(2 * i, 2 * i + 1, i % 2 == 0 ? i : -i);
+		}
+
+		assertEquals(100, plan.getLiczbaOperacji());
+		assertEquals(200, plan.getLpOd(99));
+		assertEquals(201, plan.getLpDo(99));
+		assertEquals(100, plan.getOffset(99));
+		assertEquals(-1, plan.getOffset(0));
+		assertThrows(IndexOutOfBoundsException.class, () -> plan.getLpOd(100));
+	}
+
+	// ============================================================
+	// kursor
+	// ============================================================
+
+	@Test
+	void kursor_przechodziOperacjeWKolejnosci() {
+		PrzesuwaniePlan plan = new PrzesuwaniePlan();
+		plan.dodaj(1, 2, 3);
+		plan.dodaj(3, 5, -2);
+
+		PrzesuwaniePlan.Kursor k = plan.kursor();
+
+		assertTrue(k.nastepna());
+		assertEquals(1, k.lpOd());
+		assertEquals(2, k.lpDo());
+		assertEquals(3, k.offset());
+		assertTrue(k.nastepna());
+		assertEquals(3, k.lpOd());
+		assertEquals(5, k.lpDo());
+		assertEquals(-2, k.offset());
+		assertFalse(k.nastepna());
+		assertFalse(new PrzesuwaniePlan().kursor().nastepna());
+	}
+
+	// ============================================================
+	// getOperacje
+	// ============================================================
+
+	@Test
+	void getOperacje_widokTylkoDoOdczytu() {
+		PrzesuwaniePlan plan = new PrzesuwaniePlan();
+		plan.dodaj(1, 2, 3);
+		plan.dodaj(3, 5, -2);
+
+		List<PrzesuwanieOperacja> operacje = plan.getOperacje();
+
+		assertSame(operacje, plan.getOperacje());
+		assertTrue(operacje instanceof RandomAccess);
+		assertEquals(2, operacje.size());
+		assertEquals(-2, operacje.get(1).offset);
+		assertThrows(UnsupportedOperationException.class, () -> operacje.add(new PrzesuwanieOperacja(7, 7, 1)));
+		assertThrows(UnsupportedOperationException.class, () -> operacje.set(0, new PrzesuwanieOperacja(7, 7, 1)));
+		assertThrows(UnsupportedOperationException.class,
+				() -> operacje.sort((x, y) -> Integer.compare(x.offset, y.offset)));
+		assertThrows(IndexOutOfBoundsException.class, () -> operacje.get(2));
+	}
+
+	@Test
+	void getOperacje_nowyWidokPoModyfikacji() {
+		PrzesuwaniePlan plan = new PrzesuwaniePlan();
+		plan.dodaj(1, 2, 3);
+
+		List<PrzesuwanieOperacja> operacje = plan.getOperacje();
+		Iterator<PrzesuwanieOperacja> iterator = operacje.iterator();
+
+		plan.dodaj(3, 5, -2);
+
+		assertNotSame(operacje, plan.getOperacje());
+		assertEquals(2, plan.getOperacje().size());
+		assertThrows(ConcurrentModificationException.class, iterator::next);
+
+		List<PrzesuwanieOperacja> przedNormalizacja = plan.getOperacje();
+		plan.normalizuj();
+		assertNotSame(przedNormalizacja, plan.getOperacje());
+	}
+
+	// ============================================================
+	// lpDocelowe
+	// ============================================================
+
+	@Test
+	void lpDocelowe_przenosiWgOperacji() {
+		PrzesuwaniePlan plan = new PrzesuwaniePlan();
+		plan.dodaj(2, 3, 2);
+		plan.dodaj(4, 5, -2);
+
+		assertEquals(1, plan.lpDocelowe(1));
+		assertEquals(4, plan.lpDocelowe(2));
+		assertEquals(5, plan.lpDocelowe(3));
+		assertEquals(2, plan.lpDocelowe(4));
+		assertEquals(6, plan.lpDocelowe(6));
+		assertEquals(7, new PrzesuwaniePlan().lpDocelowe(7));
+	}
+
+	// ============================================================
+	// normalizuj
+	// ============================================================
+
+	@Test
+	void normalizuj_sortujeILaczyStykajaceSie() {
+		PrzesuwaniePlan plan = new PrzesuwaniePlan();
+		plan.dodaj(6, 7, -2);
+		plan.dodaj(1, 2, 5);
+		plan.dodaj(3, 5, 5);
+
+		assertSame(plan, plan.normalizuj());
+		assertEquals(2, plan.getLiczbaOperacji());
+		assertEquals(1, plan.getLpOd(0));
+		assertEquals(5, plan.getLpDo(0));
+		assertEquals(5, plan.getOffset(0));
+		assertEquals(6, plan.getLpOd(1));
+		assertEquals(-2, plan.getOperacje().get(1).offset);
+	}
+
+	@Test
+	void normalizuj_nachodzaceZakresy_wyjatek() {
+		PrzesuwaniePlan plan = new PrzesuwaniePlan();
+		plan.dodaj(1, 3, 1);
+		plan.dodaj(3, 4, -1);
+
+		assertThrows(IllegalStateException.class, plan::normalizuj);
+	}
+
+}
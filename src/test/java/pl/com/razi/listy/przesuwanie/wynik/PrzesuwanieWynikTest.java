@@ -0,0 +1,215 @@
+package pl.com.razi.listy.przesuwanie.wynik;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Test;
+
+import pl.com.razi.listy.przesuwanie.PrzesuwanieObsluga;
+import pl.com.razi.listy.przesuwanie.PrzesuwanieObsluga.TrybPrzesuwania;
+import pl.com.razi.listy.przesuwanie.util.PrzesuwanieAssertions;
+import pl.com.razi.listy.przesuwanie.util.PrzesuwanieFactory;
+import pl.com.razi.listy.przesuwanie.util.PrzesuwanieLosowe;
+import pl.com.razi.listy.przesuwanie.util.PrzesuwanieScenariuszBrzegowy;
+import pl.com.razi.listy.przesuwanie.util.PrzesuwanieTestDane;
+import pl.com.razi.listy.przesuwanie.util.PrzesuwanieTestLogger;
+
+public class PrzesuwanieWynikTest {
+
+	private final PrzesuwanieLosowe losowe = new PrzesuwanieLosowe();
+
+	private final PrzesuwanieAssertions assertions = new PrzesuwanieAssertions(new PrzesuwanieTestLogger(false));
+
+	private static final class Wiersz {
+		int lp;
+	}
+
+	// ============================================================
+	// ustawLpZmienione
+	// ============================================================
+
+	@Test
+	void ustawLpZmienione_tylkoZmienioneWiersze_zgodneZUstawLp() throws Exception {
+
+		for (TrybPrzesuwania tryb : TrybPrzesuwania.values()) {
+			for (boolean jakoWidok : new boolean[] { false, true }) {
+
+				PrzesuwanieObsluga.Builder<Wiersz> builder = new PrzesuwanieObsluga.Builder<Wiersz>()
+						.trybPrzesuwania(tryb);
+				PrzesuwanieObsluga<Wiersz> obsluga = (jakoWidok ? builder.wynikJakoWidok() : builder).build();
+
+				for (int proba = 0; proba < PrzesuwanieLosowe.LICZBA_PROB; proba++) {
+
+					int rozmiarListy = losowe.rozmiarListy(40);
+					int lpStart = losowe.liczba(3) * 100 + 1;
+					List<Wiersz> wiersze = new ArrayList<>();
+					for (int i = 0; i < rozmiarListy; i++) {
+						Wiersz w = new Wiersz();
+						w.lp = lpStart + i;
+						wiersze.add(w);
+					}
+
+					int[] indeksy = losowe.indeksy(rozmiarListy, 6);
+					int przesuniecie = losowe.przesuniecie(rozmiarListy);
+
+					PrzesuwanieWynik<Wiersz> wynik = obsluga.przesunPelny(wiersze, indeksy, przesuniecie);
+
+					int[] liczbaWywolan = new int[1];
+					wynik.ustawLpZmienione(lpStart, (wiersz, lpStare, lpNowe) -> {
+						assertEquals(wiersz.lp, lpStare);
+						assertNotEquals(lpStare, lpNowe);
+						wiersz.lp = lpNowe;
+						liczbaWywolan[0]++;
+					});
+
+					String opis = tryb + ", n=" + rozmiarListy + ", przesunięcie=" + przesuniecie;
+					for (int i = 0; i < rozmiarListy; i++) {
+						assertEquals(lpStart + i, wynik.getLista().get(i).lp, opis);
+					}
+					assertEquals(liczbaWierszy(wynik.getPlan()), liczbaWywolan[0], opis);
+				}
+			}
+		}
+	}
+
+	@Test
+	void ustawLpZmienione_setter_numeracjaOd1() throws Exception {
+
+		PrzesuwanieObsluga<Wiersz> obsluga = new PrzesuwanieObsluga.Builder<Wiersz>().build();
+
+		List<Wiersz> wiersze = new ArrayList<>();
+		for (int i = 1; i <= 6; i++) {
+			Wiersz w = new Wiersz();
+			w.lp = i;
+			wiersze.add(w);
+		}
+
+		PrzesuwanieWynik<Wiersz> wynik = obsluga.przesunPelny(wiersze, new int[] { 4 }, -2);
+
+		List<Wiersz> zmienione = new ArrayList<>();
+		wynik.ustawLpZmienione((wiersz, lp) -> {
+			wiersz.lp = lp;
+			zmienione.add(wiersz);
+		});
+
+		assertEquals(List.of(wiersze.get(2), wiersze.get(3), wiersze.get(4)), zmienione);
+		assertEquals(3, wiersze.get(4).lp);
+		assertEquals(4, wiersze.get(2).lp);
+		assertEquals(5, wiersze.get(3).lp);
+	}
+
+	// ============================================================
+	// zmiany
+	// ============================================================
+
+	@Test
+	void zmiany_zgodneZPorownaniemList_sekwencyjnieIRownolegle() throws Exception {
+
+		for (TrybPrzesuwania tryb : TrybPrzesuwania.values()) {
+
+			PrzesuwanieObsluga<Integer> obsluga = new PrzesuwanieObsluga.Builder<Integer>().trybPrzesuwania(tryb)
+					.build();
+
+			for (int proba = 0; proba < PrzesuwanieLosowe.LICZBA_PROB; proba++) {
+
+				int rozmiarListy = losowe.rozmiarListy(60);
+				List<Integer> wszystkie = PrzesuwanieFactory.liczby(rozmiarListy);
+
+				int[] indeksy = losowe.indeksy(rozmiarListy, 8);
+				int przesuniecie = losowe.przesuniecie(rozmiarListy);
+
+				PrzesuwanieWynik<Integer> wynik = obsluga.przesunPelny(wszystkie, indeksy, przesuniecie);
+
+				// elementy to LP sprzed przesunięcia – porównanie pełnych list
+				List<String> oczekiwane = new ArrayList<>();
+				for (int lpStare = 1; lpStare <= rozmiarListy; lpStare++) {
+					int lpNowe = wynik.getLista().indexOf(lpStare) + 1;
+					if (lpNowe != lpStare) {
+						oczekiwane.add(new PrzesuwanieZmiana<>(lpStare, lpStare, lpNowe).toString());
+					}
+				}
+
+				String opis = tryb + ", n=" + rozmiarListy + ", przesunięcie=" + przesuniecie;
+				assertEquals(oczekiwane, wynik.zmiany().map(String::valueOf).collect(Collectors.toList()), opis);
+				assertEquals(oczekiwane,
+						wynik.zmiany().parallel().map(String::valueOf).collect(Collectors.toList()), opis);
+				assertEquals(oczekiwane.size(), wynik.zmiany().spliterator().getExactSizeIfKnown(), opis);
+			}
+		}
+	}
+
+	@Test
+	void zmiany_jedenBlok_dzielonyWPolowieZakresu() {
+
+		List<Integer> lista = new ArrayList<>();
+		for (int i = 1; i <= 1100; i++) {
+			lista.add(i);
+		}
+		// sam zakres odczytu – plan nie musi być permutacją
+		PrzesuwaniePlan plan = new PrzesuwaniePlan();
+		plan.dodaj(1, 100, 1000);
+
+		Spliterator<PrzesuwanieZmiana<Integer>> pusta = new PrzesuwanieWynik<>(lista, new PrzesuwaniePlan())
+				.zmiany().spliterator();
+		assertEquals(0, pusta.estimateSize());
+		assertNull(pusta.trySplit());
+
+		Spliterator<PrzesuwanieZmiana<Integer>> calosc = new PrzesuwanieWynik<>(lista, plan).zmiany(11)
+				.spliterator();
+		Spliterator<PrzesuwanieZmiana<Integer>> poczatek = calosc.trySplit();
+
+		assertEquals(50, poczatek.estimateSize());
+		assertEquals(50, calosc.estimateSize());
+
+		List<PrzesuwanieZmiana<Integer>> zmiany = new ArrayList<>();
+		assertTrue(calosc.tryAdvance(zmiany::add));
+		assertEquals(61, zmiany.get(0).lpStare);
+		assertEquals(1061, zmiany.get(0).lpNowe);
+	}
+
+	// ============================================================
+	// przypadki brzegowe
+	// ============================================================
+
+	@Test
+	void przypadkiBrzegowe_kopiaIWidok() throws Exception {
+
+		for (PrzesuwanieScenariuszBrzegowy scenariusz : PrzesuwanieScenariuszBrzegowy.values()) {
+			for (boolean jakoWidok : new boolean[] { false, true }) {
+
+				PrzesuwanieObsluga.Builder<PrzesuwanieTestDane> builder = new PrzesuwanieObsluga.Builder<PrzesuwanieTestDane>()
+						.trybPrzesuwania(scenariusz.getTryb());
+				PrzesuwanieObsluga<PrzesuwanieTestDane> obsluga = (jakoWidok ? builder.wynikJakoWidok() : builder)
+						.build();
+
+				PrzesuwanieWynik<PrzesuwanieTestDane> wynik = obsluga.przesunPelny(scenariusz.wszystkie(),
+						scenariusz.wybrane(), scenariusz.getPrzesuniecie());
+
+				String opis = scenariusz.opis() + (jakoWidok ? ", widok" : ", kopia");
+				assertions.assertLista(wynik.getLista(), scenariusz.oczekiwane());
+				assertEquals(scenariusz.getLiczbaZmienionych(), liczbaWierszy(wynik.getPlan()), opis);
+				assertEquals(scenariusz.getLiczbaZmienionych(), wynik.zmiany().count(), opis);
+			}
+		}
+	}
+
+	// ============================================================
+	// POMOCNICZE
+	// ============================================================
+
+	private static int liczbaWierszy(PrzesuwaniePlan plan) {
+		int liczba = 0;
+		for (int k = 0; k < plan.getLiczbaOperacji(); k++) {
+			liczba += plan.getLpDo(k) - plan.getLpOd(k) + 1;
+		}
+		return liczba;
+	}
+
+}